@@ -0,0 +1,59 @@
+plugins {
+    id("fabric-loom") version "0.11-SNAPSHOT"
+    id("org.quiltmc.quilt-mappings-on-loom") version "4.0.0"
+}
+
+base {
+    archivesBaseName = "mcxr-bench"
+}
+
+group = properties["maven_group"].toString()
+
+repositories {
+    maven {
+        name = "Jitpack"
+        url = uri("https://jitpack.io")
+    }
+}
+
+val jmhVersion = "1.35"
+
+dependencies {
+    implementation(project(path = ":mcxr-core", configuration = "namedElements"))
+    implementation(project(path = ":mcxr-play", configuration = "namedElements"))
+
+    minecraft("com.mojang:minecraft:${properties["minecraft_version"].toString()}")
+    mappings(loom.layered {
+        this.addLayer(quiltMappings.mappings("org.quiltmc:quilt-mappings:${properties["minecraft_version"].toString()}+build.${properties["quilt_mappings"].toString()}:v2"))
+        officialMojangMappings()
+    })
+    modImplementation("net.fabricmc:fabric-loader:${properties["loader_version"].toString()}")
+
+    implementation("org.lwjgl:lwjgl-openxr:3.3.1")
+    implementation("org.joml:joml:${properties["joml_version"].toString()}")
+
+    implementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
+
+tasks {
+    withType<JavaCompile> {
+        options.release.set(17)
+    }
+
+    // ./gradlew -Pmcxr.bench :mcxr-bench:jmh -Pjmh.include=Pose
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the JMH benchmarks with the GC profiler so allocations are reported next to throughput"
+        dependsOn("classes")
+        classpath = sourceSets["main"].runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+        val include = project.findProperty("jmh.include")?.toString() ?: "net.sorenon.mcxr.bench"
+        args = listOf(include, "-prof", "gc", "-rf", "json", "-rff", "${buildDir}/jmh-result.json")
+    }
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
@@ -0,0 +1,58 @@
+package net.sorenon.mcxr.bench;
+
+import net.sorenon.mcxr.play.input.ControllerPoses;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+import org.lwjgl.openxr.XrPosef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerPosesBenchmark {
+
+    private final ControllerPoses poses = new ControllerPoses();
+    private final Vector3f stagePosition = new Vector3f(0.2f, 0, -0.4f);
+    private final Vector3d origin = new Vector3d(120.5, 64, -33.25);
+    private XrPosef xrPose;
+
+    @Setup
+    public void setup() {
+        xrPose = XrPosef.calloc();
+        xrPose.position$().set(0.1f, 1.6f, -0.2f);
+        xrPose.orientation().set(0.05f, 0.38f, 0.02f, 0.92f);
+    }
+
+    @TearDown
+    public void tearDown() {
+        xrPose.free();
+    }
+
+    @Benchmark
+    public void updatePhysicalPose(Blackhole bh) {
+        poses.updatePhysicalPose(xrPose, 0.7f, 1.0f, stagePosition);
+        bh.consume(poses.getPhysicalPose());
+    }
+
+    @Benchmark
+    public void updateGamePose(Blackhole bh) {
+        poses.updateGamePose(origin);
+        bh.consume(poses.getMinecraftPose());
+    }
+}
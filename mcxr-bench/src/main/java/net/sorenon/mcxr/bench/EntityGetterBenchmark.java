@@ -0,0 +1,81 @@
+package net.sorenon.mcxr.bench;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.HumanoidArm;
+import net.minecraft.world.entity.Marker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The entity getters hand based item usage used to intercept, as they run now and with the HEAD injections HandOverride replaced
+ * <p>
+ * Mixins aren't applied here so the injected variants do by hand what the removed injections did on every call to a player's getters:
+ * allocate a CallbackInfoReturnable and look up the ThreadLocal override before falling through to the vanilla getter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityGetterBenchmark {
+
+    private final ThreadLocal<HumanoidArm> overrideTransform = ThreadLocal.withInitial(() -> null);
+
+    private Entity entity;
+
+    @Setup
+    public void setup() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        entity = new Marker(EntityType.MARKER, null);
+        entity.setPos(120.5, 64, -33.25);
+        entity.setXRot(20);
+        entity.setYRot(135);
+    }
+
+    private boolean injected(String name) {
+        CallbackInfoReturnable<Object> cir = new CallbackInfoReturnable<>(name, true);
+        return overrideTransform.get() != null || cir.isCancelled();
+    }
+
+    @Benchmark
+    public void getters(Blackhole bh) {
+        bh.consume(entity.getX());
+        bh.consume(entity.getY());
+        bh.consume(entity.getZ());
+        bh.consume(entity.getEyeY());
+        bh.consume(entity.getXRot());
+        bh.consume(entity.getYRot());
+        bh.consume(entity.position());
+        bh.consume(entity.getViewVector(1));
+    }
+
+    @Benchmark
+    public void gettersInjected(Blackhole bh) {
+        bh.consume(injected("getX") ? 0 : entity.getX());
+        bh.consume(injected("getY") ? 0 : entity.getY());
+        bh.consume(injected("getZ") ? 0 : entity.getZ());
+        //getEyeY called the injected getEyeHeight too
+        bh.consume(injected("getEyeY") || injected("getEyeHeight") ? 0 : entity.getEyeY());
+        bh.consume(injected("getXRot") ? 0 : entity.getXRot());
+        bh.consume(injected("getYRot") ? 0 : entity.getYRot());
+        bh.consume(injected("position") ? null : entity.position());
+        bh.consume(injected("getViewVector") ? null : entity.getViewVector(1));
+    }
+}
@@ -0,0 +1,59 @@
+package net.sorenon.mcxr.bench;
+
+import com.mojang.math.Quaternion;
+import net.minecraft.world.phys.Vec3;
+import net.sorenon.mcxr.core.JOMLUtil;
+import org.joml.Quaternionf;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JOMLUtilBenchmark {
+
+    private final Vector3f vector3f = new Vector3f(1.5f, 64.2f, -3.7f);
+    private final Vector3d vector3d = new Vector3d(1.5, 64.2, -3.7);
+    private final Vec3 vec3 = new Vec3(1.5, 64.2, -3.7);
+    private final Quaternionf quaternionf = new Quaternionf().rotateY(0.7f).rotateX(0.2f);
+    private final Quaternion quaternion = new Quaternion(0.1f, 0.6f, 0.05f, 0.79f);
+
+    @Benchmark
+    public Vec3 vector3fToVec3() {
+        return JOMLUtil.convert(vector3f);
+    }
+
+    @Benchmark
+    public Vec3 vector3dToVec3() {
+        return JOMLUtil.convert(vector3d);
+    }
+
+    @Benchmark
+    public Vector3d vec3ToVector3d() {
+        return JOMLUtil.convert(vec3);
+    }
+
+    @Benchmark
+    public Quaternion quaternionfToQuaternion() {
+        return JOMLUtil.convert(quaternionf);
+    }
+
+    @Benchmark
+    public Quaternionf quaternionToQuaternionf() {
+        return JOMLUtil.convert(quaternion);
+    }
+}
@@ -0,0 +1,115 @@
+package net.sorenon.mcxr.bench;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseCodec;
+import net.sorenon.mcxr.core.PoseMath;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoseBenchmark {
+
+    private static final float HAND_PITCH_ADJUST = (float) Math.toRadians(30);
+
+    private final Pose head = new Pose();
+    private final Pose leftHand = new Pose();
+    private final Pose rightHand = new Pose();
+    private final Pose dest = new Pose();
+    private final Vector3f normal = new Vector3f();
+
+    private ByteBuf buf;
+    private FriendlyByteBuf friendlyBuf;
+
+    private final PoseCodec.Encoder encoder = new PoseCodec.Encoder(true);
+    private final PoseCodec.Decoder decoder = new PoseCodec.Decoder();
+    private int sequence = 0;
+
+    @Setup
+    public void setup() {
+        head.pos.set(0.1f, 1.62f, -0.05f);
+        head.orientation.identity().rotateY(0.6f).rotateX(-0.2f);
+        leftHand.pos.set(-0.3f, 1.1f, -0.4f);
+        leftHand.orientation.identity().rotateY(0.3f).rotateX(0.9f).rotateZ(0.1f);
+        rightHand.pos.set(0.3f, 1.05f, -0.35f);
+        rightHand.orientation.identity().rotateY(-0.4f).rotateX(1.1f);
+
+        buf = Unpooled.buffer(256);
+        friendlyBuf = new FriendlyByteBuf(Unpooled.buffer(256));
+    }
+
+    @Benchmark
+    public float getMCYaw() {
+        return Pose.getMCYaw(leftHand.orientation, normal.set(0, -1, 0));
+    }
+
+    @Benchmark
+    public float getMCPitch() {
+        return Pose.getMCPitch(leftHand.orientation, normal.set(0, -1, 0));
+    }
+
+    @Benchmark
+    public float headYaw() {
+        return PoseMath.headYaw(head.orientation);
+    }
+
+    @Benchmark
+    public float handYawAdjusted() {
+        return PoseMath.handYaw(rightHand.orientation, HAND_PITCH_ADJUST);
+    }
+
+    @Benchmark
+    public Vector3f handDirection() {
+        return PoseMath.handDirection(rightHand.orientation, HAND_PITCH_ADJUST, normal);
+    }
+
+    /**
+     * What hand direction call sites did before {@link PoseMath}
+     */
+    @Benchmark
+    public Vector3f handDirectionAllocating() {
+        return rightHand.orientation.rotateX(HAND_PITCH_ADJUST, new Quaternionf()).transform(new Vector3f(0, -1, 0));
+    }
+
+    @Benchmark
+    public float getYawFromNormal() {
+        return Pose.getYawFromNormal(normal.set(0.3f, -0.2f, -0.93f));
+    }
+
+    @Benchmark
+    public void writeRead(Blackhole bh) {
+        buf.clear();
+        head.write(buf);
+        dest.read(buf);
+        bh.consume(dest);
+    }
+
+    @Benchmark
+    public void codecEncodeDecode(Blackhole bh) {
+        //Nudge the head so deltas are never empty
+        head.pos.y += sequence % 2 == 0 ? 0.01f : -0.01f;
+        friendlyBuf.clear();
+        encoder.write(friendlyBuf, ++sequence, head, leftHand, rightHand);
+        bh.consume(decoder.read(friendlyBuf, dest, dest, dest));
+    }
+}
@@ -0,0 +1,34 @@
+package net.sorenon.mcxr.bench;
+
+import net.sorenon.mcxr.play.rendering.XrProjection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The math behind Matrix4fMixin.setXrProjection, run once per eye per frame
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private final float[] dest = new float[16];
+
+    @Benchmark
+    public float[] setXrProjection() {
+        XrProjection.compute(-0.94f, 0.80f, -0.92f, 0.83f, 0.05f, 256f, dest);
+        return dest;
+    }
+}
@@ -0,0 +1,82 @@
+package net.sorenon.mcxr.bench;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.CollisionGetter;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.border.WorldBorder;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.shapes.VoxelShape;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * A level without chunks or entities: stone below y 64, a three block high wall at x 4 and a slab step at x -3, air everywhere else
+ */
+public class SyntheticLevel implements CollisionGetter {
+
+    public static final int FLOOR_Y = 64;
+
+    private final BlockState stone = Blocks.STONE.defaultBlockState();
+    private final BlockState slab = Blocks.STONE_SLAB.defaultBlockState();
+    private final BlockState air = Blocks.AIR.defaultBlockState();
+
+    private final WorldBorder worldBorder = new WorldBorder();
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        int y = pos.getY();
+        if (y < FLOOR_Y) {
+            return stone;
+        }
+        if (pos.getX() == 4 && y < FLOOR_Y + 3) {
+            return stone;
+        }
+        if (pos.getX() == -3 && y == FLOOR_Y) {
+            return slab;
+        }
+        return air;
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return Fluids.EMPTY.defaultFluidState();
+    }
+
+    @Override
+    public int getHeight() {
+        return 384;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return -64;
+    }
+
+    @Override
+    public WorldBorder getWorldBorder() {
+        return worldBorder;
+    }
+
+    @Override
+    public BlockGetter getChunkForCollisions(int chunkX, int chunkZ) {
+        return this;
+    }
+
+    @Override
+    public List<VoxelShape> getEntityCollisions(@Nullable Entity entity, AABB aabb) {
+        return List.of();
+    }
+}
@@ -0,0 +1,96 @@
+package net.sorenon.mcxr.bench;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityDimensions;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Marker;
+import net.minecraft.world.phys.Vec3;
+import net.sorenon.mcxr.core.Teleport;
+import net.sorenon.mcxr.core.TeleportValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teleport's hand and fall rays and TeleportValidator's bounded checks, called through their production entry points
+ * against a {@link SyntheticLevel} with a stand-in entity of the player's size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeleportBenchmark {
+
+    private final EntityDimensions dims = EntityDimensions.scalable(0.6f, 1.8f);
+
+    private SyntheticLevel level;
+    private Entity entity;
+
+    private final Vec3 hand = new Vec3(0.3, SyntheticLevel.FLOOR_Y + 1.2, 0.2);
+    private final Vec3 direction = new Vec3(0.8, -0.35, 0.1).normalize();
+    private final Vec3 wallDirection = new Vec3(1, 0.05, 0).normalize();
+    private final Vec3 fallDirection = new Vec3(-1, 0.3, 0.2).normalize();
+
+    private Vec3 destination;
+    private Vec3 fallDestination;
+
+    @Setup
+    public void setup() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        level = new SyntheticLevel();
+        entity = new Marker(EntityType.MARKER, null);
+        entity.setPos(0, SyntheticLevel.FLOOR_Y, 0);
+
+        destination = Objects.requireNonNull(Teleport.tp(level, entity, dims, hand, direction));
+        fallDestination = Objects.requireNonNull(Teleport.tp(level, entity, dims, hand, fallDirection));
+    }
+
+    @Benchmark
+    public Vec3 tp() {
+        return Teleport.tp(level, entity, dims, hand, direction);
+    }
+
+    @Benchmark
+    public Vec3 tpIntoWall() {
+        return Teleport.tp(level, entity, dims, hand, wallDirection);
+    }
+
+    /**
+     * Misses everything and falls from the end of the hand ray
+     */
+    @Benchmark
+    public Vec3 tpFall() {
+        return Teleport.tp(level, entity, dims, hand, fallDirection);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return TeleportValidator.validate(level, entity, dims, 1, hand, direction, destination);
+    }
+
+    @Benchmark
+    public boolean validateFall() {
+        return TeleportValidator.validate(level, entity, dims, 1, hand, fallDirection, fallDestination);
+    }
+
+    @Benchmark
+    public boolean validatorLineOfSight() {
+        Vec3 end = hand.add(direction.scale(Teleport.RAY_LENGTH - 1));
+        return TeleportValidator.hasLineOfSight(level, hand, end, TeleportValidator.MAX_LOS_SAMPLES);
+    }
+}
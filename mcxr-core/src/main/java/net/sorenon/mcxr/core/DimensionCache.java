@@ -0,0 +1,87 @@
+package net.sorenon.mcxr.core;
+
+import net.minecraft.world.entity.EntityDimensions;
+import net.minecraft.world.entity.Pose;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The last dimensions solved for each pose of an XR player and the inputs they were solved from
+ * <p>
+ * Results that didn't need a collision probe stay valid until the scale, wanted height or settings change.
+ * Results that did (the player wanted to grow) also depend on the surroundings, those are only reused while the player stays put
+ * and for at most {@link #PROBE_INTERVAL} ticks so a block being removed above them is eventually noticed.
+ */
+public class DimensionCache {
+
+    /**
+     * Height changes smaller than this don't cause a recompute
+     */
+    public static final float EPSILON = 1 / 64f;
+
+    public static final int PROBE_INTERVAL = 10;
+
+    private static final double MOVE_THRESHOLD_SQR = (1 / 16d) * (1 / 16d);
+
+    /**
+     * How far, in multiples of the player's scale, one collision probe may grow the bounding box
+     */
+    public static final float MAX_PROBE_GROWTH = 1;
+
+    private static class Entry {
+        EntityDimensions dimensions;
+        boolean dynamicHeight;
+        boolean thinnerBB;
+        float scale;
+        float wantedHeight;
+        float currentHeight;
+        boolean probed;
+        double x, y, z;
+        int tick;
+    }
+
+    private final Entry[] entries = new Entry[Pose.values().length];
+
+    @Nullable
+    public EntityDimensions get(Pose pose, boolean dynamicHeight, boolean thinnerBB, float scale, float wantedHeight, float currentHeight, double x, double y, double z, int tick) {
+        Entry entry = entries[pose.ordinal()];
+        if (entry == null
+                || entry.dynamicHeight != dynamicHeight
+                || entry.thinnerBB != thinnerBB
+                || entry.scale != scale
+                || Math.abs(entry.wantedHeight - wantedHeight) > EPSILON) {
+            return null;
+        }
+
+        if (entry.probed) {
+            double dx = entry.x - x, dy = entry.y - y, dz = entry.z - z;
+            if (entry.currentHeight != currentHeight
+                    || dx * dx + dy * dy + dz * dz > MOVE_THRESHOLD_SQR
+                    || tick - entry.tick >= PROBE_INTERVAL) {
+                return null;
+            }
+        } else if (dynamicHeight && entry.wantedHeight > currentHeight) {
+            //Was solved while shrinking but now needs room to grow
+            return null;
+        }
+        return entry.dimensions;
+    }
+
+    public void put(Pose pose, EntityDimensions dimensions, boolean dynamicHeight, boolean thinnerBB, float scale, float wantedHeight, float currentHeight, boolean probed, double x, double y, double z, int tick) {
+        Entry entry = entries[pose.ordinal()];
+        if (entry == null) {
+            entry = new Entry();
+            entries[pose.ordinal()] = entry;
+        }
+        entry.dimensions = dimensions;
+        entry.dynamicHeight = dynamicHeight;
+        entry.thinnerBB = thinnerBB;
+        entry.scale = scale;
+        entry.wantedHeight = wantedHeight;
+        entry.currentHeight = currentHeight;
+        entry.probed = probed;
+        entry.x = x;
+        entry.y = y;
+        entry.z = z;
+        entry.tick = tick;
+    }
+}
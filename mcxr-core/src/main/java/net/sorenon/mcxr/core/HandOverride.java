@@ -0,0 +1,120 @@
+package net.sorenon.mcxr.core;
+
+import net.minecraft.world.entity.HumanoidArm;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.phys.Vec3;
+import net.sorenon.mcxr.core.mixin.EntityAcc;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Makes a player look like it is standing at and facing out of one of its hands while an item is being used
+ * <p>
+ * Instead of intercepting every getter the player's own position, old position, eye height and rotation fields are swapped for the hand's
+ * when the use starts and put back when it ends, so entity getters cost nothing extra the rest of the time.
+ * Only the thread that owns the entity may use it in between.
+ */
+public class HandOverride {
+
+    /**
+     * Item usage is aimed from slightly in front of the hand rather than from an eye above it
+     */
+    public static final float EYE_HEIGHT = 0.1f;
+
+    /**
+     * The hand pose item usage is aimed from, filled in before {@link #begin}
+     */
+    public final Pose pose = new Pose();
+
+    @Nullable
+    private HumanoidArm arm = null;
+
+    private Vec3 upVector = Vec3.ZERO;
+
+    private Vec3 savedPosition;
+    private double savedXo, savedYo, savedZo;
+    private float savedEyeHeight;
+    private float savedXRot, savedYRot, savedXRotO, savedYRotO;
+
+    private Vec3 handPosition;
+    private float handXRot, handYRot;
+
+    public void begin(Player player, HumanoidArm arm) {
+        if (this.arm != null) {
+            end(player);
+        }
+        EntityAcc acc = (EntityAcc) player;
+
+        savedPosition = player.position();
+        savedXo = player.xo;
+        savedYo = player.yo;
+        savedZo = player.zo;
+        savedEyeHeight = player.getEyeHeight();
+        savedXRot = player.getXRot();
+        savedYRot = player.getYRot();
+        savedXRotO = player.xRotO;
+        savedYRotO = player.yRotO;
+
+        handPosition = savedPosition.add(pose.pos.x, pose.pos.y, pose.pos.z);
+        handXRot = PoseMath.handPitch(pose.orientation);
+        handYRot = PoseMath.handYaw(pose.orientation);
+        upVector = new Vec3(
+                PoseMath.transformX(pose.orientation, 0, 0, 1),
+                PoseMath.transformY(pose.orientation, 0, 0, 1),
+                PoseMath.transformZ(pose.orientation, 0, 0, 1)
+        );
+
+        acc.setPositionRaw(handPosition);
+        //Partial tick getters such as getEyePosition and pick lerp from the old position
+        player.xo = handPosition.x;
+        player.yo = handPosition.y;
+        player.zo = handPosition.z;
+        acc.setEyeHeightRaw(EYE_HEIGHT);
+        player.setXRot(handXRot);
+        player.setYRot(handYRot);
+        player.xRotO = handXRot;
+        player.yRotO = handYRot;
+
+        this.arm = arm;
+    }
+
+    public void end(Player player) {
+        if (arm == null) {
+            return;
+        }
+        arm = null;
+        EntityAcc acc = (EntityAcc) player;
+
+        Vec3 position = player.position();
+        if (position == handPosition) {
+            //The bounding box was never touched so the field can be put straight back
+            acc.setPositionRaw(savedPosition);
+        } else {
+            //Something moved the player while the item was used, keep that movement
+            player.setPos(savedPosition.add(position.subtract(handPosition)));
+        }
+        player.xo = savedXo;
+        player.yo = savedYo;
+        player.zo = savedZo;
+        acc.setEyeHeightRaw(savedEyeHeight);
+        player.setXRot(savedXRot + (player.getXRot() - handXRot));
+        player.setYRot(savedYRot + (player.getYRot() - handYRot));
+        player.xRotO = savedXRotO;
+        player.yRotO = savedYRotO;
+    }
+
+    public boolean isActive() {
+        return arm != null;
+    }
+
+    @Nullable
+    public HumanoidArm getArm() {
+        return arm;
+    }
+
+    /**
+     * Roll of the hand can't be expressed with pitch and yaw so the up vector is kept separately
+     */
+    public Vec3 getUpVector() {
+        return upVector;
+    }
+}
@@ -0,0 +1,32 @@
+package net.sorenon.mcxr.core;
+
+import com.mojang.brigadier.CommandDispatcher;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+public class MCXRCommand {
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("mcxr")
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("stats")
+                        .executes(context -> {
+                            var source = context.getSource();
+                            var lines = MCXRMetrics.report();
+                            for (String line : lines) {
+                                source.sendSuccess(Component.literal(line), false);
+                            }
+                            return lines.size();
+                        })
+                        .then(Commands.literal("reset")
+                                .executes(context -> {
+                                    MCXRMetrics.reset();
+                                    context.getSource().sendSuccess(Component.literal("Reset MCXR metrics"), true);
+                                    return 1;
+                                })
+                        )
+                )
+        );
+    }
+}
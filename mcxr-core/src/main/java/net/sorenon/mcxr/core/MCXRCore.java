@@ -2,15 +2,22 @@ package net.sorenon.mcxr.core;
 
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.fabricmc.fabric.api.networking.v1.ServerLoginConnectionEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerLoginNetworking;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.Util;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.HumanoidArm;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.phys.Vec3;
 import net.sorenon.mcxr.core.accessor.PlayerExt;
 import net.sorenon.mcxr.core.config.MCXRCoreConfig;
 import net.sorenon.mcxr.core.config.MCXRCoreConfigImpl;
@@ -19,23 +26,41 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.joml.Vector3f;
 
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class MCXRCore implements ModInitializer {
 
     public static final ResourceLocation S2C_CONFIG = new ResourceLocation("mcxr", "config");
 
     public static final ResourceLocation IS_XR_PLAYER = new ResourceLocation("mcxr", "is_xr_player");
     public static final ResourceLocation POSES = new ResourceLocation("mcxr", "poses");
+    public static final ResourceLocation POSES_COMPACT = new ResourceLocation("mcxr", "poses_compact");
     public static final ResourceLocation TELEPORT = new ResourceLocation("mcxr", "teleport");
 
+    public static final ResourceLocation AVATAR_POSES = new ResourceLocation("mcxr", "avatar_poses");
+
     public static MCXRCore INSTANCE;
 
     private static final Logger LOGGER = LogManager.getLogger("MCXR Core");
 
     public final MCXRCoreConfigImpl config = new MCXRCoreConfigImpl();
 
+    public final PoseBroadcaster poseBroadcaster = new PoseBroadcaster();
+
+    public final TeleportValidator teleportValidator = new TeleportValidator();
+
+    private final ConcurrentHashMap<UUID, PoseStreamConfig> poseStreams = new ConcurrentHashMap<>();
+
+    /**
+     * The stream of players that didn't negotiate one, clients from before the handshake can't send anything but floats
+     */
+    private PoseStreamConfig fallbackPoseStream;
+
     @Override
     public void onInitialize() {
         INSTANCE = this;
+        fallbackPoseStream = new PoseStreamConfig(0, Math.min(PoseStreamConfig.MAX_POSE_RATE, Math.max(1, config.maxPoseRate())), PoseStreamConfig.CODEC_FLOATS, 0);
         if (FabricLoader.getInstance().getEnvironmentType() == EnvType.SERVER) {
             config.xrEnabled = true;
         }
@@ -49,12 +74,21 @@ public class MCXRCore implements ModInitializer {
                 } else {
                     LOGGER.info("Received login packet from " + profile.getId());
                 }
+
+                //Clients from before the handshake only send the boolean and fall back to getPoseStream's defaults
+                var capabilities = PoseStreamConfig.Capabilities.read(buf);
+                if (capabilities != null) {
+                    var stream = PoseStreamConfig.negotiate(getCapabilities(), capabilities);
+                    LOGGER.debug("Negotiated {} with {}", stream, profile.getId());
+                    poseStreams.put(profile.getId(), stream);
+                }
             }
         });
 
         ServerLoginConnectionEvents.QUERY_START.register((handler, server, sender, synchronizer) -> {
             LOGGER.debug("Sending login packet to " + handler.getUserName());
             var buf = PacketByteBufs.create();
+            getCapabilities().write(buf);
             sender.sendPacket(S2C_CONFIG, buf);
         });
 
@@ -71,52 +105,164 @@ public class MCXRCore implements ModInitializer {
                     });
                 });
 
+        //Poses are decoded on the network thread and picked up by the player at the start of its next tick
         ServerPlayNetworking.registerGlobalReceiver(POSES,
                 (server, player, handler, buf, responseSender) -> {
-                    var pose1 = new Pose();
-                    var pose2 = new Pose();
-                    var pose3 = new Pose();
-                    pose1.read(buf);
-                    pose2.read(buf);
-                    pose3.read(buf);
+                    long start = System.nanoTime();
+                    int bytes = buf.readableBytes();
+                    PoseSlot slot = ((PlayerExt) player).getPoseSlot();
+                    //Older clients can't be told to slow down so drop whatever they send above the rate this server allows
+                    if (!slot.tryAccept(Util.getNanos(), getPoseStream(player).poseRate)) {
+                        MCXRMetrics.POSE_PACKETS_DROPPED.increment();
+                        return;
+                    }
+                    PoseSlot.Frame frame = slot.back();
+                    frame.headPose.read(buf);
+                    frame.leftHandPose.read(buf);
+                    frame.rightHandPose.read(buf);
+                    frame.sequence = 0;
 //                    var height = buf.readFloat();
-                    server.execute(() -> {
-                        PlayerExt acc = (PlayerExt) player;
-                        acc.getHeadPose().set(pose1);
-                        acc.getLeftHandPose().set(pose2);
-                        acc.getRightHandPose().set(pose3);
-//                        acc.setHeight(height);
-                    });
+                    slot.publish();
+                    MCXRMetrics.recordPoseIn(player, bytes, start);
                 });
 
+        ServerPlayNetworking.registerGlobalReceiver(POSES_COMPACT,
+                (server, player, handler, buf, responseSender) -> {
+                    long start = System.nanoTime();
+                    int bytes = buf.readableBytes();
+                    PlayerExt acc = (PlayerExt) player;
+                    PoseSlot slot = acc.getPoseSlot();
+                    PoseSlot.Frame frame = slot.back();
+                    if (acc.getPoseDecoder().read(buf, frame.headPose, frame.leftHandPose, frame.rightHandPose)) {
+                        frame.sequence = acc.getPoseDecoder().getSequence();
+                        acc.getPoseHistory().record(frame.sequence, frame.headPose, frame.leftHandPose, frame.rightHandPose);
+                        //Every frame is decoded so the next delta has its base, only handing it to the player is rate limited
+                        if (slot.tryAccept(Util.getNanos(), getPoseStream(player).poseRate)) {
+                            slot.publish();
+                        } else {
+                            MCXRMetrics.POSE_PACKETS_DROPPED.increment();
+                        }
+                    } else {
+                        MCXRMetrics.POSE_PACKETS_DROPPED.increment();
+                    }
+                    MCXRMetrics.recordPoseIn(player, bytes, start);
+                });
+
+        ServerTickEvents.END_SERVER_TICK.register(poseBroadcaster::tick);
+
         ServerPlayNetworking.registerGlobalReceiver(TELEPORT,
                 (server, player, handler, buf, responseSender) -> {
+                    MCXRMetrics.TELEPORT_REQUESTS.increment();
+                    if (!teleportValidator.tryAcquire(player)) {
+                        MCXRMetrics.TELEPORT_RATE_LIMITED.increment();
+                        LOGGER.warn("Player {} is teleporting too quickly", player.toString());
+                        server.execute(() -> resyncPosition(player));
+                        return;
+                    }
+
+                    //Older clients send an empty packet and leave the raycasts to the server
+                    Vec3 destination = null;
+                    if (buf.readableBytes() >= 24) {
+                        destination = new Vec3(buf.readDouble(), buf.readDouble(), buf.readDouble());
+                    }
+                    Vec3 finalDestination = destination;
+
+                    //The poses received before this packet are the ones the client teleported with
+                    int sequence = ((PlayerExt) player).getPoseHistory().newestSequence();
                     server.execute(() -> {
+                        long handlerStart = System.nanoTime();
                         PlayerExt acc = (PlayerExt) player;
-                        Pose pose;
+                        HumanoidArm arm = player.getMainArm().getOpposite();
 
-                        if (player.getMainArm() == HumanoidArm.LEFT) {
-                            pose = acc.getRightHandPose();
-                        } else {
-                            pose = acc.getLeftHandPose();
+                        Pose pose = new Pose();
+                        if (!acc.getPoseHistory().sample(sequence, arm, pose)) {
+                            pose.set(acc.getPoseForArm(arm));
                         }
 
-                        Vector3f dir = pose.getOrientation().transform(new Vector3f(0, -1, 0));
+                        Vec3 start = player.position().add(JOMLUtil.convert(pose.getPos()));
+                        Vec3 dir = JOMLUtil.convert(pose.getOrientation().transform(new Vector3f(0, -1, 0)));
+
+                        Vec3 pos;
+                        boolean resync = false;
+                        if (finalDestination != null && TeleportValidator.validate(player, start, dir, finalDestination)) {
+                            pos = finalDestination;
+                        } else {
+                            //Anything the bounded checks can't vouch for gets the full raycasts, the client is moved to where they land
+                            pos = Teleport.tp(player, start, dir);
+                            resync = finalDestination != null;
+                        }
 
-                        var pos = Teleport.tp(player, JOMLUtil.convert(pose.getPos()), JOMLUtil.convert(dir));
                         if (pos != null) {
                             player.setPos(pos);
+                            if (resync) {
+                                resyncPosition(player);
+                            }
                         } else {
+                            MCXRMetrics.TELEPORT_REJECTED.increment();
                             LOGGER.warn("Player {} attempted an invalid teleport", player.toString());
+                            resyncPosition(player);
                         }
+                        MCXRMetrics.TELEPORT_HANDLER_NANOS.record(System.nanoTime() - handlerStart);
                     });
                 });
+
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            teleportValidator.forget(handler.player.getUUID());
+            poseStreams.remove(handler.player.getUUID());
+            MCXRMetrics.forget(handler.player.getUUID());
+        });
+
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> MCXRCommand.register(dispatcher));
+
+        ServerTickEvents.END_SERVER_TICK.register(server -> dumpMetrics(config.metricsLogInterval()));
+    }
+
+    /**
+     * Logs every metric if the given interval in seconds has passed since the last dump, shared by the client and server
+     */
+    public static void dumpMetrics(int intervalSeconds) {
+        if (MCXRMetrics.shouldDump(intervalSeconds)) {
+            for (String line : MCXRMetrics.report()) {
+                LOGGER.info(line);
+            }
+        }
+    }
+
+    public PoseStreamConfig.Capabilities getCapabilities() {
+        return new PoseStreamConfig.Capabilities(config.maxPoseRate(), config.poseCodecs(), config.features(), 0);
+    }
+
+    /**
+     * @return the pose stream negotiated with this player when it logged in
+     */
+    public PoseStreamConfig getPoseStream(Player player) {
+        return poseStreams.getOrDefault(player.getUUID(), fallbackPoseStream);
+    }
+
+    private static void resyncPosition(ServerPlayer player) {
+        player.connection.teleport(player.getX(), player.getY(), player.getZ(), player.getYRot(), player.getXRot());
     }
 
     public static MCXRCoreConfig getCoreConfig() {
         return INSTANCE.config;
     }
 
+    /**
+     * Aims hand based item usage from the given arm, using the pose the client had when it sent the action being handled if it is still in the history
+     */
+    public static void beginHandOverride(Player player, HumanoidArm arm) {
+        PlayerExt acc = (PlayerExt) player;
+        Pose pose = acc.getHandOverride().pose;
+        if (!acc.getPoseHistory().sample(acc.getPoseHistory().getActionSequence(), arm, pose)) {
+            pose.set(acc.getPoseForArm(arm));
+        }
+        acc.getHandOverride().begin(player, arm);
+    }
+
+    public static void endHandOverride(Player player) {
+        ((PlayerExt) player).getHandOverride().end(player);
+    }
+
     public static HumanoidArm handToArm(LivingEntity entity, InteractionHand hand) {
         if (hand == InteractionHand.MAIN_HAND) {
             return entity.getMainArm();
@@ -0,0 +1,211 @@
+package net.sorenon.mcxr.core;
+
+import net.minecraft.world.entity.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide counters and histograms for the cost of MCXR, cheap enough to record from the network, server and render threads
+ * <p>
+ * Metrics are registered once into static fields and only ever added to, nothing takes a lock on the recording side.
+ */
+public class MCXRMetrics {
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+    private static final Map<UUID, PlayerStats> PLAYERS = new ConcurrentHashMap<>();
+
+    public static final Counter POSE_PACKETS_IN = counter("pose.packets_in");
+    public static final Counter POSE_BYTES_IN = counter("pose.bytes_in");
+    public static final Counter POSE_PACKETS_DROPPED = counter("pose.packets_dropped");
+    public static final Counter POSE_PACKETS_OUT = counter("pose.packets_out");
+    public static final Counter POSE_BYTES_OUT = counter("pose.bytes_out");
+    public static final Histogram POSE_HANDLER_NANOS = histogram("pose.handler_nanos");
+    public static final Histogram POSE_BROADCAST_NANOS = histogram("pose.broadcast_nanos");
+
+    public static final Counter TELEPORT_REQUESTS = counter("teleport.requests");
+    public static final Counter TELEPORT_REJECTED = counter("teleport.rejected");
+    public static final Counter TELEPORT_RATE_LIMITED = counter("teleport.rate_limited");
+    public static final Histogram TELEPORT_HANDLER_NANOS = histogram("teleport.handler_nanos");
+
+    public static final Counter DIMENSION_RECOMPUTES = counter("dimensions.recomputes");
+
+    public static final Histogram CLIENT_FRAME_WAIT_NANOS = histogram("client.frame.wait_nanos");
+    public static final Histogram CLIENT_FRAME_RENDER_NANOS = histogram("client.frame.render_nanos");
+    public static final Histogram CLIENT_FRAME_SUBMIT_NANOS = histogram("client.frame.submit_nanos");
+    public static final Histogram CLIENT_FRAME_GPU_NANOS = histogram("client.frame.gpu_nanos");
+
+    private static final AtomicLong lastDumpNanos = new AtomicLong(System.nanoTime());
+
+    public static class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * Power of two buckets, bucket i holds values that are i bits long
+     */
+    public static class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            value = Math.max(0, value);
+            buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value));
+            count.increment();
+            sum.add(value);
+            long prev;
+            while (value > (prev = max.get()) && !max.compareAndSet(prev, value)) {
+                Thread.onSpinWait();
+            }
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public double mean() {
+            long count = count();
+            return count == 0 ? 0 : (double) sum.sum() / count;
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        /**
+         * @return the upper bound of the bucket the given quantile falls in
+         */
+        public long quantile(double quantile) {
+            long count = count();
+            if (count == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(count * quantile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target) {
+                    return i == 0 ? 0 : 1L << Math.min(i, 62);
+                }
+            }
+            return max();
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            sum.reset();
+            max.set(0);
+        }
+    }
+
+    public static class PlayerStats {
+        public final String name;
+        public final Counter packetsIn = new Counter();
+        public final Counter bytesIn = new Counter();
+        public final Counter packetsOut = new Counter();
+        public final Counter bytesOut = new Counter();
+
+        PlayerStats(String name) {
+            this.name = name;
+        }
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    public static PlayerStats player(Player player) {
+        return PLAYERS.computeIfAbsent(player.getUUID(), uuid -> new PlayerStats(player.getGameProfile().getName()));
+    }
+
+    public static void forget(UUID uuid) {
+        PLAYERS.remove(uuid);
+    }
+
+    public static void recordPoseIn(Player player, int bytes, long startNanos) {
+        POSE_PACKETS_IN.increment();
+        POSE_BYTES_IN.add(bytes);
+        PlayerStats stats = player(player);
+        stats.packetsIn.increment();
+        stats.bytesIn.add(bytes);
+        POSE_HANDLER_NANOS.record(System.nanoTime() - startNanos);
+    }
+
+    public static void recordPoseOut(Player player, int bytes) {
+        POSE_PACKETS_OUT.increment();
+        POSE_BYTES_OUT.add(bytes);
+        PlayerStats stats = player(player);
+        stats.packetsOut.increment();
+        stats.bytesOut.add(bytes);
+    }
+
+    public static void reset() {
+        COUNTERS.values().forEach(Counter::reset);
+        HISTOGRAMS.values().forEach(Histogram::reset);
+        PLAYERS.clear();
+    }
+
+    /**
+     * @return a human readable summary, one line per metric and per player with pose traffic
+     */
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+        COUNTERS.forEach((name, counter) -> lines.add(name + ": " + counter.get()));
+        HISTOGRAMS.forEach((name, histogram) -> {
+            if (histogram.count() > 0) {
+                lines.add(String.format("%s: n=%d mean=%.0f p50<=%d p99<=%d max=%d",
+                        name, histogram.count(), histogram.mean(), histogram.quantile(0.5), histogram.quantile(0.99), histogram.max()));
+            }
+        });
+        PLAYERS.values().forEach(stats -> lines.add(String.format("player %s: in %d packets / %d bytes, out %d packets / %d bytes",
+                stats.name, stats.packetsIn.get(), stats.bytesIn.get(), stats.packetsOut.get(), stats.bytesOut.get())));
+        return lines;
+    }
+
+    /**
+     * Returns true at most once per interval no matter how many threads ask, used to drive the periodic log dump
+     */
+    public static boolean shouldDump(int intervalSeconds) {
+        if (intervalSeconds <= 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        long last = lastDumpNanos.get();
+        return now - last >= intervalSeconds * 1_000_000_000L && lastDumpNanos.compareAndSet(last, now);
+    }
+}
@@ -6,12 +6,15 @@ import virtuoel.pehkui.api.ScaleTypes;
 import virtuoel.pehkui.util.ScaleUtils;
 
 public class MCXRScale {
+
+    public static final boolean PEHKUI_LOADED = FabricLoader.getInstance().isModLoaded("pehkui");
+
     public static float getScale(Entity entity) {
         return getScale(entity, 1.0f);
     }
 
     public static float getScale(Entity entity, float delta) {
-        if (FabricLoader.getInstance().isModLoaded("pehkui")) {
+        if (PEHKUI_LOADED) {
             var scaleData = ScaleTypes.BASE.getScaleData(entity);
             return scaleData.getScale(delta);
         } else {
@@ -20,7 +23,7 @@ public class MCXRScale {
     }
 
     public static float getMotionScale(Entity entity) {
-        if (FabricLoader.getInstance().isModLoaded("pehkui")) {
+        if (PEHKUI_LOADED) {
             return ScaleUtils.getMotionScale(entity);
         } else {
             return 1;
@@ -1,8 +1,6 @@
 package net.sorenon.mcxr.core;
 
 import io.netty.buffer.ByteBuf;
-import net.minecraft.util.Mth;
-import org.joml.Math;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
@@ -43,35 +41,30 @@ public class Pose {
     }
 
     public static float getMCYaw(Quaternionf orientation) {
-        return getMCYaw(orientation, new Vector3f(0, 0, -1));
+        return PoseMath.headYaw(orientation);
     }
 
+    /**
+     * Transforms normal in place, use {@link PoseMath#yaw} to leave it untouched
+     */
     public static float getMCYaw(Quaternionf orientation, Vector3f normal) {
         orientation.transform(normal);
-        float yaw = getYawFromNormal(normal);
-        return (float) -Math.toDegrees(yaw) + 180;
+        return PoseMath.mcYaw(normal.x, normal.z);
     }
 
     public static float getMCPitch(Quaternionf orientation) {
-        return getMCPitch(orientation, new Vector3f(0, 0, -1));
+        return PoseMath.headPitch(orientation);
     }
 
+    /**
+     * Transforms normal in place, use {@link PoseMath#pitch} to leave it untouched
+     */
     public static float getMCPitch(Quaternionf orientation, Vector3f normal) {
         orientation.transform(normal);
-        float pitch = (float) Math.asin(Mth.clamp(normal.y, -0.999999999, 0.999999999));
-        return (float) -Math.toDegrees(pitch);
+        return PoseMath.mcPitch(normal.y);
     }
 
     public static float getYawFromNormal(Vector3f normal) {
-        if (normal.z < 0) {
-            return (float) java.lang.Math.atan(normal.x / normal.z);
-        }
-        if (normal.z == 0) {
-            return (float) (Math.PI / 2 * -Mth.sign(normal.x));
-        }
-        if (normal.z > 0) {
-            return (float) (java.lang.Math.atan(normal.x / normal.z) + Math.PI);
-        }
-        return 0;
+        return PoseMath.yawFromNormal(normal.x, normal.z);
     }
 }
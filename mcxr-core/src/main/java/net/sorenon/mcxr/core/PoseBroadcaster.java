@@ -0,0 +1,173 @@
+package net.sorenon.mcxr.core;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.sorenon.mcxr.core.accessor.PlayerExt;
+
+import java.util.ArrayList;
+
+/**
+ * Sends the poses of XR players to everyone around them so remote avatars can show their head and hands
+ * <p>
+ * XR players are bucketed into a coarse grid every tick and each receiving player only looks at the cells around it.
+ * Nearby avatars are sent every tick and further ones less often, all the avatars a player can see go out in one packet.
+ */
+public class PoseBroadcaster {
+
+    private static final int CELL_SHIFT = 5;
+    private static final int CELL_RADIUS = 2;
+
+    private static final double NEAR_DISTANCE = 16;
+    private static final double MID_DISTANCE = 40;
+    private static final double FAR_DISTANCE = 64;
+
+    private static final int NEAR_INTERVAL = 1;
+    private static final int MID_INTERVAL = 2;
+    private static final int FAR_INTERVAL = 5;
+
+    /**
+     * Poses that have not changed are still resent this often so newly arrived players pick them up
+     */
+    private static final int REFRESH_INTERVAL = 20;
+
+    private static class Target {
+        final ServerPlayer player;
+        final PoseCodec.Frame frame = new PoseCodec.Frame();
+        int revision = -1;
+        int changedTick;
+        int seenTick;
+
+        Target(ServerPlayer player) {
+            this.player = player;
+        }
+    }
+
+    private final Int2ObjectOpenHashMap<Target> targets = new Int2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<ArrayList<Target>> grid = new Long2ObjectOpenHashMap<>();
+    private final ArrayList<Target> visible = new ArrayList<>();
+
+    public void tick(MinecraftServer server) {
+        long start = System.nanoTime();
+        int tick = server.getTickCount();
+
+        for (ServerLevel level : server.getAllLevels()) {
+            if (level.players().isEmpty() || !buildGrid(level, tick)) {
+                continue;
+            }
+
+            for (ServerPlayer receiver : level.players()) {
+                if (ServerPlayNetworking.canSend(receiver, MCXRCore.AVATAR_POSES)
+                        && MCXRCore.INSTANCE.getPoseStream(receiver).hasFeature(PoseStreamConfig.FEATURE_AVATAR_POSES)) {
+                    sendTo(receiver, tick);
+                }
+            }
+        }
+
+        targets.values().removeIf(target -> target.seenTick != tick);
+        MCXRMetrics.POSE_BROADCAST_NANOS.record(System.nanoTime() - start);
+    }
+
+    private boolean buildGrid(ServerLevel level, int tick) {
+        grid.values().removeIf(ArrayList::isEmpty);
+        for (ArrayList<Target> cell : grid.values()) {
+            cell.clear();
+        }
+
+        boolean any = false;
+        for (ServerPlayer player : level.players()) {
+            PlayerExt acc = (PlayerExt) player;
+            if (!acc.isXR()) {
+                continue;
+            }
+
+            Target target = targets.get(player.getId());
+            if (target == null || target.player != player) {
+                target = new Target(player);
+                targets.put(player.getId(), target);
+            }
+
+            int revision = acc.getPoseSlot().getRevision();
+            if (revision != target.revision) {
+                target.revision = revision;
+                target.changedTick = tick;
+                target.frame.quantize(0, acc.getHeadPose());
+                target.frame.quantize(1, acc.getLeftHandPose());
+                target.frame.quantize(2, acc.getRightHandPose());
+            }
+            target.seenTick = tick;
+
+            long key = ChunkPos.asLong(Mth.floor(player.getX()) >> CELL_SHIFT, Mth.floor(player.getZ()) >> CELL_SHIFT);
+            ArrayList<Target> cell = grid.get(key);
+            if (cell == null) {
+                cell = new ArrayList<>();
+                grid.put(key, cell);
+            }
+            cell.add(target);
+            any = true;
+        }
+        return any;
+    }
+
+    private void sendTo(ServerPlayer receiver, int tick) {
+        int cellX = Mth.floor(receiver.getX()) >> CELL_SHIFT;
+        int cellZ = Mth.floor(receiver.getZ()) >> CELL_SHIFT;
+
+        visible.clear();
+        for (int x = cellX - CELL_RADIUS; x <= cellX + CELL_RADIUS; x++) {
+            for (int z = cellZ - CELL_RADIUS; z <= cellZ + CELL_RADIUS; z++) {
+                ArrayList<Target> cell = grid.get(ChunkPos.asLong(x, z));
+                if (cell == null) {
+                    continue;
+                }
+                for (Target target : cell) {
+                    if (target.player != receiver && shouldSend(receiver, target, tick)) {
+                        visible.add(target);
+                    }
+                }
+            }
+        }
+
+        if (visible.isEmpty()) {
+            return;
+        }
+
+        FriendlyByteBuf buf = PacketByteBufs.create();
+        buf.writeVarInt(tick);
+        buf.writeVarInt(visible.size());
+        for (Target target : visible) {
+            buf.writeVarInt(target.player.getId());
+            target.frame.write(buf);
+        }
+        MCXRMetrics.recordPoseOut(receiver, buf.readableBytes());
+        ServerPlayNetworking.send(receiver, MCXRCore.AVATAR_POSES, buf);
+    }
+
+    private static boolean shouldSend(ServerPlayer receiver, Target target, int tick) {
+        double distSqr = receiver.distanceToSqr(target.player);
+        int interval;
+        if (distSqr <= NEAR_DISTANCE * NEAR_DISTANCE) {
+            interval = NEAR_INTERVAL;
+        } else if (distSqr <= MID_DISTANCE * MID_DISTANCE) {
+            interval = MID_INTERVAL;
+        } else if (distSqr <= FAR_DISTANCE * FAR_DISTANCE) {
+            interval = FAR_INTERVAL;
+        } else {
+            return false;
+        }
+
+        //Stagger the slower tiers so every avatar doesn't land on the same tick
+        int phase = tick + target.player.getId();
+        if (phase % interval != 0) {
+            return false;
+        }
+        return tick - target.changedTick < interval || phase % REFRESH_INTERVAL == 0;
+    }
+}
@@ -0,0 +1,298 @@
+package net.sorenon.mcxr.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import org.joml.Math;
+import org.joml.Quaternionf;
+import org.joml.Quaternionfc;
+
+/**
+ * Compact wire format for the head and hand poses of an XR player
+ * <p>
+ * Positions are sent as fixed point offsets from the player entity and orientations use smallest-three encoding packed into a single int.
+ * Frames can optionally be delta encoded against the previous frame, play packets are delivered reliably and in order so the last frame
+ * sent is always the last frame the server has seen. A keyframe is sent every {@link #KEYFRAME_INTERVAL} frames so a fresh decoder
+ * (e.g. after a respawn) can resynchronise.
+ */
+public class PoseCodec {
+
+    public static final int VERSION = 1;
+
+    public static final int POSE_COUNT = 3;
+
+    public static final int KEYFRAME_INTERVAL = 20;
+
+    /**
+     * Fixed point units per block, positions are clamped to the range of a short (+-32 blocks)
+     */
+    public static final float POSITION_SCALE = 1024;
+
+    private static final int FLAG_KEYFRAME = 1;
+
+    private static final int ROTATION_BITS = 10;
+    private static final int ROTATION_MASK = (1 << ROTATION_BITS) - 1;
+    private static final float ROTATION_RANGE = (float) Math.sqrt(0.5);
+
+    /**
+     * Quantized state of one frame, shared between the encoder and decoder so they both delta against the same values
+     */
+    public static class Frame {
+        public int sequence;
+        public final int[] positions = new int[POSE_COUNT * 3];
+        public final int[] rotations = new int[POSE_COUNT];
+
+        public void set(Frame frame) {
+            this.sequence = frame.sequence;
+            System.arraycopy(frame.positions, 0, this.positions, 0, this.positions.length);
+            System.arraycopy(frame.rotations, 0, this.rotations, 0, this.rotations.length);
+        }
+
+        public void quantize(int index, Pose pose) {
+            positions[index * 3] = quantizePosition(pose.pos.x);
+            positions[index * 3 + 1] = quantizePosition(pose.pos.y);
+            positions[index * 3 + 2] = quantizePosition(pose.pos.z);
+            rotations[index] = packQuaternion(pose.orientation);
+        }
+
+        public void dequantize(int index, Pose pose) {
+            pose.pos.set(
+                    positions[index * 3] / POSITION_SCALE,
+                    positions[index * 3 + 1] / POSITION_SCALE,
+                    positions[index * 3 + 2] / POSITION_SCALE
+            );
+            unpackQuaternion(rotations[index], pose.orientation);
+        }
+
+        /**
+         * Writes every pose in full, without the sequence
+         */
+        public void write(FriendlyByteBuf buf) {
+            for (int i = 0; i < POSE_COUNT; i++) {
+                buf.writeShort(positions[i * 3]);
+                buf.writeShort(positions[i * 3 + 1]);
+                buf.writeShort(positions[i * 3 + 2]);
+                buf.writeInt(rotations[i]);
+            }
+        }
+
+        public void read(FriendlyByteBuf buf) {
+            for (int i = 0; i < POSE_COUNT; i++) {
+                positions[i * 3] = buf.readShort();
+                positions[i * 3 + 1] = buf.readShort();
+                positions[i * 3 + 2] = buf.readShort();
+                rotations[i] = buf.readInt();
+            }
+        }
+
+        private boolean poseEquals(int index, Frame other) {
+            return rotations[index] == other.rotations[index]
+                    && positions[index * 3] == other.positions[index * 3]
+                    && positions[index * 3 + 1] == other.positions[index * 3 + 1]
+                    && positions[index * 3 + 2] == other.positions[index * 3 + 2];
+        }
+    }
+
+    public static class Encoder {
+        private final boolean delta;
+
+        private final Frame current = new Frame();
+        private final Frame base = new Frame();
+        private boolean hasBase = false;
+        private int framesSinceKeyframe = 0;
+
+        public Encoder(boolean delta) {
+            this.delta = delta;
+        }
+
+        public void reset() {
+            hasBase = false;
+        }
+
+        public int getSequence() {
+            return current.sequence;
+        }
+
+        /**
+         * @param sequence a monotonically increasing frame number, e.g. the client tick count
+         */
+        public void write(FriendlyByteBuf buf, int sequence, Pose head, Pose leftHand, Pose rightHand) {
+            current.sequence = sequence;
+            current.quantize(0, head);
+            current.quantize(1, leftHand);
+            current.quantize(2, rightHand);
+
+            int baseDistance = current.sequence - base.sequence;
+            boolean keyframe = !delta
+                    || !hasBase
+                    || framesSinceKeyframe >= KEYFRAME_INTERVAL
+                    || baseDistance <= 0
+                    || baseDistance > 255;
+
+            buf.writeByte(VERSION);
+            buf.writeByte(keyframe ? FLAG_KEYFRAME : 0);
+            buf.writeVarInt(current.sequence);
+
+            if (keyframe) {
+                current.write(buf);
+                framesSinceKeyframe = 0;
+            } else {
+                int changed = 0;
+                for (int i = 0; i < POSE_COUNT; i++) {
+                    if (!current.poseEquals(i, base)) {
+                        changed |= 1 << i;
+                    }
+                }
+                buf.writeByte(baseDistance);
+                buf.writeByte(changed);
+                for (int i = 0; i < POSE_COUNT; i++) {
+                    if ((changed & (1 << i)) != 0) {
+                        for (int j = i * 3; j < i * 3 + 3; j++) {
+                            buf.writeVarInt(zigzag(current.positions[j] - base.positions[j]));
+                        }
+                        buf.writeInt(current.rotations[i]);
+                    }
+                }
+                framesSinceKeyframe++;
+            }
+
+            base.set(current);
+            hasBase = true;
+        }
+    }
+
+    public static class Decoder {
+        private final Frame frame = new Frame();
+        private boolean hasBase = false;
+
+        public void reset() {
+            hasBase = false;
+        }
+
+        public int getSequence() {
+            return frame.sequence;
+        }
+
+        /**
+         * @return false if the packet could not be decoded, the poses are left untouched
+         */
+        public boolean read(FriendlyByteBuf buf, Pose head, Pose leftHand, Pose rightHand) {
+            int version = buf.readUnsignedByte();
+            if (version != VERSION) {
+                return false;
+            }
+            int flags = buf.readUnsignedByte();
+            int sequence = buf.readVarInt();
+
+            if ((flags & FLAG_KEYFRAME) != 0) {
+                frame.read(buf);
+            } else {
+                int baseSequence = sequence - buf.readUnsignedByte();
+                int changed = buf.readUnsignedByte();
+                if (!hasBase || baseSequence != frame.sequence) {
+                    //We missed the frame this delta is based on, wait for the next keyframe
+                    buf.skipBytes(buf.readableBytes());
+                    return false;
+                }
+                for (int i = 0; i < POSE_COUNT; i++) {
+                    if ((changed & (1 << i)) != 0) {
+                        for (int j = i * 3; j < i * 3 + 3; j++) {
+                            frame.positions[j] += unzigzag(buf.readVarInt());
+                        }
+                        frame.rotations[i] = buf.readInt();
+                    }
+                }
+            }
+
+            frame.sequence = sequence;
+            hasBase = true;
+
+            frame.dequantize(0, head);
+            frame.dequantize(1, leftHand);
+            frame.dequantize(2, rightHand);
+            return true;
+        }
+    }
+
+    public static int quantizePosition(float value) {
+        return Math.clamp(Short.MIN_VALUE, Short.MAX_VALUE, java.lang.Math.round(value * POSITION_SCALE));
+    }
+
+    /**
+     * Packs a unit quaternion into 2 bits for the index of the largest component and 10 bits for each of the other three
+     */
+    public static int packQuaternion(Quaternionfc q) {
+        float invLength = Math.invsqrt(q.lengthSquared());
+        float x = q.x() * invLength;
+        float y = q.y() * invLength;
+        float z = q.z() * invLength;
+        float w = q.w() * invLength;
+
+        int largest = 0;
+        float max = Math.abs(x);
+        if (Math.abs(y) > max) {
+            largest = 1;
+            max = Math.abs(y);
+        }
+        if (Math.abs(z) > max) {
+            largest = 2;
+            max = Math.abs(z);
+        }
+        if (Math.abs(w) > max) {
+            largest = 3;
+        }
+
+        //q and -q are the same rotation so flip the quaternion to make the dropped component positive
+        float sign = component(x, y, z, w, largest) < 0 ? -1 : 1;
+
+        int packed = largest << 30;
+        int shift = ROTATION_BITS * 2;
+        for (int i = 0; i < 4; i++) {
+            if (i != largest) {
+                packed |= quantizeRotation(component(x, y, z, w, i) * sign) << shift;
+                shift -= ROTATION_BITS;
+            }
+        }
+        return packed;
+    }
+
+    public static Quaternionf unpackQuaternion(int packed, Quaternionf dest) {
+        int largest = packed >>> 30;
+        float a = dequantizeRotation((packed >>> (ROTATION_BITS * 2)) & ROTATION_MASK);
+        float b = dequantizeRotation((packed >>> ROTATION_BITS) & ROTATION_MASK);
+        float c = dequantizeRotation(packed & ROTATION_MASK);
+        float d = Math.sqrt(java.lang.Math.max(0, 1 - a * a - b * b - c * c));
+
+        switch (largest) {
+            case 0 -> dest.set(d, a, b, c);
+            case 1 -> dest.set(a, d, b, c);
+            case 2 -> dest.set(a, b, d, c);
+            default -> dest.set(a, b, c, d);
+        }
+        return dest.normalize();
+    }
+
+    private static float component(float x, float y, float z, float w, int index) {
+        return switch (index) {
+            case 0 -> x;
+            case 1 -> y;
+            case 2 -> z;
+            default -> w;
+        };
+    }
+
+    private static int quantizeRotation(float value) {
+        float normalized = (value / ROTATION_RANGE + 1) * 0.5f;
+        return Math.clamp(0, ROTATION_MASK, java.lang.Math.round(normalized * ROTATION_MASK));
+    }
+
+    private static float dequantizeRotation(int value) {
+        return ((float) value / ROTATION_MASK * 2 - 1) * ROTATION_RANGE;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
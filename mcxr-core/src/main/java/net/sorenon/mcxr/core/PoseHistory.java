@@ -0,0 +1,123 @@
+package net.sorenon.mcxr.core;
+
+import net.minecraft.world.entity.HumanoidArm;
+
+/**
+ * The last {@link #CAPACITY} pose frames received from one player keyed by the client's frame sequence
+ * <p>
+ * Frames are recorded on the network thread as they are decoded, before the {@link PoseSlot} drops any of them.
+ * When an action packet arrives the newest sequence is stamped onto it, so once the action runs on the server thread it can be
+ * aimed from the pose the player actually saw instead of whatever arrived since.
+ */
+public class PoseHistory {
+
+    public static final int CAPACITY = 32;
+
+    private static final int FLOATS_PER_POSE = 7;
+    private static final int FLOATS_PER_FRAME = PoseCodec.POSE_COUNT * FLOATS_PER_POSE;
+
+    private static final int MAX_PENDING_ACTIONS = 8;
+
+    private final int[] sequences = new int[CAPACITY];
+    private final float[] data = new float[CAPACITY * FLOATS_PER_FRAME];
+    private int newest = -1;
+    private int count = 0;
+
+    private final Object[] pendingPackets = new Object[MAX_PENDING_ACTIONS];
+    private final int[] pendingSequences = new int[MAX_PENDING_ACTIONS];
+    private int nextPending = 0;
+
+    //Only touched by the server thread
+    private int actionSequence = -1;
+
+    public synchronized void record(int sequence, Pose head, Pose leftHand, Pose rightHand) {
+        if (count > 0 && sequence <= sequences[newest]) {
+            //The client started counting again (e.g. it reconnected)
+            count = 0;
+        }
+        newest = (newest + 1) % CAPACITY;
+        count = Math.min(count + 1, CAPACITY);
+        sequences[newest] = sequence;
+
+        int offset = newest * FLOATS_PER_FRAME;
+        write(offset, head);
+        write(offset + FLOATS_PER_POSE, leftHand);
+        write(offset + FLOATS_PER_POSE * 2, rightHand);
+    }
+
+    /**
+     * @return the sequence of the newest recorded frame or -1 if there is none
+     */
+    public synchronized int newestSequence() {
+        return count == 0 ? -1 : sequences[newest];
+    }
+
+    /**
+     * Copies the hand pose of the newest frame at or before the given sequence into dest
+     *
+     * @return false if the sequence is unknown or older than the whole history, dest is left untouched
+     */
+    public synchronized boolean sample(int sequence, HumanoidArm arm, Pose dest) {
+        if (sequence < 0) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            int index = (newest + CAPACITY - i) % CAPACITY;
+            if (sequences[index] <= sequence) {
+                int pose = arm == HumanoidArm.LEFT ? 1 : 2;
+                read(index * FLOATS_PER_FRAME + pose * FLOATS_PER_POSE, dest);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called on the network thread when an action packet arrives
+     */
+    public synchronized void stampAction(Object packet) {
+        pendingPackets[nextPending] = packet;
+        pendingSequences[nextPending] = newestSequence();
+        nextPending = (nextPending + 1) % MAX_PENDING_ACTIONS;
+    }
+
+    /**
+     * Called on the server thread when the same action packet is handled
+     */
+    public synchronized void beginAction(Object packet) {
+        actionSequence = -1;
+        for (int i = 0; i < MAX_PENDING_ACTIONS; i++) {
+            if (pendingPackets[i] == packet) {
+                pendingPackets[i] = null;
+                actionSequence = pendingSequences[i];
+                return;
+            }
+        }
+    }
+
+    public void endAction() {
+        actionSequence = -1;
+    }
+
+    /**
+     * @return the sequence stamped on the action currently being handled, -1 if there is none
+     */
+    public int getActionSequence() {
+        return actionSequence;
+    }
+
+    private void write(int offset, Pose pose) {
+        data[offset] = pose.pos.x;
+        data[offset + 1] = pose.pos.y;
+        data[offset + 2] = pose.pos.z;
+        data[offset + 3] = pose.orientation.x;
+        data[offset + 4] = pose.orientation.y;
+        data[offset + 5] = pose.orientation.z;
+        data[offset + 6] = pose.orientation.w;
+    }
+
+    private void read(int offset, Pose pose) {
+        pose.pos.set(data[offset], data[offset + 1], data[offset + 2]);
+        pose.orientation.set(data[offset + 3], data[offset + 4], data[offset + 5], data[offset + 6]);
+    }
+}
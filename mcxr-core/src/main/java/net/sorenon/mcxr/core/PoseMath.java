@@ -0,0 +1,131 @@
+package net.sorenon.mcxr.core;
+
+import net.minecraft.util.Mth;
+import org.joml.Math;
+import org.joml.Quaternionfc;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+
+/**
+ * Pose math for per-frame and per-tick paths that doesn't allocate
+ * <p>
+ * Angles are returned as primitives and vectors are written into a destination supplied by the caller, none of the inputs are modified.
+ * Heads look along -Z and hands point along -Y, the hand direction methods also apply the hand pitch adjustment so
+ * the caller doesn't need to build a rotated copy of the orientation.
+ */
+public final class PoseMath {
+
+    private PoseMath() {
+    }
+
+    public static float transformX(Quaternionfc q, float x, float y, float z) {
+        float qx = q.x(), qy = q.y(), qz = q.z(), qw = q.w();
+        return (qw * qw + qx * qx - qy * qy - qz * qz) * x + 2 * (qx * qy - qz * qw) * y + 2 * (qx * qz + qy * qw) * z;
+    }
+
+    public static float transformY(Quaternionfc q, float x, float y, float z) {
+        float qx = q.x(), qy = q.y(), qz = q.z(), qw = q.w();
+        return 2 * (qx * qy + qz * qw) * x + (qw * qw - qx * qx + qy * qy - qz * qz) * y + 2 * (qy * qz - qx * qw) * z;
+    }
+
+    public static float transformZ(Quaternionfc q, float x, float y, float z) {
+        float qx = q.x(), qy = q.y(), qz = q.z(), qw = q.w();
+        return 2 * (qx * qz - qy * qw) * x + 2 * (qy * qz + qx * qw) * y + (qw * qw - qx * qx - qy * qy + qz * qz) * z;
+    }
+
+    /**
+     * Minecraft yaw in degrees of the normal (nx, ny, nz) rotated by q
+     */
+    public static float yaw(Quaternionfc q, float nx, float ny, float nz) {
+        return mcYaw(transformX(q, nx, ny, nz), transformZ(q, nx, ny, nz));
+    }
+
+    /**
+     * Minecraft pitch in degrees of the normal (nx, ny, nz) rotated by q
+     */
+    public static float pitch(Quaternionfc q, float nx, float ny, float nz) {
+        return mcPitch(transformY(q, nx, ny, nz));
+    }
+
+    public static float headYaw(Quaternionfc q) {
+        return yaw(q, 0, 0, -1);
+    }
+
+    public static float headPitch(Quaternionfc q) {
+        return pitch(q, 0, 0, -1);
+    }
+
+    public static float handYaw(Quaternionfc q) {
+        return yaw(q, 0, -1, 0);
+    }
+
+    public static float handPitch(Quaternionfc q) {
+        return pitch(q, 0, -1, 0);
+    }
+
+    /**
+     * @param pitchAdjust rotation about the hand's local X axis in radians, usually {@code PlayOptions.handPitchAdjust}
+     */
+    public static float handYaw(Quaternionfc q, float pitchAdjust) {
+        return yaw(q, 0, -Math.cos(pitchAdjust), -Math.sin(pitchAdjust));
+    }
+
+    public static float handPitch(Quaternionfc q, float pitchAdjust) {
+        return pitch(q, 0, -Math.cos(pitchAdjust), -Math.sin(pitchAdjust));
+    }
+
+    /**
+     * Equivalent to {@code q.rotateX(pitchAdjust, new Quaternionf()).transform(new Vector3f(0, -1, 0))}
+     */
+    public static Vector3f handDirection(Quaternionfc q, float pitchAdjust, Vector3f dest) {
+        return q.transform(0, -Math.cos(pitchAdjust), -Math.sin(pitchAdjust), dest);
+    }
+
+    public static Vector3d handDirection(Quaternionfc q, float pitchAdjust, Vector3d dest) {
+        float y = -Math.cos(pitchAdjust), z = -Math.sin(pitchAdjust);
+        return dest.set(transformX(q, 0, y, z), transformY(q, 0, y, z), transformZ(q, 0, y, z));
+    }
+
+    public static Vector3f forward(Quaternionfc q, Vector3f dest) {
+        return q.transform(0, 0, -1, dest);
+    }
+
+    public static Vector3f up(Quaternionfc q, Vector3f dest) {
+        return q.transform(0, 1, 0, dest);
+    }
+
+    public static Vector3f right(Quaternionfc q, Vector3f dest) {
+        return q.transform(1, 0, 0, dest);
+    }
+
+    /**
+     * Rotates v about the Y axis, used to go from stage space to physical space
+     */
+    public static Vector3f rotateY(float angle, Vector3fc v, Vector3f dest) {
+        float sin = Math.sin(angle), cos = Math.cos(angle);
+        return dest.set(cos * v.x() + sin * v.z(), v.y(), -sin * v.x() + cos * v.z());
+    }
+
+    public static float mcYaw(float normalX, float normalZ) {
+        return (float) -Math.toDegrees(yawFromNormal(normalX, normalZ)) + 180;
+    }
+
+    public static float mcPitch(float normalY) {
+        float pitch = (float) java.lang.Math.asin(Mth.clamp(normalY, -0.999999999, 0.999999999));
+        return (float) -Math.toDegrees(pitch);
+    }
+
+    public static float yawFromNormal(float normalX, float normalZ) {
+        if (normalZ < 0) {
+            return (float) java.lang.Math.atan(normalX / normalZ);
+        }
+        if (normalZ == 0) {
+            return (float) (Math.PI / 2 * -Mth.sign(normalX));
+        }
+        if (normalZ > 0) {
+            return (float) (java.lang.Math.atan(normalX / normalZ) + Math.PI);
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,81 @@
+package net.sorenon.mcxr.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latest-value mailbox for the poses of one player
+ * <p>
+ * The network thread decodes into {@link #back()} and calls {@link #publish()}, the server thread calls {@link #poll()} once per tick.
+ * Three preallocated frames are rotated with a single atomic swap so neither side ever blocks or allocates, and any frames published
+ * between two polls are dropped in favour of the newest one.
+ */
+public class PoseSlot {
+
+    private static final int INDEX_MASK = 0b11;
+    private static final int FRESH = 0b100;
+
+    public static class Frame {
+        public final Pose headPose = new Pose();
+        public final Pose leftHandPose = new Pose();
+        public final Pose rightHandPose = new Pose();
+        public int sequence;
+    }
+
+    private final Frame[] frames = {new Frame(), new Frame(), new Frame()};
+
+    /**
+     * Index of the frame in the middle of the swap and whether it has been published since the last poll
+     */
+    private final AtomicInteger shared = new AtomicInteger(2);
+
+    //Only touched by the producer
+    private int backIndex = 0;
+    private long acceptedNanos = 0;
+
+    //Only touched by the consumer
+    private int frontIndex = 1;
+    private int revision = 0;
+
+    /**
+     * @return the frame the producer is free to write into
+     */
+    public Frame back() {
+        return frames[backIndex];
+    }
+
+    /**
+     * Producer side rate limit, lets a bit of jitter through so a client sending at exactly the given rate is never dropped
+     *
+     * @return false if the last accepted frame was less than three quarters of a period ago
+     */
+    public boolean tryAccept(long now, int rate) {
+        if (now - acceptedNanos < 750_000_000L / rate) {
+            return false;
+        }
+        acceptedNanos = now;
+        return true;
+    }
+
+    public void publish() {
+        backIndex = shared.getAndSet(backIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * @return the newest published frame or null if nothing has been published since the last call
+     */
+    public Frame poll() {
+        if ((shared.get() & FRESH) == 0) {
+            return null;
+        }
+        frontIndex = shared.getAndSet(frontIndex) & INDEX_MASK;
+        revision++;
+        return frames[frontIndex];
+    }
+
+    /**
+     * @return the number of frames picked up by the consumer so far, only safe to call from the consumer thread
+     */
+    public int getRevision() {
+        return revision;
+    }
+}
@@ -0,0 +1,128 @@
+package net.sorenon.mcxr.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * The pose stream settings a client and server agreed on during login
+ * <p>
+ * The server advertises what it supports in the {@link MCXRCore#S2C_CONFIG} query, the client answers with its own capabilities
+ * and both sides run {@link #negotiate} on the same inputs so they end up with the same result without another round trip.
+ * Either side sending nothing beyond the old single boolean means it predates the handshake and gets {@link #LEGACY}.
+ */
+public class PoseStreamConfig {
+
+    public static final int PROTOCOL_VERSION = 1;
+
+    public static final int CODEC_FLOATS = 1;
+    public static final int CODEC_COMPACT = 1 << 1;
+    public static final String[] CODEC_NAMES = {"floats", "compact"};
+
+    public static final int FEATURE_AVATAR_POSES = 1;
+    public static final int FEATURE_TELEPORT_DESTINATION = 1 << 1;
+    public static final String[] FEATURE_NAMES = {"avatar_poses", "teleport_destination"};
+
+    /**
+     * Poses are sent at most once per client tick
+     */
+    public static final int MAX_POSE_RATE = 20;
+
+    public static final PoseStreamConfig LEGACY = new PoseStreamConfig(0, MAX_POSE_RATE, CODEC_FLOATS, 0);
+
+    public final int version;
+    public final int poseRate;
+    public final int codec;
+    public final int features;
+
+    public PoseStreamConfig(int version, int poseRate, int codec, int features) {
+        this.version = version;
+        this.poseRate = poseRate;
+        this.codec = codec;
+        this.features = features;
+    }
+
+    public boolean hasFeature(int feature) {
+        return (features & feature) != 0;
+    }
+
+    /**
+     * @return how many ticks the client waits between pose updates
+     */
+    public int poseInterval() {
+        return Math.max(1, (MAX_POSE_RATE + poseRate - 1) / poseRate);
+    }
+
+    /**
+     * Capabilities of one side of the connection, written as the server's query and as the client's reply
+     */
+    public static class Capabilities {
+        public int version = PROTOCOL_VERSION;
+        public int maxPoseRate;
+        public int codecs;
+        public int features;
+        /**
+         * Only sent by clients, 0 if the headset has not reported one yet
+         */
+        public int refreshRate;
+
+        public Capabilities(int maxPoseRate, int codecs, int features, int refreshRate) {
+            this.maxPoseRate = maxPoseRate;
+            this.codecs = codecs;
+            this.features = features;
+            this.refreshRate = refreshRate;
+        }
+
+        public void write(FriendlyByteBuf buf) {
+            buf.writeVarInt(version);
+            buf.writeVarInt(maxPoseRate);
+            buf.writeVarInt(codecs);
+            buf.writeVarInt(features);
+            buf.writeVarInt(refreshRate);
+        }
+
+        /**
+         * @return null if the buffer holds nothing, i.e. the other side predates the handshake
+         */
+        public static Capabilities read(FriendlyByteBuf buf) {
+            if (!buf.isReadable()) {
+                return null;
+            }
+            Capabilities capabilities = new Capabilities(0, 0, 0, 0);
+            capabilities.version = buf.readVarInt();
+            capabilities.maxPoseRate = buf.readVarInt();
+            capabilities.codecs = buf.readVarInt();
+            capabilities.features = buf.readVarInt();
+            //Newer versions may append more fields after these
+            if (buf.isReadable()) {
+                capabilities.refreshRate = buf.readVarInt();
+            }
+            return capabilities;
+        }
+    }
+
+    /**
+     * Picks the cheapest stream both sides support, null capabilities mean that side predates the handshake
+     */
+    public static PoseStreamConfig negotiate(Capabilities server, Capabilities client) {
+        if (server == null || client == null) {
+            return LEGACY;
+        }
+
+        int version = Math.min(server.version, client.version);
+
+        int rate = Math.min(MAX_POSE_RATE, Math.min(server.maxPoseRate, client.maxPoseRate));
+        if (client.refreshRate > 0) {
+            rate = Math.min(rate, client.refreshRate);
+        }
+        rate = Math.max(1, rate);
+
+        int codecs = server.codecs & client.codecs;
+        int codec = (codecs & CODEC_COMPACT) != 0 ? CODEC_COMPACT : CODEC_FLOATS;
+
+        return new PoseStreamConfig(version, rate, codec, server.features & client.features);
+    }
+
+    @Override
+    public String toString() {
+        return "PoseStreamConfig{version=" + version + ", poseRate=" + poseRate + ", codec=" + codec + ", features=" + features + "}";
+    }
+}
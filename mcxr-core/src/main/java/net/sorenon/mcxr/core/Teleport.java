@@ -1,8 +1,11 @@
 package net.sorenon.mcxr.core;
 
 import net.minecraft.core.Direction;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityDimensions;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.ClipContext;
+import net.minecraft.world.level.CollisionGetter;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
@@ -14,16 +17,22 @@ import oshi.util.tuples.Pair;
 
 public class Teleport {
 
+    public static final double RAY_LENGTH = 7;
+
     public static Pair<Vec3, Vec3> fireRayFromHand(Player player, Vec3 start, Vec3 direction) {
-        var level = player.level;
+        return fireRayFromHand(player.level, player, player.getDimensions(player.getPose()), start, direction);
+    }
 
-        var hitResult = level.clip(new ClipContext(start, start.add(direction.scale(7)), ClipContext.Block.COLLIDER, ClipContext.Fluid.NONE, player));
+    /**
+     * Takes the level and dimensions separately from the entity so the rays can also be traced outside of a running game
+     */
+    public static Pair<Vec3, Vec3> fireRayFromHand(CollisionGetter level, Entity player, EntityDimensions dims, Vec3 start, Vec3 direction) {
+        var hitResult = level.clip(new ClipContext(start, start.add(direction.scale(RAY_LENGTH)), ClipContext.Block.COLLIDER, ClipContext.Fluid.NONE, player));
         var hitPos = hitResult.getLocation();
 
         if (hitResult.getType() != HitResult.Type.MISS) {
             var blockPos = hitResult.getBlockPos();
 
-            var dims = player.getDimensions(player.getPose());
             if (hitResult.getDirection() == Direction.UP) {
                 VoxelShape shape = Shapes.create(AABB.ofSize(hitPos, dims.width + 1.0E-6, dims.height + 1.0E-6, dims.width + 1.0E-6));
                 var optional = level.findFreePosition(player, shape, hitPos.add(0, dims.height / 2, 0), dims.width, dims.height, dims.width);
@@ -43,8 +52,10 @@ public class Teleport {
     }
 
     public static Pair<Vec3, Boolean> fireFallRay(Player player, Vec3 hitPos1) {
-        var level = player.level;
+        return fireFallRay(player.level, player, player.getDimensions(player.getPose()), hitPos1);
+    }
 
+    public static Pair<Vec3, Boolean> fireFallRay(CollisionGetter level, Entity player, EntityDimensions dims, Vec3 hitPos1) {
         var hitResult = level.clip(new ClipContext(hitPos1, hitPos1.subtract(0, 5, 0), ClipContext.Block.COLLIDER, ClipContext.Fluid.NONE, player));
         // For some reason doing a large raycast skips the first few centimeters
         if (hitResult.getType() == HitResult.Type.MISS) {
@@ -53,7 +64,6 @@ public class Teleport {
 
         var hitPos2 = hitResult.getLocation();
 
-        var dims = player.getDimensions(player.getPose());
         VoxelShape shape = Shapes.create(AABB.ofSize(hitPos2, dims.width + 1.0E-6, dims.height + 1.0E-6, dims.width + 1.0E-6));
         return level
                 .findFreePosition(player, shape, hitPos2.add(0, dims.height / 2, 0), dims.width, dims.height, dims.width)
@@ -63,7 +73,12 @@ public class Teleport {
 
     @Nullable
     public static Vec3 tp(Player player, Vec3 start, Vec3 direction) {
-        var stage1 = fireRayFromHand(player, start, direction);
+        return tp(player.level, player, player.getDimensions(player.getPose()), start, direction);
+    }
+
+    @Nullable
+    public static Vec3 tp(CollisionGetter level, Entity player, EntityDimensions dims, Vec3 start, Vec3 direction) {
+        var stage1 = fireRayFromHand(level, player, dims, start, direction);
         var hitPos1 = stage1.getA();
         var finalPos1 = stage1.getB();
 
@@ -73,7 +88,7 @@ public class Teleport {
 
         hitPos1 = hitPos1.subtract(direction.scale(0.05));
 
-        var stage2 = fireFallRay(player, hitPos1);
+        var stage2 = fireFallRay(level, player, dims, hitPos1);
         var hitPos2 = stage2.getA();
 
         if (stage2.getB()) {
@@ -0,0 +1,199 @@
+package net.sorenon.mcxr.core;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityDimensions;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.CollisionGetter;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.phys.shapes.CollisionContext;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks teleport destinations proposed by clients with a fixed amount of work instead of repeating the client's raycasts
+ * <p>
+ * The destination has to lie under the ray fired from the hand, within reach, the player has to fit and stand there,
+ * a bounded number of samples along the ray must not pass through solid blocks and the destination has to be the first surface
+ * below the ray. Requests are also rate limited per player.
+ */
+public class TeleportValidator {
+
+    public static final int MAX_LOS_SAMPLES = 24;
+
+    /**
+     * Longest drop from the ray to the destination that is checked here, in multiples of the player's scale.
+     * Anything further is left to {@link Teleport#tp}
+     */
+    public static final double MAX_DROP_LENGTH = 16;
+
+    /**
+     * findFreePosition can leave the destination slightly above the surface it was found on
+     */
+    private static final double SUPPORT_DEPTH = 0.25;
+
+    /**
+     * How far the hand may be from the player, in multiples of the player's scale
+     */
+    private static final double MAX_HAND_DISTANCE = 3;
+
+    private static final int BUCKET_CAPACITY = 3;
+    private static final long REFILL_NANOS = 500_000_000L;
+
+    private static class TokenBucket {
+        private int tokens = BUCKET_CAPACITY;
+        private long lastRefill = System.nanoTime();
+
+        synchronized boolean tryConsume() {
+            long now = System.nanoTime();
+            long refills = (now - lastRefill) / REFILL_NANOS;
+            if (refills > 0) {
+                tokens = (int) Math.min(BUCKET_CAPACITY, tokens + refills);
+                lastRefill += refills * REFILL_NANOS;
+            }
+            if (tokens == 0) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    private final ConcurrentHashMap<UUID, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Safe to call from the network thread
+     */
+    public boolean tryAcquire(Player player) {
+        return buckets.computeIfAbsent(player.getUUID(), uuid -> new TokenBucket()).tryConsume();
+    }
+
+    public void forget(UUID uuid) {
+        buckets.remove(uuid);
+    }
+
+    /**
+     * @param start       world space position of the hand
+     * @param direction   normalized direction the teleport ray was fired in
+     * @param destination the position the client wants to move to
+     */
+    public static boolean validate(Player player, Vec3 start, Vec3 direction, Vec3 destination) {
+        return validate(player.level, player, player.getDimensions(player.getPose()), XrPlayerState.of(player).scale, start, direction, destination);
+    }
+
+    /**
+     * @param dims  the dimensions of the entity that is teleporting
+     * @param scale the {@link MCXRScale} of the entity
+     */
+    public static boolean validate(CollisionGetter level, Entity player, EntityDimensions dims, float scale, Vec3 start, Vec3 direction, Vec3 destination) {
+        if (destination.y < level.getMinBuildHeight() || start.distanceToSqr(player.position()) > Mth.square(MAX_HAND_DISTANCE * scale)) {
+            return false;
+        }
+
+        //findFreePosition may nudge the destination by up to the player's width
+        double margin = dims.width + 1;
+
+        //Find the point on the ray directly above (or below) the destination
+        double dx = destination.x - start.x;
+        double dz = destination.z - start.z;
+        double horizontal = Math.sqrt(dx * dx + dz * dz);
+        double directionHorizontal = Math.sqrt(direction.x * direction.x + direction.z * direction.z);
+        double t;
+        if (directionHorizontal > 1.0E-3) {
+            t = Math.max(0, horizontal - margin) / directionHorizontal;
+        } else {
+            t = 0;
+        }
+        if (t > Teleport.RAY_LENGTH || horizontal > Teleport.RAY_LENGTH + margin) {
+            return false;
+        }
+        Vec3 onRay = start.add(direction.scale(t));
+
+        //The ray can land on the side of a block and climb on top of it, but never reach anything higher
+        if (destination.y > onRay.y + 1 + margin) {
+            return false;
+        }
+
+        AABB box = dims.makeBoundingBox(destination);
+        if (!level.noCollision(player, box)) {
+            return false;
+        }
+
+        //The block the ray hit may be right at the end of it, so don't sample the last block
+        double rayLength = Math.max(0, t - 1);
+        Vec3 rayEnd = start.add(direction.scale(rayLength));
+        if (!hasLineOfSight(level, start, rayEnd, Math.min(MAX_LOS_SAMPLES, Mth.ceil(rayLength * 2)))) {
+            return false;
+        }
+
+        //The player has to be standing on something
+        if (level.noCollision(player, new AABB(box.minX, box.minY - SUPPORT_DEPTH, box.minZ, box.maxX, box.minY, box.maxZ))) {
+            return false;
+        }
+
+        double dropLength = onRay.y - destination.y;
+        if (dropLength > MAX_DROP_LENGTH * scale) {
+            return false;
+        }
+        return dropLength <= 0 || isFirstSurfaceBelow(level, player, onRay.y, destination, Mth.ceil(dropLength * 2));
+    }
+
+    /**
+     * Checks that nothing the player could land on lies in the column between fromY and the destination, sampled every half block
+     * so every block the column passes through is looked at
+     */
+    private static boolean isFirstSurfaceBelow(BlockGetter level, Entity player, double fromY, Vec3 destination, int samples) {
+        CollisionContext context = CollisionContext.of(player);
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        long lastPos = Long.MAX_VALUE;
+
+        for (int i = 0; i <= samples; i++) {
+            double y = Mth.lerp((double) i / samples, fromY, destination.y);
+            pos.set(destination.x, y, destination.z);
+            if (pos.asLong() == lastPos) {
+                continue;
+            }
+            lastPos = pos.asLong();
+
+            VoxelShape shape = level.getBlockState(pos).getCollisionShape(level, pos, context);
+            if (!shape.isEmpty()
+                    && pos.getY() + shape.max(Direction.Axis.Y) > destination.y + 1.0E-3
+                    && pos.getY() + shape.min(Direction.Axis.Y) < fromY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Samples evenly spaced points between from and to, only full collision cubes block the line so partial blocks can be aimed past
+     */
+    public static boolean hasLineOfSight(BlockGetter level, Vec3 from, Vec3 to, int samples) {
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        long lastPos = Long.MAX_VALUE;
+
+        for (int i = 1; i <= samples; i++) {
+            double delta = (double) i / samples;
+            pos.set(
+                    Mth.lerp(delta, from.x, to.x),
+                    Mth.lerp(delta, from.y, to.y),
+                    Mth.lerp(delta, from.z, to.z)
+            );
+            if (pos.asLong() == lastPos) {
+                continue;
+            }
+            lastPos = pos.asLong();
+
+            if (level.getBlockState(pos).isCollisionShapeFullBlock(level, pos)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package net.sorenon.mcxr.core;
+
+import net.minecraft.world.entity.player.Player;
+import net.sorenon.mcxr.core.accessor.PlayerExt;
+
+/**
+ * Everything about an XR player that is derived from its scale, resolved once at the start of each of its ticks
+ * <p>
+ * Hand based item usage and teleports aim from poses rewound to the client's action time through {@link PoseHistory},
+ * so the poses themselves aren't part of the snapshot.
+ */
+public final class XrPlayerState {
+
+    public final float scale;
+    public final float motionScale;
+
+    private XrPlayerState(Player player) {
+        this.scale = MCXRScale.getScale(player);
+        this.motionScale = MCXRScale.getMotionScale(player);
+    }
+
+    public static XrPlayerState capture(Player player) {
+        return new XrPlayerState(player);
+    }
+
+    /**
+     * @return the snapshot taken at the start of the player's current tick, or a fresh one if it hasn't ticked yet
+     */
+    public static XrPlayerState of(Player player) {
+        XrPlayerState state = ((PlayerExt) player).getXrState();
+        if (state == null) {
+            return capture(player);
+        }
+        return state;
+    }
+}
@@ -1,7 +1,13 @@
 package net.sorenon.mcxr.core.accessor;
 
 import net.minecraft.world.entity.HumanoidArm;
+import net.sorenon.mcxr.core.HandOverride;
 import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseCodec;
+import net.sorenon.mcxr.core.PoseHistory;
+import net.sorenon.mcxr.core.PoseSlot;
+import net.sorenon.mcxr.core.XrPlayerState;
+import org.jetbrains.annotations.Nullable;
 
 public interface PlayerExt {
 
@@ -23,5 +29,17 @@ public interface PlayerExt {
 
     boolean isXR();
 
-    ThreadLocal<HumanoidArm> getOverrideTransform();
+    HandOverride getHandOverride();
+
+    PoseCodec.Decoder getPoseDecoder();
+
+    PoseSlot getPoseSlot();
+
+    PoseHistory getPoseHistory();
+
+    /**
+     * @return the state captured at the start of this player's current tick, null if it isn't an XR player or hasn't ticked yet
+     */
+    @Nullable
+    XrPlayerState getXrState();
 }
@@ -1,15 +1,19 @@
 package net.sorenon.mcxr.core.client;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientLoginNetworking;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.entity.player.Player;
 import net.sorenon.mcxr.core.MCXRCore;
 import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseCodec;
+import net.sorenon.mcxr.core.PoseStreamConfig;
 import net.sorenon.mcxr.core.accessor.PlayerExt;
 import net.sorenon.mcxr.core.config.MCXRCoreConfigImpl;
 import org.apache.logging.log4j.LogManager;
@@ -18,6 +22,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.concurrent.CompletableFuture;
 
 import static net.sorenon.mcxr.core.MCXRCore.POSES;
+import static net.sorenon.mcxr.core.MCXRCore.POSES_COMPACT;
 
 public class MCXRCoreClient implements ClientModInitializer {
 
@@ -27,6 +32,23 @@ public class MCXRCoreClient implements ClientModInitializer {
 
     public boolean playInstalled = false;
 
+    private final PoseCodec.Encoder poseEncoder = new PoseCodec.Encoder(true);
+    private Player poseEncoderPlayer = null;
+    private int poseSequence = 0;
+    private int poseTicks = 0;
+
+    /**
+     * Negotiated with the server during login, connections to servers without the handshake stay on {@link PoseStreamConfig#LEGACY}
+     */
+    public volatile PoseStreamConfig poseStream = PoseStreamConfig.LEGACY;
+
+    /**
+     * Refresh rate of the headset as reported by the XR runtime, 0 if unknown
+     */
+    public volatile int displayRefreshRate = 0;
+
+    public final RemotePoseInterpolator remotePoses = new RemotePoseInterpolator();
+
     @Override
     public void onInitializeClient() {
         INSTANCE = this;
@@ -37,13 +59,38 @@ public class MCXRCoreClient implements ClientModInitializer {
             var buf = PacketByteBufs.create();
             LOGGER.info("Received login packet");
             buf.writeBoolean(playInstalled);
+
+            var config = MCXRCore.getCoreConfig();
+            var capabilities = new PoseStreamConfig.Capabilities(config.maxPoseRate(), config.poseCodecs(), config.features(), displayRefreshRate);
+            capabilities.write(buf);
+            poseStream = PoseStreamConfig.negotiate(PoseStreamConfig.Capabilities.read(bufIn), capabilities);
+            LOGGER.debug("Negotiated {}", poseStream);
             ((MCXRCoreConfigImpl) MCXRCore.getCoreConfig()).xrEnabled = true;
             return CompletableFuture.completedFuture(buf);
         });
 
-        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) ->
-                ((MCXRCoreConfigImpl) MCXRCore.getCoreConfig()).xrEnabled = false
-        );
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            ((MCXRCoreConfigImpl) MCXRCore.getCoreConfig()).xrEnabled = false;
+            poseStream = PoseStreamConfig.LEGACY;
+            poseEncoder.reset();
+            poseEncoderPlayer = null;
+            client.execute(remotePoses::clear);
+        });
+
+        ClientPlayNetworking.registerGlobalReceiver(MCXRCore.AVATAR_POSES, (client, handler, buf, responseSender) -> {
+            FriendlyByteBuf copy = PacketByteBufs.copy(buf);
+            client.execute(() -> {
+                try {
+                    remotePoses.receive(copy);
+                } finally {
+                    copy.release();
+                }
+            });
+        });
+
+        WorldRenderEvents.START.register(context -> remotePoses.update(context.world()));
+
+        ClientTickEvents.END_CLIENT_TICK.register(client -> MCXRCore.dumpMetrics(MCXRCore.getCoreConfig().metricsLogInterval()));
     }
 
     public void setPlayerPoses(
@@ -67,12 +114,27 @@ public class MCXRCoreClient implements ClientModInitializer {
         acc.getLeftHandPose().orientation.rotateX(handAngleAdjust);
         acc.getRightHandPose().orientation.rotateX(handAngleAdjust);
 
-        FriendlyByteBuf buf = PacketByteBufs.create();
-        acc.getHeadPose().write(buf);
-        acc.getLeftHandPose().write(buf);
-        acc.getRightHandPose().write(buf);
-//        buf.writeFloat(height);
+        PoseStreamConfig stream = poseStream;
+        if (poseTicks++ % stream.poseInterval() != 0) {
+            return;
+        }
 
-        ClientPlayNetworking.send(POSES, buf);
+        FriendlyByteBuf buf = PacketByteBufs.create();
+        if (stream.codec == PoseStreamConfig.CODEC_COMPACT && ClientPlayNetworking.canSend(POSES_COMPACT)) {
+            //The server side decoder belongs to the player entity so start again with a keyframe when it changes
+            if (poseEncoderPlayer != player) {
+                poseEncoder.reset();
+                poseEncoderPlayer = player;
+            }
+            poseEncoder.write(buf, ++poseSequence, acc.getHeadPose(), acc.getLeftHandPose(), acc.getRightHandPose());
+            ClientPlayNetworking.send(POSES_COMPACT, buf);
+        } else {
+            acc.getHeadPose().write(buf);
+            acc.getLeftHandPose().write(buf);
+            acc.getRightHandPose().write(buf);
+//            buf.writeFloat(height);
+
+            ClientPlayNetworking.send(POSES, buf);
+        }
     }
 }
@@ -0,0 +1,207 @@
+package net.sorenon.mcxr.core.client;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.Util;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.player.AbstractClientPlayer;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.network.FriendlyByteBuf;
+import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseCodec;
+import net.sorenon.mcxr.core.accessor.PlayerExt;
+import org.joml.Quaternionf;
+
+/**
+ * Keeps a short history of the poses the server sends for other XR players and plays them back slightly in the past
+ * so avatars move smoothly at frame rate regardless of how often their updates arrive
+ * <p>
+ * Players are marked as XR while their poses keep arriving so anything checking {@link PlayerExt#isXR()} picks the poses up.
+ */
+public class RemotePoseInterpolator {
+
+    private static final int CAPACITY = 8;
+    private static final int FLOATS_PER_POSE = 7;
+    private static final int FLOATS_PER_SNAPSHOT = PoseCodec.POSE_COUNT * FLOATS_PER_POSE;
+
+    private static final double TICK_NANOS = 50_000_000;
+
+    /**
+     * Extra delay on top of the update interval to absorb network jitter
+     */
+    private static final int JITTER_TICKS = 2;
+    private static final int MAX_INTERVAL_TICKS = 5;
+
+    private static final long EXPIRE_NANOS = 2_000_000_000L;
+
+    private static class SnapshotBuffer {
+        final int[] ticks = new int[CAPACITY];
+        final float[] data = new float[CAPACITY * FLOATS_PER_SNAPSHOT];
+        int newest = -1;
+        int count = 0;
+        long receivedNanos;
+
+        void push(int tick, PoseCodec.Frame frame, Pose scratch) {
+            if (count > 0 && tick <= ticks[newest]) {
+                return;
+            }
+            newest = (newest + 1) % CAPACITY;
+            count = Math.min(count + 1, CAPACITY);
+            ticks[newest] = tick;
+
+            int offset = newest * FLOATS_PER_SNAPSHOT;
+            for (int i = 0; i < PoseCodec.POSE_COUNT; i++) {
+                frame.dequantize(i, scratch);
+                int o = offset + i * FLOATS_PER_POSE;
+                data[o] = scratch.pos.x;
+                data[o + 1] = scratch.pos.y;
+                data[o + 2] = scratch.pos.z;
+                data[o + 3] = scratch.orientation.x;
+                data[o + 4] = scratch.orientation.y;
+                data[o + 5] = scratch.orientation.z;
+                data[o + 6] = scratch.orientation.w;
+            }
+        }
+
+        int delayTicks() {
+            int interval = 1;
+            if (count > 1) {
+                interval = ticks[newest] - ticks[(newest + CAPACITY - 1) % CAPACITY];
+            }
+            return Math.min(interval, MAX_INTERVAL_TICKS) + JITTER_TICKS;
+        }
+
+        void sample(double tick, Pose head, Pose leftHand, Pose rightHand) {
+            int from = newest;
+            int to = newest;
+            for (int i = 0; i < count; i++) {
+                int index = (newest + CAPACITY - i) % CAPACITY;
+                from = index;
+                if (ticks[index] <= tick) {
+                    break;
+                }
+                to = index;
+            }
+
+            float alpha = 0;
+            if (from != to) {
+                alpha = (float) ((tick - ticks[from]) / (ticks[to] - ticks[from]));
+                alpha = Math.max(0, Math.min(1, alpha));
+            }
+
+            lerp(from, to, 0, alpha, head);
+            lerp(from, to, 1, alpha, leftHand);
+            lerp(from, to, 2, alpha, rightHand);
+        }
+
+        private void lerp(int from, int to, int pose, float alpha, Pose dest) {
+            int a = from * FLOATS_PER_SNAPSHOT + pose * FLOATS_PER_POSE;
+            int b = to * FLOATS_PER_SNAPSHOT + pose * FLOATS_PER_POSE;
+
+            dest.pos.set(
+                    data[a] + (data[b] - data[a]) * alpha,
+                    data[a + 1] + (data[b + 1] - data[a + 1]) * alpha,
+                    data[a + 2] + (data[b + 2] - data[a + 2]) * alpha
+            );
+
+            //nlerp along the shortest path
+            float dot = data[a + 3] * data[b + 3] + data[a + 4] * data[b + 4] + data[a + 5] * data[b + 5] + data[a + 6] * data[b + 6];
+            float sign = dot < 0 ? -1 : 1;
+            Quaternionf orientation = dest.orientation;
+            orientation.set(
+                    data[a + 3] + (data[b + 3] * sign - data[a + 3]) * alpha,
+                    data[a + 4] + (data[b + 4] * sign - data[a + 4]) * alpha,
+                    data[a + 5] + (data[b + 5] * sign - data[a + 5]) * alpha,
+                    data[a + 6] + (data[b + 6] * sign - data[a + 6]) * alpha
+            ).normalize();
+        }
+    }
+
+    private final Int2ObjectOpenHashMap<SnapshotBuffer> buffers = new Int2ObjectOpenHashMap<>();
+    private final PoseCodec.Frame scratchFrame = new PoseCodec.Frame();
+    private final Pose scratchPose = new Pose();
+
+    /**
+     * Estimated server tick minus local time in ticks
+     */
+    private double clockOffset;
+    private boolean hasClock = false;
+
+    /**
+     * Must be called on the client thread
+     */
+    public void receive(FriendlyByteBuf buf) {
+        long now = Util.getNanos();
+        int tick = buf.readVarInt();
+        int count = buf.readVarInt();
+
+        double sample = tick - now / TICK_NANOS;
+        if (!hasClock) {
+            clockOffset = sample;
+            hasClock = true;
+        } else {
+            clockOffset += (sample - clockOffset) * 0.1;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int entityId = buf.readVarInt();
+            scratchFrame.read(buf);
+
+            SnapshotBuffer buffer = buffers.get(entityId);
+            if (buffer == null) {
+                buffer = new SnapshotBuffer();
+                buffers.put(entityId, buffer);
+            }
+            buffer.push(tick, scratchFrame, scratchPose);
+            buffer.receivedNanos = now;
+        }
+    }
+
+    /**
+     * Writes the interpolated poses of every tracked remote player into its {@link PlayerExt}, called once per rendered frame
+     */
+    public void update(ClientLevel level) {
+        if (buffers.isEmpty()) {
+            return;
+        }
+
+        long now = Util.getNanos();
+        double serverTick = now / TICK_NANOS + clockOffset;
+
+        var iterator = buffers.int2ObjectEntrySet().fastIterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (now - entry.getValue().receivedNanos > EXPIRE_NANOS) {
+                int entityId = entry.getIntKey();
+                iterator.remove();
+                //The player stopped sending poses, e.g. it took its headset off
+                if (level.getEntity(entityId) instanceof AbstractClientPlayer player && !(player instanceof LocalPlayer)) {
+                    ((PlayerExt) player).setIsXr(false);
+                    player.refreshDimensions();
+                }
+            }
+        }
+
+        for (AbstractClientPlayer player : level.players()) {
+            if (player instanceof LocalPlayer) {
+                continue;
+            }
+            SnapshotBuffer buffer = buffers.get(player.getId());
+            if (buffer != null) {
+                PlayerExt acc = (PlayerExt) player;
+                if (!acc.isXR()) {
+                    acc.setIsXr(true);
+                }
+                buffer.sample(serverTick - buffer.delayTicks(), acc.getHeadPose(), acc.getLeftHandPose(), acc.getRightHandPose());
+            }
+        }
+    }
+
+    public boolean isTracking(int entityId) {
+        return buffers.containsKey(entityId);
+    }
+
+    public void clear() {
+        buffers.clear();
+        hasClock = false;
+    }
+}
@@ -14,4 +14,25 @@ public interface MCXRCoreConfig {
     boolean roomscaleMovement();
 
     boolean handBasedItemUsage();
+
+    /**
+     * Highest rate in updates per second this side accepts poses at, lower it to lighten the load of XR players.
+     * Set with the {@code mcxr.maxPoseRate} system property, as are the codecs and features with {@code mcxr.poseCodecs} and {@code mcxr.features}
+     */
+    int maxPoseRate();
+
+    /**
+     * Bitmask of the supported {@code PoseStreamConfig.CODEC_*} values
+     */
+    int poseCodecs();
+
+    /**
+     * Bitmask of the supported {@code PoseStreamConfig.FEATURE_*} values
+     */
+    int features();
+
+    /**
+     * Seconds between logging every MCXR metric, 0 disables it
+     */
+    int metricsLogInterval();
 }
@@ -1,9 +1,27 @@
 package net.sorenon.mcxr.core.config;
 
+import net.sorenon.mcxr.core.PoseStreamConfig;
+
+import java.util.Locale;
+
 public class MCXRCoreConfigImpl implements MCXRCoreConfig {
 
     public boolean xrEnabled;
 
+    public int maxPoseRate = Integer.getInteger("mcxr.maxPoseRate", PoseStreamConfig.MAX_POSE_RATE);
+
+    /**
+     * Comma separated names from {@link PoseStreamConfig#CODEC_NAMES}, e.g. {@code -Dmcxr.poseCodecs=floats}
+     */
+    public int poseCodecs = readFlags("mcxr.poseCodecs", PoseStreamConfig.CODEC_NAMES, PoseStreamConfig.CODEC_FLOATS | PoseStreamConfig.CODEC_COMPACT);
+
+    /**
+     * Comma separated names from {@link PoseStreamConfig#FEATURE_NAMES}, e.g. {@code -Dmcxr.features=avatar_poses}
+     */
+    public int features = readFlags("mcxr.features", PoseStreamConfig.FEATURE_NAMES, PoseStreamConfig.FEATURE_AVATAR_POSES | PoseStreamConfig.FEATURE_TELEPORT_DESTINATION);
+
+    public int metricsLogInterval = Integer.getInteger("mcxr.metricsLogInterval", 0);
+
     @Override
     public boolean supportsMCXR() {
         return xrEnabled;
@@ -38,4 +56,44 @@ public class MCXRCoreConfigImpl implements MCXRCoreConfig {
     public boolean handBasedItemUsage() {
         return xrEnabled;
     }
+
+    @Override
+    public int maxPoseRate() {
+        return maxPoseRate;
+    }
+
+    @Override
+    public int poseCodecs() {
+        //Every side can fall back to floats
+        return poseCodecs | PoseStreamConfig.CODEC_FLOATS;
+    }
+
+    @Override
+    public int features() {
+        return features;
+    }
+
+    @Override
+    public int metricsLogInterval() {
+        return metricsLogInterval;
+    }
+
+    /**
+     * @param names the name of each bit, starting from the lowest
+     */
+    private static int readFlags(String property, String[] names, int defaultFlags) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            return defaultFlags;
+        }
+        int flags = 0;
+        for (String name : value.split(",")) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name.trim().toLowerCase(Locale.ROOT))) {
+                    flags |= 1 << i;
+                }
+            }
+        }
+        return flags;
+    }
 }
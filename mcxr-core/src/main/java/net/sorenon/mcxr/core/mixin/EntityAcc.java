@@ -0,0 +1,19 @@
+package net.sorenon.mcxr.core.mixin;
+
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.phys.Vec3;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(Entity.class)
+public interface EntityAcc {
+
+    /**
+     * Unlike setPos this leaves the bounding box and section tracking alone
+     */
+    @Accessor("position")
+    void setPositionRaw(Vec3 position);
+
+    @Accessor("eyeHeight")
+    void setEyeHeightRaw(float eyeHeight);
+}
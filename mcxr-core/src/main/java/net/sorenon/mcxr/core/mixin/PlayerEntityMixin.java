@@ -3,16 +3,21 @@ package net.sorenon.mcxr.core.mixin;
 import net.minecraft.world.damagesource.DamageSource;
 import net.minecraft.world.entity.EntityDimensions;
 import net.minecraft.world.entity.EntityType;
-import net.minecraft.world.entity.HumanoidArm;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 import net.minecraft.world.phys.shapes.VoxelShape;
+import net.sorenon.mcxr.core.DimensionCache;
+import net.sorenon.mcxr.core.HandOverride;
 import net.sorenon.mcxr.core.MCXRCore;
-import net.sorenon.mcxr.core.MCXRScale;
+import net.sorenon.mcxr.core.MCXRMetrics;
 import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseCodec;
+import net.sorenon.mcxr.core.PoseHistory;
+import net.sorenon.mcxr.core.PoseSlot;
+import net.sorenon.mcxr.core.XrPlayerState;
 import net.sorenon.mcxr.core.accessor.PlayerExt;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
@@ -54,7 +59,25 @@ public abstract class PlayerEntityMixin extends LivingEntity implements PlayerEx
     public float height = 0;
 
     @Unique
-    public ThreadLocal<HumanoidArm> overrideTransform = ThreadLocal.withInitial(() -> null);
+    public final HandOverride handOverride = new HandOverride();
+
+    @Unique
+    public final PoseCodec.Decoder poseDecoder = new PoseCodec.Decoder();
+
+    @Unique
+    public final PoseSlot poseSlot = new PoseSlot();
+
+    @Unique
+    public final PoseHistory poseHistory = new PoseHistory();
+
+    @Unique
+    public final DimensionCache dimensionCache = new DimensionCache();
+
+    @Unique
+    public float refreshedEyeHeight = Float.NaN;
+
+    @Unique
+    public XrPlayerState xrState = null;
 
     protected PlayerEntityMixin(EntityType<? extends LivingEntity> entityType, Level world) {
         super(entityType, world);
@@ -62,8 +85,24 @@ public abstract class PlayerEntityMixin extends LivingEntity implements PlayerEx
 
     @Inject(method = "tick", at = @At("HEAD"))
     void preTick(CallbackInfo ci) {
+        PoseSlot.Frame frame = poseSlot.poll();
+        if (frame != null) {
+            headPose.set(frame.headPose);
+            leftHandPose.set(frame.leftHandPose);
+            rightHandPose.set(frame.rightHandPose);
+        }
+
+        xrState = this.isXR() ? XrPlayerState.capture((Player) (Object) this) : null;
+
         if (this.isXR()) {
-            this.refreshDimensions();
+            //Only refresh when the solved dimensions or the eye height actually moved
+            EntityDimensions dims = this.getDimensions(this.getPose());
+            boolean eyeMoved = MCXRCore.getCoreConfig().dynamicPlayerEyeHeight()
+                    && !(Math.abs(headPose.pos.y - refreshedEyeHeight) <= DimensionCache.EPSILON);
+            if (eyeMoved || dims.width != this.getBbWidth() || dims.height != this.getBbHeight()) {
+                refreshedEyeHeight = headPose.pos.y;
+                this.refreshDimensions();
+            }
         }
     }
 
@@ -75,42 +114,50 @@ public abstract class PlayerEntityMixin extends LivingEntity implements PlayerEx
             return;
         }
 
-        EntityDimensions vanilla = POSES.getOrDefault(pose, STANDING_DIMENSIONS);
-
         if (this.isXR()) {
-            final float scale = MCXRScale.getScale(this);
+            final float scale = XrPlayerState.of((Player) (Object) this).scale;
+            final float currentHeight = this.getBbHeight();
+//            final float wantedHeight = (headPose.pos.y - (float) this.position().y + 0.125f * scale);
+            final float wantedHeight = height + 0.125f * scale;
+
+            EntityDimensions cached = dimensionCache.get(pose, dynamicHeight, thinnerBB, scale, wantedHeight, currentHeight, this.getX(), this.getY(), this.getZ(), this.tickCount);
+            if (cached != null) {
+                cir.setReturnValue(cached);
+                return;
+            }
+            MCXRMetrics.DIMENSION_RECOMPUTES.increment();
+
+            EntityDimensions vanilla = POSES.getOrDefault(pose, STANDING_DIMENSIONS);
 
             float width = vanilla.width;
             if (thinnerBB) {
                 width = 0.5f;
             }
 
+            EntityDimensions result;
+            boolean probed = false;
             if (dynamicHeight) {
                 final float minHeight = 0.5f * scale;
-                final float currentHeight = this.getBbHeight();
-//                final float wantedHeight = (headPose.pos.y - (float) this.position().y + 0.125f * scale);
-                final float wantedHeight = height + 0.125f * scale;
                 final float deltaHeight = wantedHeight - currentHeight;
 
                 if (deltaHeight <= 0) {
-                    cir.setReturnValue(
-                            EntityDimensions.scalable(width * scale, Math.max(wantedHeight, minHeight))
-                    );
-                    return;
+                    result = EntityDimensions.scalable(width * scale, Math.max(wantedHeight, minHeight));
+                } else {
+                    //Bound the probe, anything left over is grown into on the following ticks
+                    final float probeHeight = Math.min(deltaHeight, DimensionCache.MAX_PROBE_GROWTH * scale);
+                    AABB currentSize = this.getBoundingBox();
+                    List<VoxelShape> list = this.level.getEntityCollisions(this, currentSize.expandTowards(0, probeHeight, 0));
+                    final double maxDeltaHeight = collideBoundingBox(this, new Vec3(0, probeHeight, 0), currentSize, this.level, list).y;
+
+                    result = EntityDimensions.scalable(width * scale, Math.max(currentHeight + (float) maxDeltaHeight, minHeight));
+                    probed = true;
                 }
-
-                AABB currentSize = this.getBoundingBox();
-                List<VoxelShape> list = this.level.getEntityCollisions(this, currentSize.expandTowards(0, deltaHeight, 0));
-                final double maxDeltaHeight = collideBoundingBox(this, new Vec3(0, deltaHeight, 0), currentSize, this.level, list).y;
-
-                cir.setReturnValue(
-                        EntityDimensions.scalable(width * scale, Math.max(currentHeight + (float) maxDeltaHeight, minHeight))
-                );
             } else {
-                cir.setReturnValue(
-                        EntityDimensions.scalable(width * scale, vanilla.height)
-                );
+                result = EntityDimensions.scalable(width * scale, vanilla.height);
             }
+
+            dimensionCache.put(pose, result, dynamicHeight, thinnerBB, scale, wantedHeight, currentHeight, probed, this.getX(), this.getY(), this.getZ(), this.tickCount);
+            cir.setReturnValue(result);
         }
     }
 
@@ -140,7 +187,27 @@ public abstract class PlayerEntityMixin extends LivingEntity implements PlayerEx
     }
 
     @Override
-    public ThreadLocal<HumanoidArm> getOverrideTransform() {
-        return this.overrideTransform;
+    public XrPlayerState getXrState() {
+        return this.xrState;
+    }
+
+    @Override
+    public HandOverride getHandOverride() {
+        return this.handOverride;
+    }
+
+    @Override
+    public PoseCodec.Decoder getPoseDecoder() {
+        return this.poseDecoder;
+    }
+
+    @Override
+    public PoseSlot getPoseSlot() {
+        return this.poseSlot;
+    }
+
+    @Override
+    public PoseHistory getPoseHistory() {
+        return this.poseHistory;
     }
 }
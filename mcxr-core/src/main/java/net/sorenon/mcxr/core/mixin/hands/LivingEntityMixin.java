@@ -4,6 +4,7 @@ import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 import net.sorenon.mcxr.core.MCXRCore;
 import net.sorenon.mcxr.core.accessor.PlayerExt;
@@ -24,15 +25,15 @@ public abstract class LivingEntityMixin extends Entity {
 
     @Inject(method = "releaseUsingItem", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/item/ItemStack;releaseUsing(Lnet/minecraft/world/level/Level;Lnet/minecraft/world/entity/LivingEntity;I)V"))
     void preReleaseUsing(CallbackInfo ci) {
-        if (this instanceof PlayerExt playerExt && playerExt.isXR() && MCXRCore.getCoreConfig().handBasedItemUsage()) {
-            playerExt.getOverrideTransform().set(MCXRCore.handToArm((LivingEntity)(Object)this, this.getUsedItemHand()));
+        if ((Object) this instanceof Player player && ((PlayerExt) player).isXR() && MCXRCore.getCoreConfig().handBasedItemUsage()) {
+            MCXRCore.beginHandOverride(player, MCXRCore.handToArm(player, this.getUsedItemHand()));
         }
     }
 
     @Inject(method = "releaseUsingItem", at = @At(value = "INVOKE", shift = At.Shift.AFTER, target = "Lnet/minecraft/world/item/ItemStack;releaseUsing(Lnet/minecraft/world/level/Level;Lnet/minecraft/world/entity/LivingEntity;I)V"))
     void postReleaseUsing(CallbackInfo ci) {
-        if (this instanceof PlayerExt playerExt && playerExt.isXR()) {
-            playerExt.getOverrideTransform().set(null);
+        if ((Object) this instanceof Player player && ((PlayerExt) player).isXR()) {
+            MCXRCore.endHandOverride(player);
         }
     }
 }
@@ -0,0 +1,73 @@
+package net.sorenon.mcxr.core.mixin.hands;
+
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ServerboundPlayerActionPacket;
+import net.minecraft.network.protocol.game.ServerboundUseItemOnPacket;
+import net.minecraft.network.protocol.game.ServerboundUseItemPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.sorenon.mcxr.core.PoseHistory;
+import net.sorenon.mcxr.core.accessor.PlayerExt;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * These handlers are first called on the network thread, which reschedules them onto the server thread.
+ * The first call stamps the packet with the newest pose received so far and the second one picks it up again.
+ */
+@Mixin(ServerGamePacketListenerImpl.class)
+public class ServerGamePacketListenerImplMixin {
+
+    @Shadow
+    public ServerPlayer player;
+
+    @Shadow
+    @Final
+    private MinecraftServer server;
+
+    @Inject(method = "handleUseItem", at = @At("HEAD"))
+    void stampUseItem(ServerboundUseItemPacket packet, CallbackInfo ci) {
+        stampAction(packet);
+    }
+
+    @Inject(method = "handleUseItem", at = @At("RETURN"))
+    void endUseItem(ServerboundUseItemPacket packet, CallbackInfo ci) {
+        ((PlayerExt) this.player).getPoseHistory().endAction();
+    }
+
+    @Inject(method = "handleUseItemOn", at = @At("HEAD"))
+    void stampUseItemOn(ServerboundUseItemOnPacket packet, CallbackInfo ci) {
+        stampAction(packet);
+    }
+
+    @Inject(method = "handleUseItemOn", at = @At("RETURN"))
+    void endUseItemOn(ServerboundUseItemOnPacket packet, CallbackInfo ci) {
+        ((PlayerExt) this.player).getPoseHistory().endAction();
+    }
+
+    @Inject(method = "handlePlayerAction", at = @At("HEAD"))
+    void stampPlayerAction(ServerboundPlayerActionPacket packet, CallbackInfo ci) {
+        stampAction(packet);
+    }
+
+    @Inject(method = "handlePlayerAction", at = @At("RETURN"))
+    void endPlayerAction(ServerboundPlayerActionPacket packet, CallbackInfo ci) {
+        ((PlayerExt) this.player).getPoseHistory().endAction();
+    }
+
+    @Unique
+    private void stampAction(Packet<?> packet) {
+        PoseHistory history = ((PlayerExt) this.player).getPoseHistory();
+        if (this.server.isSameThread()) {
+            history.beginAction(packet);
+        } else {
+            history.stampAction(packet);
+        }
+    }
+}
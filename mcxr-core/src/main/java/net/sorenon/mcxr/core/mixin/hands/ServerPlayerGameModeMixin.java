@@ -6,6 +6,7 @@ import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.BlockHitResult;
 import net.sorenon.mcxr.core.MCXRCore;
 import net.sorenon.mcxr.core.accessor.PlayerExt;
 import org.spongepowered.asm.mixin.Mixin;
@@ -24,7 +25,7 @@ public class ServerPlayerGameModeMixin {
                 CallbackInfoReturnable<InteractionResult> cir) {
         PlayerExt playerExt = ((PlayerExt) serverPlayer);
         if (playerExt.isXR() && MCXRCore.getCoreConfig().handBasedItemUsage()) {
-            playerExt.getOverrideTransform().set(MCXRCore.handToArm(serverPlayer, interactionHand));
+            MCXRCore.beginHandOverride(serverPlayer, MCXRCore.handToArm(serverPlayer, interactionHand));
         }
     }
 
@@ -36,7 +37,33 @@ public class ServerPlayerGameModeMixin {
                  CallbackInfoReturnable<InteractionResult> cir) {
         PlayerExt playerExt = ((PlayerExt) serverPlayer);
         if (playerExt.isXR()) {
-            playerExt.getOverrideTransform().set(null);
+            MCXRCore.endHandOverride(serverPlayer);
+        }
+    }
+
+    @Inject(method = "useItemOn", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/item/ItemStack;useOn(Lnet/minecraft/world/item/context/UseOnContext;)Lnet/minecraft/world/InteractionResult;"))
+    void preUseOn(ServerPlayer serverPlayer,
+                  Level level,
+                  ItemStack itemStack,
+                  InteractionHand interactionHand,
+                  BlockHitResult blockHitResult,
+                  CallbackInfoReturnable<InteractionResult> cir) {
+        PlayerExt playerExt = ((PlayerExt) serverPlayer);
+        if (playerExt.isXR() && MCXRCore.getCoreConfig().handBasedItemUsage()) {
+            MCXRCore.beginHandOverride(serverPlayer, MCXRCore.handToArm(serverPlayer, interactionHand));
+        }
+    }
+
+    @Inject(method = "useItemOn", at = @At(value = "INVOKE", shift = At.Shift.AFTER, target = "Lnet/minecraft/world/item/ItemStack;useOn(Lnet/minecraft/world/item/context/UseOnContext;)Lnet/minecraft/world/InteractionResult;"))
+    void postUseOn(ServerPlayer serverPlayer,
+                   Level level,
+                   ItemStack itemStack,
+                   InteractionHand interactionHand,
+                   BlockHitResult blockHitResult,
+                   CallbackInfoReturnable<InteractionResult> cir) {
+        PlayerExt playerExt = ((PlayerExt) serverPlayer);
+        if (playerExt.isXR()) {
+            MCXRCore.endHandOverride(serverPlayer);
         }
     }
 }
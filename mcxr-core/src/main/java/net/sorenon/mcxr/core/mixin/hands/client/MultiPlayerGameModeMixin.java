@@ -19,7 +19,7 @@ public class MultiPlayerGameModeMixin {
     void preUse(LocalPlayer localPlayer, InteractionHand interactionHand, BlockHitResult blockHitResult, CallbackInfoReturnable<InteractionResult> cir) {
         PlayerExt playerExt = ((PlayerExt) localPlayer);
         if (playerExt.isXR() && MCXRCore.getCoreConfig().handBasedItemUsage()) {
-            playerExt.getOverrideTransform().set(MCXRCore.handToArm(localPlayer, interactionHand));
+            MCXRCore.beginHandOverride(localPlayer, MCXRCore.handToArm(localPlayer, interactionHand));
         }
     }
 
@@ -27,7 +27,7 @@ public class MultiPlayerGameModeMixin {
     void postUse(LocalPlayer localPlayer, InteractionHand interactionHand, BlockHitResult blockHitResult, CallbackInfoReturnable<InteractionResult> cir) {
         PlayerExt playerExt = ((PlayerExt) localPlayer);
         if (playerExt.isXR()) {
-            playerExt.getOverrideTransform().set(null);
+            MCXRCore.endHandOverride(localPlayer);
         }
     }
 }
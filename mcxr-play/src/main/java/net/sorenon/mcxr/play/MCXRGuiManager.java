@@ -5,13 +5,19 @@ import com.mojang.blaze3d.pipeline.TextureTarget;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.phys.Vec3;
 import net.sorenon.mcxr.core.JOMLUtil;
+import net.sorenon.mcxr.play.mixin.accessor.ChatComponentAcc;
 import net.sorenon.mcxr.play.rendering.UnownedTexture;
 import net.sorenon.mcxr.play.rendering.MCXRCamera;
 import org.jetbrains.annotations.Nullable;
 import org.joml.*;
 
+import java.util.List;
+
 public class MCXRGuiManager {
 
     public final int guiFramebufferWidth = 1980;
@@ -38,7 +44,18 @@ public class MCXRGuiManager {
     public Vec3 position = null;
     public Quaterniond orientation = new Quaterniond(0, 0, 0, 1);
 
+    /**
+     * Set when something the GUI shows has changed since it was last drawn, otherwise the last drawn GUI is reused
+     * until {@link PlayOptions#guiRefreshRate} asks for a redraw to keep animations moving
+     */
+    private boolean dirty = true;
+    private long lastDrawNanos = 0;
+    private int lastHudState = 0;
+    private double lastMouseX = 0;
+    private double lastMouseY = 0;
+
     public void init() {
+        dirty = true;
         guiScale = calcGuiScale();
 
         int widthFloor = (int) (guiFramebufferWidth / guiScale);
@@ -77,7 +94,76 @@ public class MCXRGuiManager {
         return Minecraft.getInstance().screen != null;
     }
 
+    /**
+     * Redraws the GUI on the next frame, for changes {@link #shouldDraw} can't see like titles, toasts and boss bars
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Called once a frame, decides whether the GUI pass needs to draw the GUI again or can reuse what it drew last time
+     */
+    public boolean shouldDraw(long frameStartTime) {
+        Minecraft client = Minecraft.getInstance();
+        //Loading overlays finish the resource reload from inside their render call
+        if (PlayOptions.guiRefreshRate <= 0 || client.getOverlay() != null) {
+            dirty = true;
+        }
+
+        int hudState = hudState(client);
+        double mouseX = client.mouseHandler.xpos();
+        double mouseY = client.mouseHandler.ypos();
+        if (hudState != lastHudState || mouseX != lastMouseX || mouseY != lastMouseY) {
+            lastHudState = hudState;
+            lastMouseX = mouseX;
+            lastMouseY = mouseY;
+            dirty = true;
+        }
+
+        if (dirty || frameStartTime - lastDrawNanos >= 1_000_000_000L / PlayOptions.guiRefreshRate) {
+            dirty = false;
+            lastDrawNanos = frameStartTime;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * A hash of the state behind the parts of the HUD that change in response to the player, anything else is picked up by the refresh rate
+     */
+    private static int hudState(Minecraft client) {
+        int hash = System.identityHashCode(client.screen);
+        Player player = client.player;
+        if (player != null) {
+            Inventory inventory = player.getInventory();
+            hash = 31 * hash + inventory.selected;
+            for (int i = 0; i < Inventory.getSelectionSize(); i++) {
+                hash = 31 * hash + itemState(inventory.getItem(i));
+            }
+            hash = 31 * hash + itemState(player.getOffhandItem());
+            hash = 31 * hash + Float.floatToIntBits(player.getHealth());
+            hash = 31 * hash + Float.floatToIntBits(player.getAbsorptionAmount());
+            hash = 31 * hash + player.getFoodData().getFoodLevel();
+            hash = 31 * hash + player.getAirSupply();
+            hash = 31 * hash + player.getArmorValue();
+            hash = 31 * hash + player.experienceLevel;
+            hash = 31 * hash + Float.floatToIntBits(player.experienceProgress);
+        }
+        var chat = (ChatComponentAcc) client.gui.getChat();
+        //New messages are added to the front
+        List<?> messages = chat.getAllMessages();
+        hash = 31 * hash + (messages.isEmpty() ? 0 : System.identityHashCode(messages.get(0)));
+        hash = 31 * hash + chat.getChatScrollbarPos();
+        return hash;
+    }
+
+    private static int itemState(ItemStack stack) {
+        return (System.identityHashCode(stack.getItem()) * 31 + stack.getCount()) * 31 + stack.getDamageValue();
+    }
+
     public void handleOpenScreen(@Nullable Screen screen) {
+        dirty = true;
         if (screen == null) {
             position = null;
             orientation.set(0, 0, 0, 1);
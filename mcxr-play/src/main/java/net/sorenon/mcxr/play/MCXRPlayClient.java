@@ -5,7 +5,6 @@ import com.mojang.blaze3d.vertex.VertexConsumer;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
-import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.Camera;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.player.LocalPlayer;
@@ -20,20 +19,27 @@ import net.minecraft.world.entity.HumanoidArm;
 import net.sorenon.fart.FartRenderEvents;
 import net.sorenon.mcxr.core.MCXRCore;
 import net.sorenon.mcxr.core.MCXRScale;
+import net.sorenon.mcxr.core.PoseMath;
 import net.sorenon.mcxr.play.input.ControllerPoses;
+import net.sorenon.mcxr.play.input.InputPlayback;
+import net.sorenon.mcxr.play.input.InputRecorder;
 import net.sorenon.mcxr.play.openxr.MCXRGameRenderer;
+import net.sorenon.mcxr.play.openxr.MockXrRuntime;
 import net.sorenon.mcxr.play.openxr.OpenXRState;
 import net.sorenon.mcxr.play.rendering.RenderPass;
 import net.sorenon.mcxr.play.rendering.VrFirstPersonRenderer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.joml.Quaternionf;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Vector3d;
 import org.joml.Vector3f;
 import org.lwjgl.openxr.XR;
 import org.lwjgl.system.Configuration;
 import virtuoel.pehkui.util.ScaleUtils;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 import static net.minecraft.client.gui.GuiComponent.GUI_ICONS_LOCATION;
 
 public class MCXRPlayClient implements ClientModInitializer {
@@ -49,6 +55,11 @@ public class MCXRPlayClient implements ClientModInitializer {
     public VrFirstPersonRenderer vrFirstPersonRenderer = new VrFirstPersonRenderer(MCXRGuiManager);
     public static final ControllerPoses viewSpacePoses = new ControllerPoses();
 
+    @Nullable
+    public static InputRecorder INPUT_RECORDER;
+    @Nullable
+    public static InputPlayback INPUT_PLAYBACK;
+
     //Stage space => Unscaled Physical Space => Physical Space => Minecraft Space
     //OpenXR         GUI                        Roomscale Logic   Minecraft Logic
     //      Rotated + Translated           Scaled          Translated
@@ -100,12 +111,30 @@ public class MCXRPlayClient implements ClientModInitializer {
         PlayOptions.save();
 
         INSTANCE = this;
-        if (!PlayOptions.xrUninitialized) {
+        if (!PlayOptions.xrUninitialized && !MockXrRuntime.ENABLED) {
             XR.create("openxr_loader");
         }
 
         ClientLifecycleEvents.CLIENT_STARTED.register(MCXR_GAME_RENDERER::initialize);
 
+        String recordInput = System.getProperty("mcxr.recordInput");
+        if (recordInput != null) {
+            try {
+                INPUT_RECORDER = new InputRecorder(Path.of(recordInput));
+                ClientLifecycleEvents.CLIENT_STOPPING.register(client -> INPUT_RECORDER.close());
+            } catch (IOException e) {
+                LOGGER.error("Failed to start recording XR input to " + recordInput, e);
+            }
+        }
+        String playbackInput = System.getProperty("mcxr.playbackInput");
+        if (playbackInput != null) {
+            try {
+                INPUT_PLAYBACK = new InputPlayback(Path.of(playbackInput), Boolean.getBoolean("mcxr.playbackLoop"));
+            } catch (IOException | IllegalStateException e) {
+                LOGGER.error("Failed to play back XR input from " + playbackInput, e);
+            }
+        }
+
         WorldRenderEvents.AFTER_ENTITIES.register(context -> {
             if (MCXR_GAME_RENDERER.renderPass instanceof RenderPass.XrWorld) {
                 if (!Minecraft.getInstance().options.hideGui && !MCXRGuiManager.isScreenOpen()) {
@@ -170,8 +199,7 @@ public class MCXRPlayClient implements ClientModInitializer {
     }
 
     public static void resetView() {
-        Vector3f pos = new Vector3f(MCXRPlayClient.viewSpacePoses.getStagePose().getPos());
-        new Quaternionf().rotateLocalY(stageTurn).transform(pos);
+        Vector3f pos = PoseMath.rotateY(stageTurn, MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
         if (MCXRCore.getCoreConfig().roomscaleMovement()) {
             playerPhysicalPosition.set(MCXRPlayClient.viewSpacePoses.getPhysicalPose().getPos());
         } else {
@@ -195,7 +223,7 @@ public class MCXRPlayClient implements ClientModInitializer {
     }
 
     public static float modifyProjectionMatrixDepth(float depth, Entity entity, float tickDelta) {
-        if (FabricLoader.getInstance().isModLoaded("pehkui")) {
+        if (MCXRScale.PEHKUI_LOADED) {
             return ScaleUtils.modifyProjectionMatrixDepth(MCXRPlayClient.getCameraScale(tickDelta), depth, entity, tickDelta);
         }
         return depth;
@@ -5,17 +5,14 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.phys.Vec3;
 import net.sorenon.mcxr.core.JOMLUtil;
-import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseMath;
 import net.sorenon.mcxr.play.input.XrInput;
 import org.jetbrains.annotations.Nullable;
 import org.joml.Math;
 import org.joml.Quaternionf;
 import org.joml.Vector3d;
-import org.joml.Vector3f;
 import org.lwjgl.glfw.GLFW;
 
-import java.util.Optional;
-
 public enum MoveDirectionPose {
     Head,
     RightHand,
@@ -52,43 +49,43 @@ public enum MoveDirectionPose {
         }
     }
 
+    @Nullable
+    private Quaternionf getOrientation() {
+        return switch (this) {
+            case Head -> null;
+            case RightHand -> XrInput.handsActionSet.gripPoses[1].getMinecraftPose().getOrientation();
+            case LeftHand -> XrInput.handsActionSet.gripPoses[0].getMinecraftPose().getOrientation();
+        };
+    }
+
     @Nullable
     public Vec3 getLookDirection() {
-        Quaternionf orientation = new Quaternionf();
-        switch (this) {
-            case Head -> {
-                return null;
-            }
-            case RightHand -> XrInput.handsActionSet.gripPoses[1].getMinecraftPose().getOrientation().get(orientation);
-            case LeftHand -> XrInput.handsActionSet.gripPoses[0].getMinecraftPose().getOrientation().get(orientation);
+        Quaternionf orientation = getOrientation();
+        if (orientation == null) {
+            return null;
         }
-        orientation = orientation.rotateX(Math.toRadians(PlayOptions.handPitchAdjust));
-        return JOMLUtil.convert(orientation.transform(new Vector3d(0, -1, 0)));
+        return JOMLUtil.convert(PoseMath.handDirection(orientation, Math.toRadians(PlayOptions.handPitchAdjust), new Vector3d()));
     }
 
-    public Optional<Float> getMCYaw() {
-        Quaternionf orientation = new Quaternionf();
-        switch (this) {
-            case Head -> {
-                return Optional.empty();
-            }
-            case RightHand -> XrInput.handsActionSet.gripPoses[1].getMinecraftPose().getOrientation().get(orientation);
-            case LeftHand -> XrInput.handsActionSet.gripPoses[0].getMinecraftPose().getOrientation().get(orientation);
+    /**
+     * @return the yaw of the hand's direction or NaN when moving relative to the head
+     */
+    public float getMCYaw() {
+        Quaternionf orientation = getOrientation();
+        if (orientation == null) {
+            return Float.NaN;
         }
-        orientation = orientation.rotateX(Math.toRadians(PlayOptions.handPitchAdjust));
-        return Optional.of(Pose.getMCYaw(orientation, new Vector3f(0, -1, 0)));
+        return PoseMath.handYaw(orientation, Math.toRadians(PlayOptions.handPitchAdjust));
     }
 
-    public Optional<Float> getMCPitch() {
-        Quaternionf orientation = new Quaternionf();
-        switch (this) {
-            case Head -> {
-                return Optional.empty();
-            }
-            case RightHand -> XrInput.handsActionSet.gripPoses[1].getMinecraftPose().getOrientation().get(orientation);
-            case LeftHand -> XrInput.handsActionSet.gripPoses[0].getMinecraftPose().getOrientation().get(orientation);
+    /**
+     * @return the pitch of the hand's direction or NaN when moving relative to the head
+     */
+    public float getMCPitch() {
+        Quaternionf orientation = getOrientation();
+        if (orientation == null) {
+            return Float.NaN;
         }
-        orientation = orientation.rotateX(Math.toRadians(PlayOptions.handPitchAdjust));
-        return Optional.of(Pose.getMCPitch(orientation, new Vector3f(0, -1, 0)));
+        return PoseMath.handPitch(orientation, Math.toRadians(PlayOptions.handPitchAdjust));
     }
 }
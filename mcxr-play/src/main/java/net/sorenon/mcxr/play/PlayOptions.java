@@ -4,6 +4,7 @@ import com.electronwill.nightconfig.core.file.FileConfig;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.chat.Component;
+import net.sorenon.mcxr.play.rendering.AntiAliasing;
 import org.lwjgl.glfw.GLFW;
 
 public class PlayOptions {
@@ -33,6 +34,54 @@ public class PlayOptions {
 
     public static float SSAA = 1;
 
+    /**
+     * Scale the eye resolution between these fractions of {@link #SSAA} to keep up with the display
+     */
+    public static boolean dynamicResolution = false;
+    public static float dynamicResolutionMin = 0.6f;
+    public static float dynamicResolutionMax = 1;
+
+    /**
+     * Render the world once for both eyes with GL_OVR_multiview2 when the driver and current settings allow it
+     */
+    public static boolean singlePassStereo = true;
+
+    /**
+     * Fixed foveation, 0 is off and 3 renders the periphery at the lowest density
+     * Two pass rendering only foveates without MSAA, TAA or post effects since it needs a second world pass per eye.
+     */
+    public static int foveationLevel = 0;
+
+    /**
+     * Render the eyes straight into the swapchain images when nothing needs the blit, this skips FXAA
+     */
+    public static boolean renderToSwapchain = false;
+
+    /**
+     * Wait on the runtime from a separate thread and tick the game while waiting, some runtimes don't allow xrWaitFrame off the render thread
+     */
+    public static boolean pipelinedFrames = false;
+
+    /**
+     * Locate the eyes again just before each one is rendered instead of once at the start of the frame
+     */
+    public static boolean lateLatching = true;
+
+    /**
+     * Submit the GUI panel to the runtime as a quad layer instead of drawing it into the world
+     */
+    public static boolean guiQuadLayer = false;
+
+    /**
+     * How many times a second the GUI is redrawn while nothing it shows has changed, 0 redraws it every frame
+     */
+    public static int guiRefreshRate = 30;
+
+    /**
+     * How each eye is anti-aliased, MSAA and TAA render the eyes in separate passes
+     */
+    public static AntiAliasing antiAliasing = AntiAliasing.FXAA_HIGH;
+
     public static void init() {
         fileConfig = FileConfig.of(FabricLoader.getInstance().getConfigDir().resolve(MCXRPlayClient.MODID + ".toml"));
     }
@@ -61,6 +110,17 @@ public class PlayOptions {
         fileConfig.set("teleportEnabled", teleportEnabled);
 
         fileConfig.set("SSAA", SSAA);
+        fileConfig.set("dynamicResolution", dynamicResolution);
+        fileConfig.set("dynamicResolutionMin", dynamicResolutionMin);
+        fileConfig.set("dynamicResolutionMax", dynamicResolutionMax);
+        fileConfig.set("singlePassStereo", singlePassStereo);
+        fileConfig.set("foveationLevel", foveationLevel);
+        fileConfig.set("renderToSwapchain", renderToSwapchain);
+        fileConfig.set("pipelinedFrames", pipelinedFrames);
+        fileConfig.set("lateLatching", lateLatching);
+        fileConfig.set("guiQuadLayer", guiQuadLayer);
+        fileConfig.set("guiRefreshRate", guiRefreshRate);
+        fileConfig.set("antiAliasing", antiAliasing);
         fileConfig.save();
     }
 
@@ -89,5 +149,16 @@ public class PlayOptions {
         teleportEnabled = fileConfig.getOrElse("teleportEnabled", true);
 
         SSAA = fileConfig.<Number>getOrElse("SSAA", 1).floatValue();
+        dynamicResolution = fileConfig.getOrElse("dynamicResolution", false);
+        dynamicResolutionMax = Math.max(0.1f, fileConfig.<Number>getOrElse("dynamicResolutionMax", 1).floatValue());
+        dynamicResolutionMin = Math.min(dynamicResolutionMax, Math.max(0.1f, fileConfig.<Number>getOrElse("dynamicResolutionMin", 0.6f).floatValue()));
+        singlePassStereo = fileConfig.getOrElse("singlePassStereo", true);
+        foveationLevel = Math.max(0, Math.min(3, fileConfig.<Number>getOrElse("foveationLevel", 0).intValue()));
+        renderToSwapchain = fileConfig.getOrElse("renderToSwapchain", false);
+        pipelinedFrames = fileConfig.getOrElse("pipelinedFrames", false);
+        lateLatching = fileConfig.getOrElse("lateLatching", true);
+        guiQuadLayer = fileConfig.getOrElse("guiQuadLayer", false);
+        guiRefreshRate = Math.max(0, fileConfig.<Number>getOrElse("guiRefreshRate", 30).intValue());
+        antiAliasing = fileConfig.getEnumOrElse("antiAliasing", AntiAliasing.FXAA_HIGH);
     }
 }
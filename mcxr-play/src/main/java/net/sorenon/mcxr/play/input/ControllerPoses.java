@@ -4,6 +4,7 @@ import net.sorenon.mcxr.core.Pose;
 import net.sorenon.mcxr.play.MCXRPlayClient;
 import org.joml.Quaternionf;
 import org.joml.Vector3d;
+import org.joml.Vector3fc;
 import org.lwjgl.openxr.XrPosef;
 
 //TODO find a better system for this
@@ -46,14 +47,29 @@ public class ControllerPoses {
     }
 
     public void updatePhysicalPose(XrPosef pose, float yawTurn, float scale) {
+        updatePhysicalPose(pose, yawTurn, scale, MCXRPlayClient.stagePosition);
+    }
+
+    public void updatePhysicalPose(XrPosef pose, float yawTurn, float scale, Vector3fc stagePosition) {
         stagePose.pos.set(pose.position$().x(), pose.position$().y(), pose.position$().z());
         stagePose.orientation.set(pose.orientation().x(), pose.orientation().y(), pose.orientation().z(), pose.orientation().w());
+        updateFromStagePose(yawTurn, scale, stagePosition);
+    }
+
+    /**
+     * Same as {@link #updatePhysicalPose(XrPosef, float, float)} but from a pose that didn't come from the runtime, used for playback
+     */
+    public void updatePhysicalPose(Pose pose, float yawTurn, float scale) {
+        stagePose.set(pose);
+        updateFromStagePose(yawTurn, scale, MCXRPlayClient.stagePosition);
+    }
 
+    private void updateFromStagePose(float yawTurn, float scale, Vector3fc stagePosition) {
         physicalPose.set(stagePose);
         physicalPose.orientation.rotateLocalY(yawTurn);
 
         quaternionf.identity().rotateLocalY(yawTurn).transform(physicalPose.pos);
-        physicalPose.pos.add(MCXRPlayClient.stagePosition);
+        physicalPose.pos.add(stagePosition);
 
         unscaledPhysicalPose.set(physicalPose);
 
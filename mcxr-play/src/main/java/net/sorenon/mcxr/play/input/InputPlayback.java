@@ -0,0 +1,110 @@
+package net.sorenon.mcxr.play.input;
+
+import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.play.MCXRPlayClient;
+import net.sorenon.mcxr.play.input.actionsets.HandsActionSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Feeds an {@link InputRecording} back into the action sets and controller poses in place of the runtime
+ * <p>
+ * Each call to {@link #nextFrame} stands in for an xrSyncActions and each call to {@link #applyPoses} for locating the
+ * head and hand spaces, so the rest of the frame loop runs exactly as it did when the recording was made.
+ * When no XR session is running {@link #stepHeadless} does both once per frame so the poses still move without a headset.
+ * Enabled with {@code -Dmcxr.playbackInput=<file>}, {@code -Dmcxr.playbackLoop=true} restarts it when it runs out.
+ */
+public class InputPlayback {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final InputRecording recording;
+    private final ControllerPoses[] poses;
+    private final Pose[] stagePoses = new Pose[InputRecording.POSE_COUNT];
+    private final MappedByteBuffer buf;
+    private final int frameCount;
+    private final boolean loop;
+
+    private int frame = 0;
+    private long predictedDisplayTime;
+    private boolean finished = false;
+
+    public InputPlayback(Path path, boolean loop) throws IOException {
+        this.recording = InputRecording.create();
+        this.poses = InputRecording.poses();
+        this.loop = loop;
+        for (int i = 0; i < stagePoses.length; i++) {
+            stagePoses[i] = new Pose();
+        }
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        recording.checkHeader(buf);
+        frameCount = (buf.capacity() - InputRecording.HEADER_SIZE) / recording.frameSize;
+        LOGGER.info("Playing back {} frames of XR input from {}", frameCount, path);
+    }
+
+    /**
+     * Applies the action states of the next recorded frame
+     *
+     * @return false once the recording has run out
+     */
+    public boolean nextFrame() {
+        if (frame >= frameCount) {
+            if (!loop || frameCount == 0) {
+                if (!finished) {
+                    finished = true;
+                    LOGGER.info("Input playback finished after {} frames", frame);
+                }
+                return false;
+            }
+            frame = 0;
+        }
+        buf.position(InputRecording.HEADER_SIZE + frame * recording.frameSize);
+        predictedDisplayTime = recording.readFrame(buf, stagePoses);
+        frame++;
+        return true;
+    }
+
+    /**
+     * Sets the physical poses from the current frame, active hands only like the runtime path
+     */
+    public void applyPoses(float scale) {
+        HandsActionSet hands = XrInput.handsActionSet;
+        MCXRPlayClient.viewSpacePoses.updatePhysicalPose(stagePoses[0], MCXRPlayClient.stageTurn, scale);
+        for (int i = 0; i < 2; i++) {
+            if (!hands.grip.isActive[i]) {
+                continue;
+            }
+            poses[1 + i].updatePhysicalPose(stagePoses[1 + i], MCXRPlayClient.stageTurn, scale);
+            poses[3 + i].updatePhysicalPose(stagePoses[3 + i], MCXRPlayClient.stageTurn, scale);
+        }
+    }
+
+    public void stepHeadless() {
+        if (nextFrame()) {
+            applyPoses(MCXRPlayClient.getCameraScale());
+            for (var controllerPoses : poses) {
+                controllerPoses.updateGamePose(MCXRPlayClient.xrOrigin);
+            }
+        }
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int getFrame() {
+        return frame;
+    }
+
+    public long getPredictedDisplayTime() {
+        return predictedDisplayTime;
+    }
+}
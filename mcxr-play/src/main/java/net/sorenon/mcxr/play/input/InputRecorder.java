@@ -0,0 +1,88 @@
+package net.sorenon.mcxr.play.input;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends every rendered XR frame's input to a memory mapped {@link InputRecording}
+ * <p>
+ * The file is mapped a chunk at a time so recording a frame is a handful of puts into the page cache.
+ * Enabled with {@code -Dmcxr.recordInput=<file>}.
+ */
+public class InputRecorder implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Frames mapped at once, about 1MB with the current action sets
+     */
+    private static final int CHUNK_FRAMES = 4096;
+
+    private final InputRecording recording;
+    private final ControllerPoses[] poses;
+    private final FileChannel channel;
+
+    private MappedByteBuffer chunk;
+    private long chunkStart;
+    private long written;
+    private int frames = 0;
+
+    public InputRecorder(Path path) throws IOException {
+        this.recording = InputRecording.create();
+        this.poses = InputRecording.poses();
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        map(0);
+        recording.writeHeader(chunk);
+        written = InputRecording.HEADER_SIZE;
+    }
+
+    private void map(long position) throws IOException {
+        chunkStart = position;
+        chunk = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) recording.frameSize * CHUNK_FRAMES + InputRecording.HEADER_SIZE);
+    }
+
+    public void record(long predictedDisplayTime) {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            if (written + recording.frameSize > chunkStart + chunk.capacity()) {
+                chunk.force();
+                map(written);
+            }
+            chunk.position((int) (written - chunkStart));
+            recording.writeFrame(chunk, predictedDisplayTime, poses);
+            written += recording.frameSize;
+            frames++;
+        } catch (IOException e) {
+            LOGGER.error("Failed to extend input recording, stopping", e);
+            close();
+        }
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    @Override
+    public void close() {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            chunk.force();
+            //The last chunk was mapped past the end of the recording
+            channel.truncate(written);
+            channel.close();
+            LOGGER.info("Recorded {} frames of XR input", frames);
+        } catch (IOException e) {
+            LOGGER.error("Failed to close input recording", e);
+        }
+    }
+}
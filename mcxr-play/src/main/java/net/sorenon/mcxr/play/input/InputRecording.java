@@ -0,0 +1,180 @@
+package net.sorenon.mcxr.play.input;
+
+import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.play.MCXRPlayClient;
+import net.sorenon.mcxr.play.input.actions.Action;
+import net.sorenon.mcxr.play.input.actions.BoolAction;
+import net.sorenon.mcxr.play.input.actions.FloatAction;
+import net.sorenon.mcxr.play.input.actions.SingleInputAction;
+import net.sorenon.mcxr.play.input.actions.Vec2fAction;
+import net.sorenon.mcxr.play.input.actionsets.HandsActionSet;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout of a recorded XR input stream
+ * <p>
+ * A recording is a fixed size header followed by one fixed size frame for every rendered XR frame.
+ * A frame holds the predicted display time, the stage space poses of the head and both grip and aim poses
+ * (the values fed into {@link ControllerPoses#updatePhysicalPose}) and the state of every gameplay and GUI action.
+ * Frames are fixed size so a recording can be appended to through a memory map and seeked without an index.
+ */
+public final class InputRecording {
+
+    public static final int MAGIC = 0x4D435852; //MCXR
+    public static final int VERSION = 1;
+
+    /**
+     * magic, version, frame size, action fingerprint
+     */
+    public static final int HEADER_SIZE = 16;
+
+    public static final int POSE_COUNT = 5;
+    private static final int POSE_SIZE = 7 * Float.BYTES;
+
+    private static final int FLAG_STATE = 1;
+    private static final int FLAG_CHANGED = 2;
+    private static final int FLAG_ACTIVE = 4;
+
+    public final List<SingleInputAction<?>> actions;
+    public final int frameSize;
+    public final int fingerprint;
+
+    private InputRecording(List<SingleInputAction<?>> actions) {
+        this.actions = actions;
+
+        int size = Long.BYTES + 1 + POSE_COUNT * POSE_SIZE;
+        StringBuilder names = new StringBuilder();
+        for (var action : actions) {
+            size += 1;
+            if (action instanceof FloatAction) {
+                size += Float.BYTES;
+            } else if (action instanceof Vec2fAction) {
+                size += 2 * Float.BYTES;
+            }
+            names.append(action.name).append(';');
+        }
+        this.frameSize = size;
+        this.fingerprint = names.toString().hashCode();
+    }
+
+    public static InputRecording create() {
+        List<SingleInputAction<?>> actions = new ArrayList<>();
+        addActions(XrInput.vanillaGameplayActionSet.actions(), actions);
+        addActions(XrInput.guiActionSet.actions(), actions);
+        return new InputRecording(actions);
+    }
+
+    private static void addActions(List<Action> from, List<SingleInputAction<?>> to) {
+        for (var action : from) {
+            if (action instanceof SingleInputAction<?> singleInputAction) {
+                to.add(singleInputAction);
+            }
+        }
+    }
+
+    /**
+     * Order poses are stored in within a frame
+     */
+    public static ControllerPoses[] poses() {
+        HandsActionSet hands = XrInput.handsActionSet;
+        return new ControllerPoses[]{
+                MCXRPlayClient.viewSpacePoses,
+                hands.gripPoses[0],
+                hands.gripPoses[1],
+                hands.aimPoses[0],
+                hands.aimPoses[1]
+        };
+    }
+
+    public void writeHeader(ByteBuffer buf) {
+        buf.putInt(MAGIC).putInt(VERSION).putInt(frameSize).putInt(fingerprint);
+    }
+
+    /**
+     * @throws IllegalStateException if the header is for a different version or set of actions
+     */
+    public void checkHeader(ByteBuffer buf) {
+        if (buf.getInt() != MAGIC) {
+            throw new IllegalStateException("Not an MCXR input recording");
+        }
+        int version = buf.getInt();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported input recording version " + version);
+        }
+        if (buf.getInt() != frameSize || buf.getInt() != fingerprint) {
+            throw new IllegalStateException("Input recording was made with a different set of actions");
+        }
+    }
+
+    public void writeFrame(ByteBuffer buf, long predictedDisplayTime, ControllerPoses[] poses) {
+        buf.putLong(predictedDisplayTime);
+
+        HandsActionSet hands = XrInput.handsActionSet;
+        int active = (hands.grip.isActive[0] ? 1 : 0)
+                | (hands.grip.isActive[1] ? 2 : 0)
+                | (hands.aim.isActive[0] ? 4 : 0)
+                | (hands.aim.isActive[1] ? 8 : 0);
+        buf.put((byte) active);
+
+        for (var controllerPoses : poses) {
+            Pose pose = controllerPoses.getStagePose();
+            buf.putFloat(pose.pos.x).putFloat(pose.pos.y).putFloat(pose.pos.z);
+            buf.putFloat(pose.orientation.x).putFloat(pose.orientation.y).putFloat(pose.orientation.z).putFloat(pose.orientation.w);
+        }
+
+        for (var action : actions) {
+            int flags = (action.changedSinceLastSync ? FLAG_CHANGED : 0) | (action.isActive ? FLAG_ACTIVE : 0);
+            if (action instanceof BoolAction boolAction) {
+                buf.put((byte) (flags | (boolAction.currentState ? FLAG_STATE : 0)));
+            } else if (action instanceof FloatAction floatAction) {
+                buf.put((byte) flags).putFloat(floatAction.currentState);
+            } else if (action instanceof Vec2fAction vec2fAction) {
+                buf.put((byte) flags).putFloat(vec2fAction.currentState.x).putFloat(vec2fAction.currentState.y);
+            } else {
+                buf.put((byte) flags);
+            }
+        }
+    }
+
+    /**
+     * Reads the poses of a frame into dest and applies its action states
+     *
+     * @return the predicted display time the frame was recorded with
+     */
+    public long readFrame(ByteBuffer buf, Pose[] dest) {
+        long predictedDisplayTime = buf.getLong();
+
+        HandsActionSet hands = XrInput.handsActionSet;
+        int active = buf.get();
+        hands.grip.isActive[0] = (active & 1) != 0;
+        hands.grip.isActive[1] = (active & 2) != 0;
+        hands.aim.isActive[0] = (active & 4) != 0;
+        hands.aim.isActive[1] = (active & 8) != 0;
+
+        for (Pose pose : dest) {
+            pose.pos.set(buf.getFloat(), buf.getFloat(), buf.getFloat());
+            pose.orientation.set(buf.getFloat(), buf.getFloat(), buf.getFloat(), buf.getFloat());
+        }
+
+        for (var action : actions) {
+            int flags = buf.get();
+            boolean changed = (flags & FLAG_CHANGED) != 0;
+            action.changedSinceLastSync = changed;
+            action.isActive = (flags & FLAG_ACTIVE) != 0;
+            if (changed) {
+                action.lastChangeTime = predictedDisplayTime;
+            }
+            if (action instanceof BoolAction boolAction) {
+                boolAction.currentState = (flags & FLAG_STATE) != 0;
+            } else if (action instanceof FloatAction floatAction) {
+                floatAction.currentState = buf.getFloat();
+            } else if (action instanceof Vec2fAction vec2fAction) {
+                vec2fAction.currentState.set(buf.getFloat(), buf.getFloat());
+            }
+        }
+        return predictedDisplayTime;
+    }
+}
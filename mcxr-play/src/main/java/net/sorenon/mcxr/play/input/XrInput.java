@@ -10,6 +10,7 @@ import net.minecraft.world.phys.Vec3;
 import net.minecraft.network.chat.Component;
 import net.sorenon.mcxr.core.JOMLUtil;
 import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseMath;
 import net.sorenon.mcxr.play.MCXRGuiManager;
 import net.sorenon.mcxr.play.MCXRPlayClient;
 import net.sorenon.mcxr.play.PlayOptions;
@@ -25,7 +26,6 @@ import net.sorenon.mcxr.play.openxr.OpenXRSession;
 import net.sorenon.mcxr.play.openxr.XrException;
 import net.sorenon.mcxr.play.openxr.XrRuntimeException;
 import org.joml.Quaterniond;
-import org.joml.Quaternionf;
 import org.joml.Vector3d;
 import org.joml.Vector3f;
 import org.lwjgl.glfw.GLFW;
@@ -206,7 +206,7 @@ public final class XrInput {
                 float delta = (time - lastPollTime) / 1_000_000_000f;
 
                 MCXRPlayClient.stageTurn += Math.toRadians(PlayOptions.smoothTurnRate) * -Math.signum(actionSet.turn.currentState) * delta;
-                Vector3f newPos = new Quaternionf().rotateLocalY(MCXRPlayClient.stageTurn).transform(MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
+                Vector3f newPos = PoseMath.rotateY(MCXRPlayClient.stageTurn, MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
                 Vector3f wantedPos = new Vector3f(MCXRPlayClient.viewSpacePoses.getPhysicalPose().getPos());
 
                 MCXRPlayClient.stagePosition = wantedPos.sub(newPos).mul(1, 0, 1);
@@ -218,7 +218,7 @@ public final class XrInput {
                     turnTime = time;
 
                     MCXRPlayClient.stageTurn += Math.toRadians(PlayOptions.snapTurnAmount) * -Math.signum(actionSet.turn.currentState);
-                    Vector3f newPos = new Quaternionf().rotateLocalY(MCXRPlayClient.stageTurn).transform(MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
+                    Vector3f newPos = PoseMath.rotateY(MCXRPlayClient.stageTurn, MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
                     Vector3f wantedPos = new Vector3f(MCXRPlayClient.viewSpacePoses.getPhysicalPose().getPos());
 
                     MCXRPlayClient.stagePosition = wantedPos.sub(newPos).mul(1, 0, 1);
@@ -238,7 +238,7 @@ public final class XrInput {
                     actionSet.turnActivated = Math.abs(value) > 0.15f;
                 } else if (Math.abs(value) > 0.7f) {
                     MCXRPlayClient.stageTurn += Math.toRadians(PlayOptions.snapTurnAmount) * -Math.signum(value);
-                    Vector3f newPos = new Quaternionf().rotateLocalY(MCXRPlayClient.stageTurn).transform(MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
+                    Vector3f newPos = PoseMath.rotateY(MCXRPlayClient.stageTurn, MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
                     Vector3f wantedPos = new Vector3f(MCXRPlayClient.viewSpacePoses.getPhysicalPose().getPos());
 
                     MCXRPlayClient.stagePosition = wantedPos.sub(newPos).mul(1, 0, 1);
@@ -275,14 +275,14 @@ public final class XrInput {
 
         if (actionSet.turnLeft.currentState && actionSet.turnLeft.changedSinceLastSync) {
             MCXRPlayClient.stageTurn += Math.toRadians(22);
-            Vector3f newPos = new Quaternionf().rotateLocalY(MCXRPlayClient.stageTurn).transform(MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
+            Vector3f newPos = PoseMath.rotateY(MCXRPlayClient.stageTurn, MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
             Vector3f wantedPos = new Vector3f(MCXRPlayClient.viewSpacePoses.getPhysicalPose().getPos());
 
             MCXRPlayClient.stagePosition = wantedPos.sub(newPos).mul(1, 0, 1);
         }
         if (actionSet.turnRight.currentState && actionSet.turnRight.changedSinceLastSync) {
             MCXRPlayClient.stageTurn -= Math.toRadians(22);
-            Vector3f newPos = new Quaternionf().rotateLocalY(MCXRPlayClient.stageTurn).transform(MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
+            Vector3f newPos = PoseMath.rotateY(MCXRPlayClient.stageTurn, MCXRPlayClient.viewSpacePoses.getStagePose().getPos(), new Vector3f());
             Vector3f wantedPos = new Vector3f(MCXRPlayClient.viewSpacePoses.getPhysicalPose().getPos());
 
             MCXRPlayClient.stagePosition = wantedPos.sub(newPos).mul(1, 0, 1);
@@ -426,8 +426,8 @@ public final class XrInput {
         if (FGM.isScreenOpen()) {
             Pose pose = handsActionSet.gripPoses[MCXRPlayClient.getMainHand()].getUnscaledPhysicalPose();
             Vector3d pos = new Vector3d(pose.getPos());
-            Vector3f dir = pose.getOrientation().rotateX((float) Math.toRadians(PlayOptions.handPitchAdjust), new Quaternionf()).transform(new Vector3f(0, -1, 0));
-            Vector3d result = FGM.guiRaycast(pos, new Vector3d(dir));
+            Vector3d dir = PoseMath.handDirection(pose.getOrientation(), (float) Math.toRadians(PlayOptions.handPitchAdjust), new Vector3d());
+            Vector3d result = FGM.guiRaycast(pos, dir);
             if (result != null) {
                 Vector3d vec = result.sub(JOMLUtil.convert(FGM.position));
                 FGM.orientation.invert(new Quaterniond()).transform(vec);
@@ -0,0 +1,17 @@
+package net.sorenon.mcxr.play.mixin.accessor;
+
+import net.minecraft.client.gui.components.ChatComponent;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.util.List;
+
+@Mixin(ChatComponent.class)
+public interface ChatComponentAcc {
+
+    @Accessor()
+    List<?> getAllMessages();
+
+    @Accessor()
+    int getChatScrollbarPos();
+}
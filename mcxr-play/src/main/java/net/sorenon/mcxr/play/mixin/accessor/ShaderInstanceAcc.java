@@ -0,0 +1,26 @@
+package net.sorenon.mcxr.play.mixin.accessor;
+
+import com.mojang.blaze3d.shaders.Uniform;
+import net.minecraft.client.renderer.ShaderInstance;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Mutable;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.util.List;
+
+@Mixin(ShaderInstance.class)
+public interface ShaderInstanceAcc {
+
+    @Accessor
+    List<String> getSamplerNames();
+
+    @Accessor
+    List<Integer> getSamplerLocations();
+
+    @Accessor
+    List<Uniform> getUniforms();
+
+    @Mutable
+    @Accessor
+    void setProgramId(int programId);
+}
@@ -0,0 +1,21 @@
+package net.sorenon.mcxr.play.mixin.gui;
+
+import net.minecraft.client.gui.components.BossHealthOverlay;
+import net.minecraft.network.protocol.game.ClientboundBossEventPacket;
+import net.sorenon.mcxr.play.MCXRPlayClient;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(BossHealthOverlay.class)
+public class BossHealthOverlayMixin {
+
+    /**
+     * Boss bars are added, removed and updated by packets, redraw the GUI whenever one arrives
+     */
+    @Inject(method = "update", at = @At("HEAD"))
+    void bossEvent(ClientboundBossEventPacket packet, CallbackInfo ci) {
+        MCXRPlayClient.INSTANCE.MCXRGuiManager.markDirty();
+    }
+}
@@ -0,0 +1,21 @@
+package net.sorenon.mcxr.play.mixin.gui;
+
+import net.minecraft.client.gui.components.toasts.Toast;
+import net.minecraft.client.gui.components.toasts.ToastComponent;
+import net.sorenon.mcxr.play.MCXRPlayClient;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ToastComponent.class)
+public class ToastComponentMixin {
+
+    /**
+     * Redraw the GUI straight away so a toast doesn't wait for the GUI refresh rate to slide in
+     */
+    @Inject(method = "addToast", at = @At("HEAD"))
+    void toastAdded(Toast toast, CallbackInfo ci) {
+        MCXRPlayClient.INSTANCE.MCXRGuiManager.markDirty();
+    }
+}
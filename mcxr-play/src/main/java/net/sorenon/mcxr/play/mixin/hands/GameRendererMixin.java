@@ -9,9 +9,9 @@ import net.sorenon.mcxr.core.JOMLUtil;
 import net.sorenon.mcxr.core.MCXRCore;
 import net.sorenon.mcxr.play.MCXRPlayClient;
 import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseMath;
 import net.sorenon.mcxr.play.PlayOptions;
 import net.sorenon.mcxr.play.input.XrInput;
-import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.spongepowered.asm.mixin.*;
 import org.spongepowered.asm.mixin.injection.At;
@@ -26,6 +26,9 @@ public class GameRendererMixin {
     @Final
     private Minecraft minecraft;
 
+    @Unique
+    private final Vector3f scratch = new Vector3f();
+
     @Unique
     private boolean enabled() {
         return MCXRCore.getCoreConfig().controllerRaytracing() && MCXRPlayClient.MCXR_GAME_RENDERER.isXrMode();
@@ -37,9 +40,9 @@ public class GameRendererMixin {
             Entity entity = this.minecraft.getCameraEntity();
             Pose pose = XrInput.handsActionSet.gripPoses[MCXRPlayClient.getMainHand()].getMinecraftPose();
             Vec3 pos = JOMLUtil.convert(pose.getPos());
-            Vector3f dir1 = pose.getOrientation().rotateX((float) Math.toRadians(PlayOptions.handPitchAdjust), new Quaternionf()).transform(new Vector3f(0, -1, 0));
-            Vec3 dir = new Vec3(dir1.x, dir1.y, dir1.z);
-            Vec3 endPos = pos.add(dir.scale(this.minecraft.gameMode.getPickRange()));
+            Vector3f dir = PoseMath.handDirection(pose.getOrientation(), (float) Math.toRadians(PlayOptions.handPitchAdjust), scratch);
+            double range = this.minecraft.gameMode.getPickRange();
+            Vec3 endPos = pos.add(dir.x * range, dir.y * range, dir.z * range);
             if(XrInput.lastHit ==null) {
                 this.minecraft.hitResult = entity.level.clip(new ClipContext(pos, endPos, ClipContext.Block.OUTLINE, ClipContext.Fluid.NONE, entity));
             } else{
@@ -66,11 +69,7 @@ public class GameRendererMixin {
     private Vec3 alterDirVec(Vec3 value) {
         if (enabled()) {
             Pose pose = XrInput.handsActionSet.gripPoses[MCXRPlayClient.getMainHand()].getMinecraftPose();
-            return JOMLUtil.convert(
-                    pose.getOrientation()
-                            .rotateX((float) Math.toRadians(PlayOptions.handPitchAdjust), new Quaternionf())
-                            .transform(new Vector3f(0, -1, 0))
-            );
+            return JOMLUtil.convert(PoseMath.handDirection(pose.getOrientation(), (float) Math.toRadians(PlayOptions.handPitchAdjust), scratch));
         } else {
             return value;
         }
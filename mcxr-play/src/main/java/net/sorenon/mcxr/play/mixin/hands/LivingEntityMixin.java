@@ -16,8 +16,6 @@ import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Redirect;
 
-import java.util.Optional;
-
 @Mixin(LivingEntity.class)
 public abstract class LivingEntityMixin extends Entity {
 
@@ -39,9 +37,9 @@ public abstract class LivingEntityMixin extends Entity {
     @Redirect(method = "handleRelativeFrictionAndCalculateMovement", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/entity/LivingEntity;moveRelative(FLnet/minecraft/world/phys/Vec3;)V"))
     public void moveRelativeLand(LivingEntity instance, float speed, Vec3 move) {
         if (isActive()) {
-            Optional<Float> val = PlayOptions.walkDirection.getMCYaw();
-            if (val.isPresent()) {
-                Vec3 inputVector = getInputVector(move, speed, val.get());
+            float val = PlayOptions.walkDirection.getMCYaw();
+            if (!Float.isNaN(val)) {
+                Vec3 inputVector = getInputVector(move, speed, val);
                 this.setDeltaMovement(this.getDeltaMovement().add(inputVector));
                 return;
             }
@@ -52,9 +50,9 @@ public abstract class LivingEntityMixin extends Entity {
     @Redirect(method = "travel", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/entity/LivingEntity;moveRelative(FLnet/minecraft/world/phys/Vec3;)V"))
     public void moveRelativeLiquid(LivingEntity instance, float speed, Vec3 move) {
         if (isActive() && this.isSwimming()) {
-            Optional<Float> val = PlayOptions.swimDirection.getMCYaw();
-            if (val.isPresent()) {
-                Vec3 inputVector = getInputVector(move, speed, val.get());
+            float val = PlayOptions.swimDirection.getMCYaw();
+            if (!Float.isNaN(val)) {
+                Vec3 inputVector = getInputVector(move, speed, val);
                 this.setDeltaMovement(this.getDeltaMovement().add(inputVector));
             } else {
                 this.moveRelative(speed, move);
@@ -78,9 +76,9 @@ public abstract class LivingEntityMixin extends Entity {
     @Redirect(method = "travel", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/entity/LivingEntity;getXRot()F"))
     public float getXRotFlying(LivingEntity instance) {
         if (isActive()) {
-            Optional<Float> val = PlayOptions.flyDirection.getMCPitch();
-            if (val.isPresent()) {
-                return val.get();
+            float val = PlayOptions.flyDirection.getMCPitch();
+            if (!Float.isNaN(val)) {
+                return val;
             }
         }
         return this.getXRot();
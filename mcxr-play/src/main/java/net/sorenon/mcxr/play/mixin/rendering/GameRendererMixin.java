@@ -7,6 +7,10 @@ import net.minecraft.client.Camera;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.world.phys.Vec3;
+import net.sorenon.mcxr.core.JOMLUtil;
+import net.sorenon.mcxr.core.Pose;
 import net.sorenon.mcxr.play.MCXRPlayClient;
 import net.sorenon.mcxr.play.accessor.Matrix4fExt;
 import net.sorenon.mcxr.play.openxr.MCXRGameRenderer;
@@ -95,10 +99,43 @@ public abstract class GameRendererMixin {
         if (XR_RENDERER.renderPass instanceof RenderPass.XrWorld renderPass) {
             Matrix4f proj = new Matrix4f();
             ((Matrix4fExt) (Object) proj).setXrProjection(renderPass.fov, 0.05F, this.getRenderDistance() * 4);
+            if (renderPass.jitterX != 0 || renderPass.jitterY != 0) {
+                Matrix4f jittered = Matrix4f.createTranslateMatrix(renderPass.jitterX, renderPass.jitterY, 0);
+                jittered.multiply(proj);
+                proj = jittered;
+            }
             cir.setReturnValue(proj);
         }
     }
 
+    /**
+     * When both eyes share a culling pass, cull against the centre eye's frustum that covers both of them
+     */
+    @Redirect(method = "renderLevel", at = @At(value = "INVOKE", target = "Lnet/minecraft/client/renderer/LevelRenderer;prepareCullFrustum(Lcom/mojang/blaze3d/vertex/PoseStack;Lnet/minecraft/world/phys/Vec3;Lcom/mojang/math/Matrix4f;)V"))
+    void prepareStereoCullFrustum(LevelRenderer levelRenderer, PoseStack poseStack, Vec3 cameraPos, Matrix4f projection) {
+        if (XR_RENDERER.renderPass instanceof RenderPass.XrWorld renderPass && renderPass.cullFrustum != null) {
+            Pose pose = renderPass.cullFrustum.poses.getMinecraftPose();
+            PoseStack cullStack = new PoseStack();
+            var inv = pose.getOrientation().invert(new Quaternionf());
+            cullStack.mulPose(new Quaternion(inv.x, inv.y, inv.z, inv.w));
+            Matrix4f cullProjection = new Matrix4f();
+            ((Matrix4fExt) (Object) cullProjection).setXrProjection(renderPass.cullFrustum.fov, 0.05F, this.getRenderDistance() * 4);
+            levelRenderer.prepareCullFrustum(cullStack, JOMLUtil.convert(pose.getPos()), cullProjection);
+        } else {
+            levelRenderer.prepareCullFrustum(poseStack, cameraPos, projection);
+        }
+    }
+
+    /**
+     * Hand the final world projection to the stereo pass so it can build the per eye reprojections
+     */
+    @Inject(method = "resetProjectionMatrix", at = @At("HEAD"))
+    void captureStereoProjection(Matrix4f matrix, CallbackInfo ci) {
+        if (XR_RENDERER.renderPass instanceof RenderPass.XrWorld renderPass && renderPass.stereo != null) {
+            renderPass.stereo.setWorldProjection(matrix, 0.05F, this.getRenderDistance() * 4);
+        }
+    }
+
     /**
      * Rotate the matrix stack using a quaternion rather than pitch and yaw
      */
@@ -3,6 +3,7 @@ package net.sorenon.mcxr.play.mixin.rendering;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
 import net.minecraft.client.gui.Gui;
+import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.Entity;
 import net.sorenon.mcxr.play.MCXRPlayClient;
@@ -57,4 +58,22 @@ public class GuiMixin {
     void irisGuiFix(CallbackInfo ci) {
         RenderSystem.enableDepthTest();
     }
+
+    /**
+     * Titles and the action bar aren't part of the HUD state the GUI manager watches, so redraw the GUI as soon as they change
+     */
+    @Inject(method = {"setTitle", "setSubtitle"}, at = @At("HEAD"))
+    void titleChanged(Component text, CallbackInfo ci) {
+        MCXRPlayClient.INSTANCE.MCXRGuiManager.markDirty();
+    }
+
+    @Inject(method = "setOverlayMessage", at = @At("HEAD"))
+    void overlayMessageChanged(Component message, boolean animateColor, CallbackInfo ci) {
+        MCXRPlayClient.INSTANCE.MCXRGuiManager.markDirty();
+    }
+
+    @Inject(method = "clear", at = @At("HEAD"))
+    void titleCleared(CallbackInfo ci) {
+        MCXRPlayClient.INSTANCE.MCXRGuiManager.markDirty();
+    }
 }
@@ -1,12 +1,19 @@
 package net.sorenon.mcxr.play.mixin.rendering;
 
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.client.Camera;
 import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.client.renderer.entity.EntityRenderDispatcher;
+import net.minecraft.world.entity.Entity;
 import net.sorenon.mcxr.play.MCXRPlayClient;
 import net.sorenon.mcxr.play.openxr.MCXRGameRenderer;
+import net.sorenon.mcxr.play.rendering.RenderPass;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(LevelRenderer.class)
@@ -15,6 +22,12 @@ public class LevelRendererMixin {
     @Unique
     private MCXRGameRenderer mcxrGameRenderer = MCXRPlayClient.MCXR_GAME_RENDERER;
 
+    /**
+     * Entities that passed culling in the first eye of a shared culling pass
+     */
+    @Unique
+    private final ReferenceOpenHashSet<Entity> stereoVisibleEntities = new ReferenceOpenHashSet<>();
+
     @Inject(method = "graphicsChanged", at = @At("HEAD"))
     void ongraphicsChanged(CallbackInfo ci) {
         mcxrGameRenderer.reloadingDepth += 1;
@@ -24,4 +37,52 @@ public class LevelRendererMixin {
     void aftergraphicsChanged(CallbackInfo ci) {
         mcxrGameRenderer.reloadingDepth -= 1;
     }
+
+    /**
+     * @return 0 or 1 for the eyes of a shared culling pass, -1 otherwise
+     */
+    @Unique
+    private int sharedCullingEye() {
+        if (mcxrGameRenderer.renderPass instanceof RenderPass.XrWorld renderPass && renderPass.cullFrustum != null) {
+            //A foveated inset renders after its eye's periphery so it always has something to reuse
+            return renderPass.inset ? 1 : renderPass.viewIndex;
+        }
+        return -1;
+    }
+
+    /**
+     * The first eye already walked the section graph against a frustum covering both eyes
+     */
+    @Inject(method = "setupRender", at = @At("HEAD"), cancellable = true)
+    void reuseStereoVisibility(Camera camera, Frustum frustum, boolean hasCapturedFrustum, boolean isSpectator, CallbackInfo ci) {
+        int eye = sharedCullingEye();
+        if (eye == 0) {
+            stereoVisibleEntities.clear();
+        } else if (eye == 1) {
+            ci.cancel();
+        }
+    }
+
+    /**
+     * Chunk rebuilds are scheduled and uploaded once per frame by the first eye
+     */
+    @Inject(method = "compileChunks", at = @At("HEAD"), cancellable = true)
+    void compileChunksOnce(Camera camera, CallbackInfo ci) {
+        if (sharedCullingEye() == 1) {
+            ci.cancel();
+        }
+    }
+
+    @Redirect(method = "renderLevel", at = @At(value = "INVOKE", target = "Lnet/minecraft/client/renderer/entity/EntityRenderDispatcher;shouldRender(Lnet/minecraft/world/entity/Entity;Lnet/minecraft/client/renderer/culling/Frustum;DDD)Z"))
+    boolean shareEntityCulling(EntityRenderDispatcher dispatcher, Entity entity, Frustum frustum, double camX, double camY, double camZ) {
+        int eye = sharedCullingEye();
+        if (eye == 1) {
+            return stereoVisibleEntities.contains(entity);
+        }
+        boolean visible = dispatcher.shouldRender(entity, frustum, camX, camY, camZ);
+        if (visible && eye == 0) {
+            stereoVisibleEntities.add(entity);
+        }
+        return visible;
+    }
 }
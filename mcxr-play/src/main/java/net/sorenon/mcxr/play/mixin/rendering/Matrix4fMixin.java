@@ -6,7 +6,7 @@ import net.sorenon.mcxr.play.MCXRPlayClient;
 import net.sorenon.mcxr.play.accessor.Matrix4fExt;
 import net.sorenon.mcxr.play.openxr.MCXRGameRenderer;
 import net.sorenon.mcxr.play.rendering.RenderPass;
-import org.joml.Math;
+import net.sorenon.mcxr.play.rendering.XrProjection;
 import org.lwjgl.openxr.XrFovf;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -69,32 +69,30 @@ public abstract class Matrix4fMixin implements Matrix4fExt {
     @Shadow
     protected float m33;
 
+    @Unique
+    private static final float[] PROJECTION = new float[16];
+
     @Override
     public void setXrProjection(XrFovf fov, float nearZ, float farZ) {
         Minecraft client = Minecraft.getInstance();
         nearZ = MCXRPlayClient.modifyProjectionMatrixDepth(nearZ, client.getCameraEntity(), client.getFrameTime());
-        float tanLeft = Math.tan(fov.angleLeft());
-        float tanRight = Math.tan(fov.angleRight());
-        float tanDown = Math.tan(fov.angleDown());
-        float tanUp = Math.tan(fov.angleUp());
-        float tanAngleWidth = tanRight - tanLeft;
-        float tanAngleHeight = tanUp - tanDown;
-        m00 = 2.0f / tanAngleWidth;
-        m10 = 0.0f;
-        m20 = 0.0f;
-        m30 = 0.0f;
-        m01 = 0.0f;
-        m11 = 2.0f / tanAngleHeight;
-        m21 = 0.0f;
-        m31 = 0.0f;
-        m02 = (tanRight + tanLeft) / tanAngleWidth;
-        m12 = (tanUp + tanDown) / tanAngleHeight;
-        m22 = -(farZ + nearZ) / (farZ - nearZ);
-        m32 = -1.0f;
-        m03 = 0.0f;
-        m13 = 0.0f;
-        m23 = -(farZ * (nearZ + nearZ)) / (farZ - nearZ);
-        m33 = 0.0f;
+        XrProjection.compute(fov.angleLeft(), fov.angleRight(), fov.angleDown(), fov.angleUp(), nearZ, farZ, PROJECTION);
+        m00 = PROJECTION[0];
+        m10 = PROJECTION[1];
+        m20 = PROJECTION[2];
+        m30 = PROJECTION[3];
+        m01 = PROJECTION[4];
+        m11 = PROJECTION[5];
+        m21 = PROJECTION[6];
+        m31 = PROJECTION[7];
+        m02 = PROJECTION[8];
+        m12 = PROJECTION[9];
+        m22 = PROJECTION[10];
+        m32 = PROJECTION[11];
+        m03 = PROJECTION[12];
+        m13 = PROJECTION[13];
+        m23 = PROJECTION[14];
+        m33 = PROJECTION[15];
     }
 
     @Inject(method = "perspective", cancellable = true, at = @At("HEAD"))
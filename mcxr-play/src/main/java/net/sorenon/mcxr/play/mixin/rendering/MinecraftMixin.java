@@ -222,11 +222,13 @@ public abstract class MinecraftMixin extends ReentrantBlockableEventLoop<Runnabl
                 renderedNormallyLastFrame = false;
             }
         } catch (XrRuntimeException runtimeException) {
-            openXRState.session.close();
+            MCXRPlayClient.MCXR_GAME_RENDERER.setRuntime(null);
+            if (openXRState.session != null) openXRState.session.close();
             openXRState.session = null;
-            MCXRPlayClient.MCXR_GAME_RENDERER.setSession(null);
+            if (openXRState.mockRuntime != null) openXRState.mockRuntime.close();
+            openXRState.mockRuntime = null;
 
-            if (runtimeException.result != XR10.XR_ERROR_SESSION_LOST) {
+            if (runtimeException.result != XR10.XR_ERROR_SESSION_LOST && openXRState.instance != null) {
                 openXRState.instance.close();
                 openXRState.instance = null;
             }
@@ -0,0 +1,34 @@
+package net.sorenon.mcxr.play.mixin.rendering;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.shaders.Program;
+import net.sorenon.mcxr.play.rendering.StereoShaders;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.List;
+
+@Mixin(Program.class)
+public abstract class ProgramMixin {
+
+    @Shadow
+    public abstract int getId();
+
+    /**
+     * Keep the preprocessed source around so a multiview twin can be compiled from it
+     */
+    @Redirect(method = "compileShaderInternal", at = @At(value = "INVOKE", target = "Lcom/mojang/blaze3d/platform/GlStateManager;glShaderSource(ILjava/util/List;)V"))
+    private static void captureSource(int shader, List<String> source) {
+        StereoShaders.captureSource(shader, source);
+        GlStateManager.glShaderSource(shader, source);
+    }
+
+    @Inject(method = "close", at = @At("HEAD"))
+    void releaseSource(CallbackInfo ci) {
+        StereoShaders.releaseSource(this.getId());
+    }
+}
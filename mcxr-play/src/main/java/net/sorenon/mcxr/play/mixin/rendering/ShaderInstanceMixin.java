@@ -0,0 +1,35 @@
+package net.sorenon.mcxr.play.mixin.rendering;
+
+import net.minecraft.client.renderer.ShaderInstance;
+import net.sorenon.mcxr.play.MCXRPlayClient;
+import net.sorenon.mcxr.play.openxr.MCXRGameRenderer;
+import net.sorenon.mcxr.play.rendering.StereoShaders;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ShaderInstance.class)
+public class ShaderInstanceMixin {
+
+    @Unique
+    private static final MCXRGameRenderer XR_RENDERER = MCXRPlayClient.MCXR_GAME_RENDERER;
+
+    @Inject(method = "<init>", at = @At("TAIL"))
+    void createStereoTwin(CallbackInfo ci) {
+        StereoShaders.createTwin((ShaderInstance) (Object) this);
+    }
+
+    @Inject(method = "apply", at = @At("RETURN"))
+    void applyStereo(CallbackInfo ci) {
+        if (XR_RENDERER.stereo != null) {
+            StereoShaders.onApply((ShaderInstance) (Object) this, XR_RENDERER.stereo);
+        }
+    }
+
+    @Inject(method = "close", at = @At("HEAD"))
+    void deleteStereoTwin(CallbackInfo ci) {
+        StereoShaders.deleteTwin((ShaderInstance) (Object) this);
+    }
+}
@@ -34,7 +34,7 @@ public class WindowMixin {
     void getFramebufferWidth(CallbackInfoReturnable<Integer> cir) {
         if (isCustomFramebuffer()) {
             if (mcxrGameRenderer.reloadingDepth > 0) {
-                var swapchain = MCXRPlayClient.OPEN_XR_STATE.session.swapchain;
+                var swapchain = mcxrGameRenderer.getSwapchain();
                 cir.setReturnValue(swapchain.getRenderWidth());
             } else {
                 var mainTarget = Minecraft.getInstance().getMainRenderTarget();
@@ -47,7 +47,7 @@ public class WindowMixin {
     void getFramebufferHeight(CallbackInfoReturnable<Integer> cir) {
         if (isCustomFramebuffer()) {
             if (mcxrGameRenderer.reloadingDepth > 0) {
-                var swapchain = MCXRPlayClient.OPEN_XR_STATE.session.swapchain;
+                var swapchain = mcxrGameRenderer.getSwapchain();
                 cir.setReturnValue(swapchain.getRenderHeight());
             } else {
                 var mainTarget = Minecraft.getInstance().getMainRenderTarget();
@@ -30,6 +30,8 @@ public class GameRendererMixin {
             loadingShaders.add(Pair.of(new ShaderInstance(manager, "blit_screen_mcxr", DefaultVertexFormat.BLIT_SCREEN), (shader) -> MCXRPlayClient.MCXR_GAME_RENDERER.blitShader = shader));
             loadingShaders.add(Pair.of(new ShaderInstance(manager, "blit_screen_mcxr_srgb", DefaultVertexFormat.BLIT_SCREEN), (shader) -> MCXRPlayClient.MCXR_GAME_RENDERER.blitShaderSRGB = shader));
             loadingShaders.add(Pair.of(new ShaderInstance(manager, "gui_blit_screen_mcxr", DefaultVertexFormat.BLIT_SCREEN), (shader) -> MCXRPlayClient.MCXR_GAME_RENDERER.guiBlitShader = shader));
+            loadingShaders.add(Pair.of(new ShaderInstance(manager, "overlay_mcxr", DefaultVertexFormat.BLIT_SCREEN), (shader) -> MCXRPlayClient.MCXR_GAME_RENDERER.overlayShader = shader));
+            loadingShaders.add(Pair.of(new ShaderInstance(manager, "taa_mcxr", DefaultVertexFormat.BLIT_SCREEN), (shader) -> MCXRPlayClient.MCXR_GAME_RENDERER.taaShader = shader));
         } catch (IOException e) {
             throw new RuntimeException("[MCXR] Could not load custom shaders", e);
         }
@@ -0,0 +1,94 @@
+package net.sorenon.mcxr.play.openxr;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.lwjgl.openxr.XR10;
+import org.lwjgl.openxr.XrFrameState;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Calls xrWaitFrame on its own thread so the render thread can tick the game and swap the mirror window while the runtime
+ * holds the next frame back
+ * <p>
+ * Only one wait is ever in flight and it is always started and collected by the render thread inside
+ * {@link MCXRGameRenderer#renderFrame}, so xrBeginFrame and xrEndFrame stay ordered after their xrWaitFrame.
+ * The semaphores hand the frame state between the threads.
+ */
+public class FrameScheduler implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final XrRuntime runtime;
+    private final Thread thread;
+    private final Semaphore requested = new Semaphore(0);
+    private final Semaphore released = new Semaphore(0);
+    private final XrFrameState frameState = XrFrameState.calloc().type(XR10.XR_TYPE_FRAME_STATE);
+
+    private volatile boolean running = true;
+    private RuntimeException failure;
+    private boolean inFlight = false;
+
+    public FrameScheduler(XrRuntime runtime) {
+        this.runtime = runtime;
+        this.thread = new Thread(this::run, "MCXR Frame Wait");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void run() {
+        while (true) {
+            requested.acquireUninterruptibly();
+            if (!running) {
+                return;
+            }
+            try {
+                runtime.waitFrame(frameState);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            released.release();
+        }
+    }
+
+    /**
+     * Starts waiting on the next frame, does nothing if a wait is already in flight
+     */
+    public void requestFrame() {
+        if (!inFlight) {
+            inFlight = true;
+            requested.release();
+        }
+    }
+
+    /**
+     * Blocks until the runtime releases the requested frame, requesting it first if needed
+     */
+    public void awaitFrame(XrFrameState dest) {
+        requestFrame();
+        released.acquireUninterruptibly();
+        inFlight = false;
+        if (failure != null) {
+            RuntimeException e = failure;
+            failure = null;
+            throw e;
+        }
+        dest.set(frameState);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        requested.release();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            //Still stuck in xrWaitFrame, leak the frame state rather than free it under the runtime
+            LOGGER.warn("Frame wait thread did not stop");
+            return;
+        }
+        frameState.free();
+    }
+}
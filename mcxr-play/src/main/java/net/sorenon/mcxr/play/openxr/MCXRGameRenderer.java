@@ -13,27 +13,19 @@ import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.player.LocalPlayer;
-import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.client.renderer.ShaderInstance;
-import net.minecraft.client.renderer.texture.AbstractTexture;
-import net.minecraft.client.renderer.texture.TextureAtlasSprite;
-import net.minecraft.client.renderer.texture.TextureManager;
-import net.minecraft.core.BlockPos;
 import net.minecraft.network.FriendlyByteBuf;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.Mth;
-import net.minecraft.world.effect.MobEffects;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.HumanoidArm;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.inventory.InventoryMenu;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.border.WorldBorder;
 import net.sorenon.mcxr.core.JOMLUtil;
 import net.sorenon.mcxr.core.MCXRCore;
+import net.sorenon.mcxr.core.MCXRMetrics;
 import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseMath;
+import net.sorenon.mcxr.core.PoseStreamConfig;
 import net.sorenon.mcxr.core.Teleport;
 import net.sorenon.mcxr.core.accessor.PlayerExt;
 import net.sorenon.mcxr.core.client.MCXRCoreClient;
@@ -42,24 +34,35 @@ import net.sorenon.mcxr.play.MCXRGuiManager;
 import net.sorenon.mcxr.play.MCXRPlayClient;
 import net.sorenon.mcxr.play.PlayOptions;
 import net.sorenon.mcxr.play.accessor.MinecraftExt;
+import net.sorenon.mcxr.play.input.InputPlayback;
 import net.sorenon.mcxr.play.input.XrInput;
+import net.sorenon.mcxr.play.mixin.accessor.RenderTargetAcc;
+import net.sorenon.mcxr.play.rendering.AntiAliasing;
+import net.sorenon.mcxr.play.rendering.AntiAliasingStage;
+import net.sorenon.mcxr.play.rendering.DynamicResolution;
+import net.sorenon.mcxr.play.rendering.EyeOverlays;
+import net.sorenon.mcxr.play.rendering.FoveatedEyes;
 import net.sorenon.mcxr.play.rendering.MCXRCamera;
+import net.sorenon.mcxr.play.rendering.MultiviewStereo;
 import net.sorenon.mcxr.play.rendering.RenderPass;
+import net.sorenon.mcxr.play.rendering.StereoFrustum;
+import net.sorenon.mcxr.play.rendering.StereoShaders;
 import net.sorenon.mcxr.play.rendering.XrRenderTarget;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.lwjgl.PointerBuffer;
 import org.lwjgl.glfw.GLFW;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
 import org.lwjgl.openxr.*;
 import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
 import org.lwjgl.system.Struct;
 
-import java.nio.IntBuffer;
-
 import static net.minecraft.client.Minecraft.ON_OSX;
-import static org.lwjgl.system.MemoryStack.stackCallocInt;
 import static org.lwjgl.system.MemoryStack.stackPush;
 
 public class MCXRGameRenderer {
@@ -69,13 +72,33 @@ public class MCXRGameRenderer {
     private MainTarget mainRenderTarget;
     private MCXRCamera camera;
 
-    private OpenXRInstance instance;
-    private OpenXRSession session;
+    private XrRuntime runtime;
+    @Nullable
+    private FrameScheduler frameScheduler;
+    private boolean tickedAhead = false;
+    private long lastDisplayTime = 0;
+    private long lastDisplayPeriod = 0;
+    @Nullable
+    public MultiviewStereo stereo;
+    private final StereoFrustum stereoFrustum = new StereoFrustum();
+    private final EyeOverlays eyeOverlays = new EyeOverlays();
+    private final FoveatedEyes foveatedEyes = new FoveatedEyes();
+    @Nullable
+    private XrView.Buffer latchedViews;
+    @Nullable
+    private OpenXRSwapchain guiSwapchain;
+    @Nullable
+    private Struct guiLayer;
+    private boolean guiLayerActive = false;
+    public final DynamicResolution dynamicResolution = new DynamicResolution();
+    public final AntiAliasingStage antiAliasing = new AntiAliasingStage();
 
     public RenderPass renderPass = RenderPass.VANILLA;
     public ShaderInstance blitShader;
     public ShaderInstance blitShaderSRGB;
     public ShaderInstance guiBlitShader;
+    public ShaderInstance overlayShader;
+    public ShaderInstance taaShader;
 
     private boolean xrDisabled = false;
     private boolean xrReady = true;
@@ -91,17 +114,57 @@ public class MCXRGameRenderer {
         camera = (MCXRCamera) client.gameRenderer.getMainCamera();
     }
 
-    public void setSession(OpenXRSession session) {
-        this.session = session;
-        if (session != null) {
-            this.instance = session.instance;
-        } else {
-            this.instance = null;
+    /**
+     * Must be called with null before the old runtime is closed, so the frame wait thread is stopped while the session still exists
+     */
+    public void setRuntime(XrRuntime runtime) {
+        if (frameScheduler != null) {
+            frameScheduler.close();
+            frameScheduler = null;
+        }
+        if (guiSwapchain != null) {
+            guiSwapchain.close();
+            guiSwapchain = null;
+        }
+        guiLayerActive = false;
+        if (latchedViews != null) {
+            latchedViews.free();
+            latchedViews = null;
+        }
+        this.runtime = runtime;
+        if (runtime != null && PlayOptions.pipelinedFrames) {
+            frameScheduler = new FrameScheduler(runtime);
         }
     }
 
+    @Nullable
+    public XrRuntime getRuntime() {
+        return runtime;
+    }
+
+    @Nullable
+    public OpenXRSwapchain getSwapchain() {
+        return runtime == null ? null : runtime.getSwapchain();
+    }
+
+    /**
+     * @return true if the GUI panel is shown as a quad layer this frame, so the world passes shouldn't draw it
+     */
+    public boolean isGuiLayerActive() {
+        return guiLayerActive;
+    }
+
     public boolean isXrMode() {
-        return Minecraft.getInstance().level != null && session != null && session.running && xrReady && !xrDisabled;
+        return Minecraft.getInstance().level != null && runtime != null && runtime.isRunning() && xrReady && !xrDisabled;
+    }
+
+    /**
+     * Starts waiting on the next frame on the wait thread when frames are pipelined, so the caller can poll input while it waits
+     */
+    public void requestFrame() {
+        if (frameScheduler != null) {
+            frameScheduler.requestFrame();
+        }
     }
 
     public void renderFrame(boolean xrDisabled) {
@@ -113,30 +176,57 @@ public class MCXRGameRenderer {
         try (MemoryStack stack = stackPush()) {
             var frameState = XrFrameState.calloc(stack).type(XR10.XR_TYPE_FRAME_STATE);
 
-            if (isXrMode()) {
-                GLFW.glfwSwapBuffers(Minecraft.getInstance().getWindow().getWindow());
+            if (frameScheduler != null) {
+                //The runtime holds the frame back on the wait thread while input is polled, the mirror is swapped and the game ticks
+                frameScheduler.requestFrame();
+                if (isXrMode()) {
+                    GLFW.glfwSwapBuffers(Minecraft.getInstance().getWindow().getWindow());
+                    if (!xrDisabled && lastDisplayPeriod > 0) {
+                        this.overrideWindowSize = true;
+                        tickGame(lastDisplayTime + lastDisplayPeriod);
+                        this.overrideWindowSize = false;
+                        tickedAhead = true;
+                    }
+                }
+                long waitStart = System.nanoTime();
+                frameScheduler.awaitFrame(frameState);
+                MCXRMetrics.CLIENT_FRAME_WAIT_NANOS.record(System.nanoTime() - waitStart);
+            } else {
+                if (isXrMode()) {
+                    GLFW.glfwSwapBuffers(Minecraft.getInstance().getWindow().getWindow());
+                }
+                long waitStart = System.nanoTime();
+                runtime.waitFrame(frameState);
+                MCXRMetrics.CLIENT_FRAME_WAIT_NANOS.record(System.nanoTime() - waitStart);
             }
-            //TODO tick game and poll input during xrWaitFrame (this might not work due to the gl context belonging to the xrWaitFrame thread)
-            instance.checkPanic(XR10.xrWaitFrame(
-                    session.handle,
-                    XrFrameWaitInfo.calloc(stack).type(XR10.XR_TYPE_FRAME_WAIT_INFO),
-                    frameState
-            ), "xrWaitFrame");
+            lastDisplayTime = frameState.predictedDisplayTime();
+            lastDisplayPeriod = frameState.predictedDisplayPeriod();
 
             xrReady = frameState.shouldRender();
+            if (frameState.predictedDisplayPeriod() > 0) {
+                MCXRCoreClient.INSTANCE.displayRefreshRate = (int) Math.round(1_000_000_000.0 / frameState.predictedDisplayPeriod());
+            }
 
-            instance.checkPanic(XR10.xrBeginFrame(
-                    session.handle,
-                    XrFrameBeginInfo.calloc(stack).type(XR10.XR_TYPE_FRAME_BEGIN_INFO)
-            ), "xrBeginFrame");
+            runtime.beginFrame();
 
-            PointerBuffer layers = stack.callocPointer(1);
+            PointerBuffer layers = stack.callocPointer(2);
 
+            long renderStart = System.nanoTime();
             if (frameState.shouldRender()) {
                 if (this.isXrMode() && !xrDisabled) {
+                    dynamicResolution.beginFrame();
+                    antiAliasing.beginFrame();
                     var layer = renderXrGame(frameState.predictedDisplayTime(), stack);
+                    dynamicResolution.endFrame(System.nanoTime() - renderStart, frameState.predictedDisplayPeriod());
                     if (layer != null) {
                         layers.put(layer.address());
+                        if (guiLayer != null) {
+                            layers.put(guiLayer.address());
+                        }
+                    }
+                    guiLayer = null;
+                    if (MCXRPlayClient.INPUT_RECORDER != null) {
+                        MCXRPlayClient.INPUT_RECORDER.record(frameState.predictedDisplayTime());
                     }
                 } else {
                     var layer = renderBlankLayer(frameState.predictedDisplayTime(), stack);
@@ -144,17 +234,14 @@ public class MCXRGameRenderer {
                 }
             }
             layers.flip();
+            tickedAhead = false;
+            MCXRMetrics.CLIENT_FRAME_RENDER_NANOS.record(System.nanoTime() - renderStart);
 
-            int result = XR10.xrEndFrame(
-                    session.handle,
-                    XrFrameEndInfo.calloc(stack)
-                            .type(XR10.XR_TYPE_FRAME_END_INFO)
-                            .displayTime(frameState.predictedDisplayTime())
-                            .environmentBlendMode(XR10.XR_ENVIRONMENT_BLEND_MODE_OPAQUE)
-                            .layers(layers)
-            );
+            long submitStart = System.nanoTime();
+            int result = runtime.endFrame(frameState.predictedDisplayTime(), layers);
+            MCXRMetrics.CLIENT_FRAME_SUBMIT_NANOS.record(System.nanoTime() - submitStart);
             if (result != XR10.XR_ERROR_TIME_INVALID) {
-                instance.checkPanic(result, "xrEndFrame");
+                runtime.checkPanic(result, "xrEndFrame");
             } else {
                 LOGGER.warn("Rendering frame took too long! (probably)");
             }
@@ -165,21 +252,7 @@ public class MCXRGameRenderer {
 //        try (MemoryStack stack = stackPush()) {
         this.overrideWindowSize = true;
 
-        XrViewState viewState = XrViewState.calloc(stack).type(XR10.XR_TYPE_VIEW_STATE);
-        IntBuffer intBuf = stackCallocInt(1);
-
-        XrViewLocateInfo viewLocateInfo = XrViewLocateInfo.calloc(stack);
-        viewLocateInfo.set(XR10.XR_TYPE_VIEW_LOCATE_INFO,
-                0,
-                session.viewConfigurationType,
-                predictedDisplayTime,
-                session.xrAppSpace
-        );
-
-        instance.checkPanic(XR10.xrLocateViews(session.handle, viewLocateInfo, viewState, intBuf, session.viewBuffer), "xrLocateViews");
-
-        if ((viewState.viewStateFlags() & XR10.XR_VIEW_STATE_POSITION_VALID_BIT) == 0 ||
-                (viewState.viewStateFlags() & XR10.XR_VIEW_STATE_ORIENTATION_VALID_BIT) == 0) {
+        if (!runtime.locateViews(predictedDisplayTime)) {
             LOGGER.error("Invalid headset position, try restarting your device");
             return null;
         }
@@ -194,52 +267,9 @@ public class MCXRGameRenderer {
 
         long frameStartTime = Util.getNanos();
 
-        //Ticks the game
-        clientExt.preRender(true, () -> {
-            //Pre-tick
-            //Update poses for tick
-            updatePoses(camera.getEntity(), false, predictedDisplayTime, 1.0f, MCXRPlayClient.getCameraScale());
-
-            //Update the server-side player poses
-            if (Minecraft.getInstance().player != null && MCXRCore.getCoreConfig().supportsMCXR()) {
-                Player player = Minecraft.getInstance().player;
-                PlayerExt acc = (PlayerExt) player;
-                if (!acc.isXR()) {
-                    FriendlyByteBuf buf = PacketByteBufs.create();
-                    buf.writeBoolean(true);
-                    ClientPlayNetworking.send(MCXRCore.IS_XR_PLAYER, buf);
-                    acc.setIsXr(true);
-                }
-                MCXRCoreClient.INSTANCE.setPlayerPoses(
-                        Minecraft.getInstance().player,
-                        MCXRPlayClient.viewSpacePoses.getMinecraftPose(),
-                        XrInput.handsActionSet.gripPoses[0].getMinecraftPose(),
-                        XrInput.handsActionSet.gripPoses[1].getMinecraftPose(),
-//                        MCXRPlayClient.viewSpacePoses.getMinecraftPose().getPos().y - (float) player.position().y,
-                        (float) Math.toRadians(PlayOptions.handPitchAdjust)
-                );
-
-                if (XrInput.teleport) {
-                    XrInput.teleport = false;
-                    int handIndex = 0;
-                    if (player.getMainArm() == HumanoidArm.LEFT) {
-                        handIndex = 1;
-                    }
-
-                    Pose pose = XrInput.handsActionSet.gripPoses[handIndex].getMinecraftPose();
-
-                    Vector3f dir = pose.getOrientation().rotateX((float) java.lang.Math.toRadians(PlayOptions.handPitchAdjust), new Quaternionf()).transform(new Vector3f(0, -1, 0));
-
-                    var pos = Teleport.tp(player, JOMLUtil.convert(pose.getPos()), JOMLUtil.convert(dir));
-                    if (pos != null) {
-                        ClientPlayNetworking.send(MCXRCore.TELEPORT, PacketByteBufs.empty());
-                        player.setPos(pos);
-                    }
-                }
-            } else {
-                XrInput.teleport = false;
-            }
-        });
+        if (!tickedAhead) {
+            tickGame(predictedDisplayTime);
+        }
 
         Entity cameraEntity = this.client.getCameraEntity() == null ? this.client.player : this.client.getCameraEntity();
         boolean calculate = false;
@@ -260,38 +290,80 @@ public class MCXRGameRenderer {
         client.getProfiler().pop();
 
         //Render GUI
-        this.guiMode = true;
         XrInput.postTick(predictedDisplayTime);
-        clientExt.doRender(true, frameStartTime, RenderPass.GUI);
-        this.guiMode = false;
+        boolean guiDrawn = FGM.shouldDraw(frameStartTime);
+        if (guiDrawn) {
+            this.guiMode = true;
+            clientExt.doRender(true, frameStartTime, RenderPass.GUI);
+            this.guiMode = false;
+
+            FGM.guiPostProcessRenderTarget.bindWrite(true);
+            this.guiBlitShader.setSampler("DiffuseSampler", FGM.guiRenderTarget.getColorTextureId());
+            this.guiBlitShader.setSampler("DepthSampler", FGM.guiRenderTarget.getDepthTextureId());
+            this.blit(FGM.guiPostProcessRenderTarget, guiBlitShader);
+            FGM.guiPostProcessRenderTarget.unbindWrite();
+        }
 
-        FGM.guiPostProcessRenderTarget.bindWrite(true);
-        this.guiBlitShader.setSampler("DiffuseSampler", FGM.guiRenderTarget.getColorTextureId());
-        this.guiBlitShader.setSampler("DepthSampler", FGM.guiRenderTarget.getDepthTextureId());
-        this.blit(FGM.guiPostProcessRenderTarget, guiBlitShader);
-        FGM.guiPostProcessRenderTarget.unbindWrite();
+        guiLayer = PlayOptions.guiQuadLayer && FGM.position != null ? renderGuiLayer(FGM, guiDrawn, stack) : null;
+        guiLayerActive = guiLayer != null;
 
         //pre-render overlays
 
-        OpenXRSwapchain swapchain = session.swapchain;
+        OpenXRSwapchain swapchain = runtime.getSwapchain();
+        XrView.Buffer views = runtime.getViews();
 
-        if (swapchain.getRenderWidth() != mainRenderTarget.viewWidth || swapchain.getRenderHeight() != mainRenderTarget.viewHeight) {
+        if (swapchain.getRenderWidth() != mainRenderTarget.width || swapchain.getRenderHeight() != mainRenderTarget.height) {
             mainRenderTarget.resize(swapchain.getRenderWidth(), swapchain.getRenderHeight(), ON_OSX);
             client.gameRenderer.resize(swapchain.getRenderWidth(), swapchain.getRenderHeight());
         }
+        //Dynamic resolution renders the eyes into the bottom left of the main target, the window size follows the viewport
+        float viewportScale = dynamicResolution.getViewportScale();
+        mainRenderTarget.viewWidth = Math.max(1, (int) (mainRenderTarget.width * viewportScale));
+        mainRenderTarget.viewHeight = Math.max(1, (int) (mainRenderTarget.height * viewportScale));
+        float uScale = (float) mainRenderTarget.viewWidth / mainRenderTarget.width;
+        float vScale = (float) mainRenderTarget.viewHeight / mainRenderTarget.height;
 
         int swapchainImageIndex = swapchain.acquireImage();
 
+        if (stereo == null && StereoShaders.isSupported()) {
+            stereo = new MultiviewStereo();
+        }
+        //The tick and GUI pass have run since the views were located, so locate them again for the eyes
+        relatchViews(views, predictedDisplayTime);
+        stereoFrustum.update(views, frameUserScale);
+        boolean singlePass = stereo != null && stereo.canRender(views);
+        boolean foveated = !singlePass && FoveatedEyes.canRender();
+        boolean direct = !foveated && canRenderToSwapchain(swapchain, singlePass);
+        if (singlePass) {
+            //Both eyes at once from the centre eye, copied out per eye below
+            RenderPass.XrWorld stereoPass = stereo.setup(views, stereoFrustum, frameUserScale);
+            camera.setPose(stereoPass.eyePoses.getMinecraftPose());
+            stereo.begin(mainRenderTarget, swapchain.hdr);
+            try {
+                clientExt.doRender(true, frameStartTime, stereoPass);
+            } finally {
+                stereo.end(mainRenderTarget);
+            }
+        }
+
+        eyeOverlays.update(client, cameraEntity);
+
         // Render view to the appropriate part of the swapchain image.
         for (int viewIndex = 0; viewIndex < 2; viewIndex++) {
             // Each view has a separate swapchain which is acquired, rendered to, and released.
+            if (!singlePass && viewIndex > 0) {
+                //The culling from the first eye is reused, the stereo frustum's margin covers how far the head moves in one eye
+                relatchViews(views, predictedDisplayTime);
+            }
 
             var subImage = projectionLayerViews.get(viewIndex)
                     .type(XR10.XR_TYPE_COMPOSITION_LAYER_PROJECTION_VIEW)
-                    .pose(session.viewBuffer.get(viewIndex).pose())
-                    .fov(session.viewBuffer.get(viewIndex).fov())
+                    .pose(views.get(viewIndex).pose())
+                    .fov(views.get(viewIndex).fov())
                     .subImage();
-            subImage.swapchain(swapchain.handle);
+            if (swapchain.handle != null) {
+                subImage.swapchain(swapchain.handle);
+            }
             subImage.imageRect().offset().set(0, 0);
             subImage.imageRect().extent().set(swapchain.width, swapchain.height);
             subImage.imageArrayIndex(viewIndex);
@@ -302,13 +374,72 @@ public class MCXRGameRenderer {
             } else {
                 swapchainFramebuffer = swapchain.rightFramebuffers[swapchainImageIndex];
             }
-            RenderPass.XrWorld worldRenderPass = RenderPass.XrWorld.create();
-            worldRenderPass.fov = session.viewBuffer.get(viewIndex).fov();
-            worldRenderPass.eyePoses.updatePhysicalPose(session.viewBuffer.get(viewIndex).pose(), MCXRPlayClient.stageTurn, frameUserScale);
-            worldRenderPass.eyePoses.updateGamePose(MCXRPlayClient.xrOrigin);
-            worldRenderPass.viewIndex = viewIndex;
-            camera.setPose(worldRenderPass.eyePoses.getMinecraftPose());
-            clientExt.doRender(true, frameStartTime, worldRenderPass);
+            RenderPass.XrWorld worldRenderPass = null;
+            if (singlePass) {
+                stereo.copyLayer(viewIndex, direct ? swapchainFramebuffer : mainRenderTarget);
+            } else {
+                worldRenderPass = RenderPass.XrWorld.create();
+                worldRenderPass.fov = views.get(viewIndex).fov();
+                worldRenderPass.eyePoses.updatePhysicalPose(views.get(viewIndex).pose(), MCXRPlayClient.stageTurn, frameUserScale);
+                worldRenderPass.eyePoses.updateGamePose(MCXRPlayClient.xrOrigin);
+                worldRenderPass.viewIndex = viewIndex;
+                worldRenderPass.cullFrustum = stereoFrustum;
+                camera.setPose(worldRenderPass.eyePoses.getMinecraftPose());
+                if (direct) {
+                    //Vanilla renders into whatever the main target points at, so point it at the swapchain image
+                    int mainFrameBufferId = mainRenderTarget.frameBufferId;
+                    int mainColorTextureId = mainRenderTarget.getColorTextureId();
+                    int mainDepthBufferId = mainRenderTarget.getDepthTextureId();
+                    mainRenderTarget.frameBufferId = swapchainFramebuffer.frameBufferId;
+                    ((RenderTargetAcc) mainRenderTarget).setColorTextureId(swapchainFramebuffer.getColorTextureId());
+                    ((RenderTargetAcc) mainRenderTarget).setDepthBufferId(swapchain.getDepthTextureId());
+                    try {
+                        renderEye(worldRenderPass, frameStartTime);
+                    } finally {
+                        mainRenderTarget.frameBufferId = mainFrameBufferId;
+                        ((RenderTargetAcc) mainRenderTarget).setColorTextureId(mainColorTextureId);
+                        ((RenderTargetAcc) mainRenderTarget).setDepthBufferId(mainDepthBufferId);
+                    }
+                } else if (foveated) {
+                    XrFovf fov = views.get(viewIndex).fov();
+                    foveatedEyes.beginPeriphery(mainRenderTarget, viewIndex, fov);
+                    try {
+                        renderEye(worldRenderPass, frameStartTime);
+                    } finally {
+                        foveatedEyes.endPeriphery(mainRenderTarget);
+                    }
+
+                    RenderPass.XrWorld insetRenderPass = RenderPass.XrWorld.create();
+                    insetRenderPass.fov = foveatedEyes.getInsetFov(viewIndex, fov);
+                    insetRenderPass.eyePoses.updatePhysicalPose(views.get(viewIndex).pose(), MCXRPlayClient.stageTurn, frameUserScale);
+                    insetRenderPass.eyePoses.updateGamePose(MCXRPlayClient.xrOrigin);
+                    insetRenderPass.viewIndex = viewIndex;
+                    insetRenderPass.cullFrustum = stereoFrustum;
+                    insetRenderPass.inset = true;
+                    foveatedEyes.beginInset(mainRenderTarget);
+                    try {
+                        renderEye(insetRenderPass, frameStartTime);
+                    } finally {
+                        foveatedEyes.endInset(mainRenderTarget);
+                    }
+                } else {
+                    renderEye(worldRenderPass, frameStartTime);
+                }
+            }
+
+            antiAliasing.beginOutput(mainRenderTarget);
+            AntiAliasing antiAliasingMode = AntiAliasingStage.getMode();
+            RenderTarget eyeTarget = mainRenderTarget;
+            float eyeUScale = uScale;
+            float eyeVScale = vScale;
+            if (!direct && antiAliasingMode.isTemporal() && worldRenderPass != null) {
+                eyeTarget = antiAliasing.resolveTemporal(this, taaShader, mainRenderTarget, worldRenderPass, uScale, vScale);
+                eyeUScale = 1;
+                eyeVScale = 1;
+            } else if (foveated) {
+                eyeUScale = foveatedEyes.getPeripheryUScale(mainRenderTarget);
+                eyeVScale = foveatedEyes.getPeripheryVScale(mainRenderTarget);
+            }
 
             swapchainFramebuffer.bindWrite(true);
             ShaderInstance blitShader;
@@ -318,88 +449,235 @@ public class MCXRGameRenderer {
                 blitShader = this.blitShader;
             }
 
-            blitShader.setSampler("DiffuseSampler", mainRenderTarget.getColorTextureId());
+            blitShader.setSampler("DiffuseSampler", eyeTarget.getColorTextureId());
             Uniform inverseScreenSize = blitShader.getUniform("InverseScreenSize");
             if (inverseScreenSize != null) {
-                inverseScreenSize.set(1f / mainRenderTarget.width, 1f / mainRenderTarget.height);
+                inverseScreenSize.set(1f / eyeTarget.width, 1f / eyeTarget.height);
+            }
+            Uniform fxaaQuality = blitShader.getUniform("FxaaQuality");
+            if (fxaaQuality != null) {
+                fxaaQuality.set(antiAliasingMode.fxaaQuality);
             }
 
-            mainRenderTarget.setFilterMode(GlConst.GL_LINEAR);
-            this.blit(swapchainFramebuffer, blitShader);
-
-            //==render to eyes here after eye swapchain.rendertarget is sampled and blit-ed to swapchainFramebuffer (displayed image per eye?)==
-            LocalPlayer player = this.client.player;
-            if (player != null) {
-                //vanilla vignette
-                renderVignette(swapchainFramebuffer, cameraEntity);
-                //portal
-                float g = Mth.lerp(client.getDeltaFrameTime(), player.oPortalTime, player.portalTime);
-                if (g > 0.0F && !player.hasEffect(MobEffects.CONFUSION)) {
-                    renderPortalOverlay(swapchainFramebuffer, g);
-                }
-                //hurt
-                int hurtTime = player.hurtTime;
-                if (hurtTime > 0) {
-                    renderOverlay(swapchainFramebuffer, MCXRPlayClient.id("textures/misc/hurt_vr.png"), 0.4f, 0f, 0f, hurtTime * 0.06f);
-                }
-                //drowning
-                float drownPoint = Mth.clamp(2.5f * (0.7f - (float) player.getAirSupply() / (float) player.getMaxAirSupply()), 0f, 1f);
-                if (drownPoint > 0f) {
-                    renderOverlay(swapchainFramebuffer, MCXRPlayClient.id("textures/misc/vignette_vr.png"), 0.0f, 0.0f, 0.25f, drownPoint * 0.9f);
+            Uniform insetRect = blitShader.getUniform("InsetRect");
+            RenderTarget insetTarget = null;
+            float[] rect = null;
+            if (singlePass && stereo.isFoveated()) {
+                insetTarget = stereo.getInsetTarget();
+                rect = stereo.getInsetRect(viewIndex);
+            } else if (foveated) {
+                insetTarget = foveatedEyes.getInsetTarget();
+                rect = foveatedEyes.getInsetRect(viewIndex);
+            }
+            if (insetTarget != null) {
+                blitShader.setSampler("InsetSampler", insetTarget.getColorTextureId());
+                if (insetRect != null) {
+                    insetRect.set(rect[0] * eyeUScale, rect[1] * eyeVScale, rect[2] * eyeUScale, rect[3] * eyeVScale);
                 }
-                //on fire
-                if (player.isOnFire()) {
-                    renderOverlay(swapchainFramebuffer, MCXRPlayClient.id("textures/misc/vignette_vr.png"), 1f, 0.7f, 0.2f, 0.9f);
+            } else {
+                blitShader.setSampler("InsetSampler", mainRenderTarget.getColorTextureId());
+            }
+
+            if (!direct) {
+                Uniform viewportScaleUniform = blitShader.getUniform("ViewportScale");
+                if (viewportScaleUniform != null) {
+                    viewportScaleUniform.set(eyeUScale, eyeVScale);
                 }
-                //frozen
-                if (player.getTicksFrozen() > 0) {
-                    float freeze = player.getPercentFrozen() * 0.9f;
-                    renderOverlay(swapchainFramebuffer, MCXRPlayClient.id("textures/misc/vignette_vr.png"), 0.85f, 0.85f, 1f, freeze);
+                eyeOverlays.apply(blitShader);
+                mainRenderTarget.setFilterMode(GlConst.GL_LINEAR);
+                this.blit(swapchainFramebuffer, blitShader, eyeUScale, eyeVScale);
+                //The GUI layer copy reuses this shader as a plain copy
+                if (insetRect != null) {
+                    insetRect.set(0f, 0f, 0f, 0f);
                 }
-                //death point
-                float deathPoint = Mth.clamp(2.5f * (0.7f - player.getHealth() / player.getMaxHealth()), 0f, 1f);
-                if (!player.isCreative() && deathPoint > 0f) {
-                    renderOverlay(swapchainFramebuffer, MCXRPlayClient.id("textures/misc/vignette_vr.png"), 0.4f, 0f, 0f, deathPoint * 0.9f);
+                if (viewportScaleUniform != null) {
+                    viewportScaleUniform.set(1f, 1f);
                 }
+                EyeOverlays.clear(blitShader);
+            } else {
+                //Nothing to fold the overlays into, so they get one blended pass of their own
+                eyeOverlays.apply(overlayShader);
+                this.blit(swapchainFramebuffer, overlayShader, 1, 1, true);
             }
 
             swapchainFramebuffer.unbindWrite();
+            antiAliasing.endOutput();
         }
 
         this.overrideWindowSize = false;
 
-        blitToBackbuffer(mainRenderTarget);
+        if (direct) {
+            blitSwapchainToBackbuffer(swapchain.rightFramebuffers[swapchainImageIndex]);
+        } else {
+            blitToBackbuffer(mainRenderTarget);
+        }
+        mainRenderTarget.viewWidth = mainRenderTarget.width;
+        mainRenderTarget.viewHeight = mainRenderTarget.height;
 
-        instance.checkPanic(XR10.xrReleaseSwapchainImage(
-                swapchain.handle,
-                XrSwapchainImageReleaseInfo.calloc(stack)
-                        .type(XR10.XR_TYPE_SWAPCHAIN_IMAGE_RELEASE_INFO)
-        ), "xrReleaseSwapchainImage");
+        swapchain.releaseImage();
 
         camera.setPose(MCXRPlayClient.viewSpacePoses.getMinecraftPose());
         clientExt.postRender();
 
-        return XrCompositionLayerProjection.calloc(stack)
-                .type(XR10.XR_TYPE_COMPOSITION_LAYER_PROJECTION)
-                .space(session.xrAppSpace)
-                .views(projectionLayerViews);
+        return runtime.createProjectionLayer(projectionLayerViews, stack);
 //        }
     }
 
+    /**
+     * Copies the GUI into its own swapchain and places it as a quad layer where the world passes would have drawn it,
+     * so the runtime samples it once at display resolution
+     * While the GUI isn't being redrawn nothing is acquired and the runtime keeps showing the last released image.
+     */
+    @Nullable
+    private Struct renderGuiLayer(MCXRGuiManager FGM, boolean guiDrawn, MemoryStack stack) {
+        if (guiSwapchain == null) {
+            guiSwapchain = runtime.createQuadSwapchain(FGM.guiFramebufferWidth, FGM.guiFramebufferHeight);
+            if (guiSwapchain == null) {
+                return null;
+            }
+            guiDrawn = true;
+        }
+        RenderTarget gui = FGM.guiPostProcessRenderTarget;
+        if (guiDrawn) {
+            XrRenderTarget target = guiSwapchain.leftFramebuffers[guiSwapchain.acquireImage()];
+            if (guiSwapchain.sRGB) {
+                GlStateManager._glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, gui.frameBufferId);
+                GlStateManager._glBindFramebuffer(GL30.GL_DRAW_FRAMEBUFFER, target.frameBufferId);
+                GlStateManager._glBlitFrameBuffer(0, 0, gui.width, gui.height, 0, 0, target.width, target.height, GL11.GL_COLOR_BUFFER_BIT, GL11.GL_NEAREST);
+                GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+            } else {
+                //Linear swapchains need the same conversion as the eyes
+                target.bindWrite(true);
+                blitShader.setSampler("DiffuseSampler", gui.getColorTextureId());
+                Uniform inverseScreenSize = blitShader.getUniform("InverseScreenSize");
+                if (inverseScreenSize != null) {
+                    inverseScreenSize.set(1f / gui.width, 1f / gui.height);
+                }
+                this.blit(target, blitShader);
+                target.unbindWrite();
+            }
+            guiSwapchain.releaseImage();
+        }
+
+        float width = FGM.size;
+        float height = FGM.size * gui.height / gui.width;
+        //The GUI transform is in physical space, undo the stage turn and offset to get back to the runtime's stage space
+        Quaternionf turn = new Quaternionf().rotationY(-MCXRPlayClient.stageTurn);
+        Quaternionf orientation = new Quaternionf((float) FGM.orientation.x, (float) FGM.orientation.y, (float) FGM.orientation.z, (float) FGM.orientation.w);
+        //The world quad hangs up from the GUI position facing -Z, a quad layer is centred on its pose and faces +Z
+        Vector3f centre = orientation.transform(new Vector3f(0, height / 2, 0))
+                .add((float) FGM.position.x, (float) FGM.position.y, (float) FGM.position.z)
+                .sub(MCXRPlayClient.stagePosition);
+        turn.transform(centre);
+        turn.mul(orientation, orientation).rotateY((float) Math.PI);
+
+        XrPosef pose = XrPosef.calloc(stack);
+        pose.position$().set(centre.x, centre.y, centre.z);
+        pose.orientation().set(orientation.x, orientation.y, orientation.z, orientation.w);
+        return runtime.createQuadLayer(guiSwapchain, pose, width, height, stack);
+    }
+
+    /**
+     * Renders one eye of a two pass frame into whatever the main target points at
+     */
+    private void renderEye(RenderPass.XrWorld renderPass, long frameStartTime) {
+        antiAliasing.beginEye(mainRenderTarget, renderPass);
+        try {
+            clientExt.doRender(true, frameStartTime, renderPass);
+        } finally {
+            antiAliasing.endEye(mainRenderTarget);
+        }
+    }
+
+    /**
+     * Locates the views again right before they are rendered, each eye's pose is copied into the projection layer when
+     * that eye renders so the submitted pose always matches the rendered one
+     * The previous poses are kept if tracking was lost in between.
+     */
+    private void relatchViews(XrView.Buffer views, long predictedDisplayTime) {
+        if (!PlayOptions.lateLatching) {
+            return;
+        }
+        if (latchedViews == null || latchedViews.capacity() != views.capacity()) {
+            if (latchedViews != null) {
+                latchedViews.free();
+            }
+            latchedViews = XrView.calloc(views.capacity());
+        }
+        long bytes = (long) views.capacity() * XrView.SIZEOF;
+        MemoryUtil.memCopy(views.address(), latchedViews.address(), bytes);
+        if (!runtime.locateViews(predictedDisplayTime)) {
+            MemoryUtil.memCopy(latchedViews.address(), views.address(), bytes);
+        }
+    }
+
+    /**
+     * Ticks the game, the pre tick updates the poses for the frame that will be displayed at predictedDisplayTime
+     */
+    private void tickGame(long predictedDisplayTime) {
+        clientExt.preRender(true, () -> {
+            //Pre-tick
+            //Update poses for tick
+            updatePoses(camera.getEntity(), false, predictedDisplayTime, 1.0f, MCXRPlayClient.getCameraScale());
+
+            //Update the server-side player poses
+            if (Minecraft.getInstance().player != null && MCXRCore.getCoreConfig().supportsMCXR()) {
+                Player player = Minecraft.getInstance().player;
+                PlayerExt acc = (PlayerExt) player;
+                if (!acc.isXR()) {
+                    FriendlyByteBuf buf = PacketByteBufs.create();
+                    buf.writeBoolean(true);
+                    ClientPlayNetworking.send(MCXRCore.IS_XR_PLAYER, buf);
+                    acc.setIsXr(true);
+                }
+                MCXRCoreClient.INSTANCE.setPlayerPoses(
+                        Minecraft.getInstance().player,
+                        MCXRPlayClient.viewSpacePoses.getMinecraftPose(),
+                        XrInput.handsActionSet.gripPoses[0].getMinecraftPose(),
+                        XrInput.handsActionSet.gripPoses[1].getMinecraftPose(),
+//                        MCXRPlayClient.viewSpacePoses.getMinecraftPose().getPos().y - (float) player.position().y,
+                        (float) Math.toRadians(PlayOptions.handPitchAdjust)
+                );
+
+                if (XrInput.teleport) {
+                    XrInput.teleport = false;
+                    int handIndex = 0;
+                    if (player.getMainArm() == HumanoidArm.LEFT) {
+                        handIndex = 1;
+                    }
+
+                    Pose pose = XrInput.handsActionSet.gripPoses[handIndex].getMinecraftPose();
+
+                    Vector3f dir = PoseMath.handDirection(pose.getOrientation(), (float) java.lang.Math.toRadians(PlayOptions.handPitchAdjust), new Vector3f());
+
+                    var pos = Teleport.tp(player, JOMLUtil.convert(pose.getPos()), JOMLUtil.convert(dir));
+                    if (pos != null) {
+                        FriendlyByteBuf buf = PacketByteBufs.create();
+                        if (MCXRCoreClient.INSTANCE.poseStream.hasFeature(PoseStreamConfig.FEATURE_TELEPORT_DESTINATION)) {
+                            buf.writeDouble(pos.x);
+                            buf.writeDouble(pos.y);
+                            buf.writeDouble(pos.z);
+                        }
+                        ClientPlayNetworking.send(MCXRCore.TELEPORT, buf);
+                        player.setPos(pos);
+                    }
+                }
+            } else {
+                XrInput.teleport = false;
+            }
+        });
+    }
+
     private void updatePoses(Entity camEntity,
                              boolean calculateHeightAdjust,
                              long predictedDisplayTime,
                              float delta,
                              float scale) {
-        if (session.state == XR10.XR_SESSION_STATE_FOCUSED) {
-            for (int i = 0; i < 2; i++) {
-                if (!XrInput.handsActionSet.grip.isActive[i]) {
-                    continue;
-                }
-                session.setPosesFromSpace(XrInput.handsActionSet.grip.spaces[i], predictedDisplayTime, XrInput.handsActionSet.gripPoses[i], scale);
-                session.setPosesFromSpace(XrInput.handsActionSet.aim.spaces[i], predictedDisplayTime, XrInput.handsActionSet.aimPoses[i], scale);
-            }
-            session.setPosesFromSpace(session.xrViewSpace, predictedDisplayTime, MCXRPlayClient.viewSpacePoses, scale);
+        InputPlayback playback = MCXRPlayClient.INPUT_PLAYBACK;
+        if (playback != null && !playback.isFinished()) {
+            playback.applyPoses(scale);
+        } else {
+            runtime.locatePoses(predictedDisplayTime, scale);
         }
 
         if (camEntity != null) { //TODO seriously need to tidy up poses
@@ -451,52 +729,73 @@ public class MCXRGameRenderer {
     }
 
     private Struct renderBlankLayer(long predictedDisplayTime, MemoryStack stack) {
-        IntBuffer intBuf = stackCallocInt(1);
+        runtime.locateViews(predictedDisplayTime);
 
-        instance.checkPanic(XR10.xrLocateViews(
-                session.handle,
-                XrViewLocateInfo.calloc(stack).set(XR10.XR_TYPE_VIEW_LOCATE_INFO,
-                        0,
-                        session.viewConfigurationType,
-                        predictedDisplayTime,
-                        session.xrAppSpace
-                ),
-                XrViewState.calloc(stack).type(XR10.XR_TYPE_VIEW_STATE),
-                intBuf,
-                session.viewBuffer
-        ), "xrLocateViews");
+        OpenXRSwapchain swapchain = runtime.getSwapchain();
+        XrView.Buffer views = runtime.getViews();
+        var projectionLayerViews = XrCompositionLayerProjectionView.calloc(views.capacity(), stack);
 
-        int viewCountOutput = intBuf.get(0);
-
-        var projectionLayerViews = XrCompositionLayerProjectionView.calloc(viewCountOutput);
-
-        int swapchainImageIndex = session.swapchain.acquireImage();
+        int swapchainImageIndex = swapchain.acquireImage();
 
-        for (int viewIndex = 0; viewIndex < viewCountOutput; viewIndex++) {
+        for (int viewIndex = 0; viewIndex < views.capacity(); viewIndex++) {
             XrCompositionLayerProjectionView projectionLayerView = projectionLayerViews.get(viewIndex);
             projectionLayerView.type(XR10.XR_TYPE_COMPOSITION_LAYER_PROJECTION_VIEW);
-            projectionLayerView.pose(session.viewBuffer.get(viewIndex).pose());
-            projectionLayerView.fov(session.viewBuffer.get(viewIndex).fov());
-            projectionLayerView.subImage().swapchain(session.swapchain.handle);
+            projectionLayerView.pose(views.get(viewIndex).pose());
+            projectionLayerView.fov(views.get(viewIndex).fov());
+            if (swapchain.handle != null) {
+                projectionLayerView.subImage().swapchain(swapchain.handle);
+            }
             projectionLayerView.subImage().imageRect().offset().set(0, 0);
-            projectionLayerView.subImage().imageRect().extent().set(session.swapchain.width, session.swapchain.height);
+            projectionLayerView.subImage().imageRect().extent().set(swapchain.width, swapchain.height);
             projectionLayerView.subImage().imageArrayIndex(0);
         }
 
-        session.swapchain.leftFramebuffers[swapchainImageIndex].clear(ON_OSX);
+        swapchain.leftFramebuffers[swapchainImageIndex].clear(ON_OSX);
 
-        instance.checkPanic(XR10.xrReleaseSwapchainImage(
-                session.swapchain.handle,
-                XrSwapchainImageReleaseInfo.calloc(stack).type(XR10.XR_TYPE_SWAPCHAIN_IMAGE_RELEASE_INFO)
-        ), "xrReleaseSwapchainImage");
+        swapchain.releaseImage();
 
-        XrCompositionLayerProjection layer = XrCompositionLayerProjection.calloc(stack).type(XR10.XR_TYPE_COMPOSITION_LAYER_PROJECTION);
-        layer.space(session.xrAppSpace);
-        layer.views(projectionLayerViews);
-        return layer;
+        return runtime.createProjectionLayer(projectionLayerViews, stack);
+    }
+
+    /**
+     * The blit to the swapchain can be skipped when it would only copy: the swapchain stores sRGB like Minecraft,
+     * the eye is the same size as the swapchain image and nothing samples the main target while the world renders
+     */
+    private boolean canRenderToSwapchain(OpenXRSwapchain swapchain, boolean singlePass) {
+        if (!PlayOptions.renderToSwapchain || !swapchain.sRGB) {
+            return false;
+        }
+        if (singlePass && stereo.isFoveated()) {
+            return false;
+        }
+        //FXAA and TAA run in the eye blit that rendering straight into the swapchain skips
+        AntiAliasing antiAliasingMode = AntiAliasingStage.getMode();
+        if (antiAliasingMode.fxaaQuality > 0 || antiAliasingMode.isTemporal()) {
+            return false;
+        }
+        if (mainRenderTarget.width != swapchain.width || mainRenderTarget.height != swapchain.height
+                || mainRenderTarget.viewWidth != mainRenderTarget.width || mainRenderTarget.viewHeight != mainRenderTarget.height) {
+            return false;
+        }
+        return !Minecraft.useShaderTransparency() && !client.levelRenderer.shouldShowEntityOutlines() && client.gameRenderer.currentEffect() == null;
     }
 
     public void blit(RenderTarget framebuffer, ShaderInstance shader) {
+        blit(framebuffer, shader, 1, 1);
+    }
+
+    /**
+     * @param uScale the fraction of the sampled texture's width to stretch over the framebuffer
+     * @param vScale the fraction of the sampled texture's height to stretch over the framebuffer
+     */
+    public void blit(RenderTarget framebuffer, ShaderInstance shader, float uScale, float vScale) {
+        blit(framebuffer, shader, uScale, vScale, false);
+    }
+
+    /**
+     * @param blend draw over the framebuffer with premultiplied alpha instead of replacing it
+     */
+    private void blit(RenderTarget framebuffer, ShaderInstance shader, float uScale, float vScale, boolean blend) {
         PoseStack matrixStack = RenderSystem.getModelViewStack();
         matrixStack.pushPose();
         matrixStack.setIdentity();
@@ -509,7 +808,12 @@ public class MCXRGameRenderer {
         GlStateManager._disableDepthTest();
         GlStateManager._depthMask(false);
         GlStateManager._viewport(0, 0, width, height);
-        GlStateManager._disableBlend();
+        if (blend) {
+            GlStateManager._enableBlend();
+            GlStateManager._blendFunc(GlStateManager.SourceFactor.ONE.value, GlStateManager.SourceFactor.ONE_MINUS_SRC_ALPHA.value);
+        } else {
+            GlStateManager._disableBlend();
+        }
 
         Matrix4f matrix4f = Matrix4f.orthographic((float) width, (float) -height, 1000.0F, 3000.0F);
         RenderSystem.setProjectionMatrix(matrix4f);
@@ -522,14 +826,12 @@ public class MCXRGameRenderer {
         }
 
         shader.apply();
-        float u = (float) framebuffer.viewWidth / (float) framebuffer.width;
-        float v = (float) framebuffer.viewHeight / (float) framebuffer.height;
         Tesselator tessellator = RenderSystem.renderThreadTesselator();
         BufferBuilder bufferBuilder = tessellator.getBuilder();
         bufferBuilder.begin(VertexFormat.Mode.TRIANGLES, DefaultVertexFormat.POSITION_TEX_COLOR);
-        bufferBuilder.vertex(0.0, height * 2, 0.0).uv(0.0F, 1 - v * 2).color(255, 255, 255, 255).endVertex();
-        bufferBuilder.vertex(width * 2, 0.0, 0.0).uv(u * 2, 1).color(255, 255, 255, 255).endVertex();
-        bufferBuilder.vertex(0.0, 0.0, 0.0).uv(0.0F, 1).color(255, 255, 255, 255).endVertex();
+        bufferBuilder.vertex(0.0, height * 2, 0.0).uv(0.0F, -vScale).color(255, 255, 255, 255).endVertex();
+        bufferBuilder.vertex(width * 2, 0.0, 0.0).uv(uScale * 2, vScale).color(255, 255, 255, 255).endVertex();
+        bufferBuilder.vertex(0.0, 0.0, 0.0).uv(0.0F, vScale).color(255, 255, 255, 255).endVertex();
         BufferUploader.draw(bufferBuilder.end());
         shader.clear();
         GlStateManager._depthMask(true);
@@ -587,10 +889,12 @@ public class MCXRGameRenderer {
         Tesselator tessellator = Tesselator.getInstance();
         BufferBuilder bufferBuilder = tessellator.getBuilder();
         bufferBuilder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX_COLOR);
+        float uMax = (float) framebuffer.viewWidth / framebuffer.width;
+        float vMax = (float) framebuffer.viewHeight / framebuffer.height;
         bufferBuilder.vertex(xOff, height - yOff, 0.0).uv(0.0F, 0.0f).color(255, 255, 255, 255).endVertex();
-        bufferBuilder.vertex(width - xOff, height - yOff, 0.0).uv(1, 0.0f).color(255, 255, 255, 255).endVertex();
-        bufferBuilder.vertex(width - xOff, yOff, 0.0).uv(1, 1.0f).color(255, 255, 255, 255).endVertex();
-        bufferBuilder.vertex(xOff, yOff, 0.0).uv(0.0F, 1.0F).color(255, 255, 255, 255).endVertex();
+        bufferBuilder.vertex(width - xOff, height - yOff, 0.0).uv(uMax, 0.0f).color(255, 255, 255, 255).endVertex();
+        bufferBuilder.vertex(width - xOff, yOff, 0.0).uv(uMax, vMax).color(255, 255, 255, 255).endVertex();
+        bufferBuilder.vertex(xOff, yOff, 0.0).uv(0.0F, vMax).color(255, 255, 255, 255).endVertex();
         BufferUploader.draw(bufferBuilder.end());
         shader.clear();
         GlStateManager._depthMask(true);
@@ -599,139 +903,27 @@ public class MCXRGameRenderer {
         matrixStack.popPose();
     }
 
-    private void renderOverlay(RenderTarget framebuffer,
-                               ResourceLocation texture,
-                               float red,
-                               float green,
-                               float blue,
-                               float alpha) {
-        ShaderInstance shader = this.blitShader;//to eye
-
-        TextureManager textureManager = Minecraft.getInstance().getTextureManager();
-        AbstractTexture abstractTexture = textureManager.getTexture(texture);
-
-        shader.setSampler("DiffuseSampler", abstractTexture.getId());
-
-        PoseStack matrixStack = RenderSystem.getModelViewStack();
-        matrixStack.pushPose();
-        matrixStack.setIdentity();
-        RenderSystem.applyModelViewMatrix();
-
-        int width = framebuffer.width;
-        int height = framebuffer.height;
-
-        GlStateManager._colorMask(true, true, true, true);
-        GlStateManager._disableDepthTest();
-        GlStateManager._depthMask(false);
-        GlStateManager._viewport(0, 0, width, height);
-        GlStateManager._enableBlend();
-        GlStateManager._blendFunc(GlStateManager.SourceFactor.SRC_ALPHA.value, GlStateManager.SourceFactor.ONE_MINUS_SRC_ALPHA.value);
-
-        Matrix4f matrix4f = Matrix4f.orthographic((float) width, (float) -height, 1000.0F, 3000.0F);
-        RenderSystem.setProjectionMatrix(matrix4f);
-        if (shader.MODEL_VIEW_MATRIX != null) {
-            shader.MODEL_VIEW_MATRIX.set(Matrix4f.createTranslateMatrix(0.0F, 0.0F, -2000.0F));
-        }
-
-        if (shader.PROJECTION_MATRIX != null) {
-            shader.PROJECTION_MATRIX.set(matrix4f);
-        }
-
-        shader.apply();
-        Tesselator tessellator = RenderSystem.renderThreadTesselator();//Tesselator.getInstance();
-        BufferBuilder bufferBuilder = tessellator.getBuilder();
-        bufferBuilder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX_COLOR);
-        bufferBuilder.vertex(0.0, height, -90.0).uv(0f, 0f).color(red, green, blue, alpha).endVertex();
-        bufferBuilder.vertex(width, height, -90.0).uv(1f, 0f).color(red, green, blue, alpha).endVertex();
-        bufferBuilder.vertex(width, 0.0, -90.0).uv(1f, 1f).color(red, green, blue, alpha).endVertex();
-        bufferBuilder.vertex(0.0, 0.0, -90.0).uv(0f, 1f).color(red, green, blue, alpha).endVertex();
-
-        BufferUploader.draw(bufferBuilder.end());
-        shader.clear();
-        GlStateManager._depthMask(true);
-        GlStateManager._colorMask(true, true, true, true);
-
-        matrixStack.popPose();
-    }
+    /**
+     * Mirrors an eye that was rendered into a swapchain image, the array texture behind it can't go through the blit shader
+     */
+    private void blitSwapchainToBackbuffer(RenderTarget framebuffer) {
+        int width = client.getWindow().getWidth();
+        int height = client.getWindow().getHeight();
 
-    private void renderVignette(RenderTarget framebuffer, Entity entity) {
-        WorldBorder worldBorder = this.client.level.getWorldBorder();
-        float f = (float) worldBorder.getDistanceToBorder(entity);
-        double d = Math.min(
-                worldBorder.getLerpSpeed() * (double) worldBorder.getWarningTime() * 1000.0, Math.abs(worldBorder.getLerpTarget() - worldBorder.getSize())
-        );
-        double e = Math.max(worldBorder.getWarningBlocks(), d);
-        if ((double) f < e) {
-            f = 1.0F - (float) ((double) f / e);
+        //Crop to fill the window the same way blitToBackbuffer does
+        int cropWidth = framebuffer.width;
+        int cropHeight = framebuffer.height;
+        if ((long) width * framebuffer.height > (long) height * framebuffer.width) {
+            cropHeight = (int) ((long) framebuffer.width * height / width);
         } else {
-            f = 0.0F;
-        }
-        if (f > 0.0F) {
-            f = Mth.clamp(f, 0.0F, 1.0F);
-            renderOverlay(framebuffer, new ResourceLocation("textures/misc/vignette_vr.png"), 0f, 0f, 0f, f);
-        } else {
-            float l = LightTexture.getBrightness(entity.level.dimensionType(), entity.level.getMaxLocalRawBrightness(new BlockPos(entity.getX(), entity.getEyeY(), entity.getZ())));
-            float g = Mth.clamp(1.0F - l, 0.0F, 1.0F);
-            renderOverlay(framebuffer, new ResourceLocation("textures/misc/vignette_vr.png"), 0f, 0f, 0f, g);
-        }
-    }
-
-    private void renderPortalOverlay(RenderTarget framebuffer, float nauseaStrength) {
-        if (nauseaStrength < 1.0F) {
-            nauseaStrength *= nauseaStrength;
-            nauseaStrength *= nauseaStrength;
-            nauseaStrength = nauseaStrength * 0.8F;
-        }
-        ShaderInstance shader = this.blitShader;//to eye
-
-        TextureManager textureManager = Minecraft.getInstance().getTextureManager();
-        AbstractTexture abstractTexture = textureManager.getTexture(InventoryMenu.BLOCK_ATLAS);
-
-        shader.setSampler("DiffuseSampler", abstractTexture.getId());
-
-        PoseStack matrixStack = RenderSystem.getModelViewStack();
-        matrixStack.pushPose();
-        matrixStack.setIdentity();
-        RenderSystem.applyModelViewMatrix();
-
-        int width = framebuffer.width;
-        int height = framebuffer.height;
-
-        GlStateManager._colorMask(true, true, true, true);
-        GlStateManager._disableDepthTest();
-        GlStateManager._depthMask(false);
-        GlStateManager._viewport(0, 0, width, height);
-        GlStateManager._enableBlend();
-
-        Matrix4f matrix4f = Matrix4f.orthographic((float) width, (float) -height, 1000.0F, 3000.0F);
-        RenderSystem.setProjectionMatrix(matrix4f);
-        if (shader.MODEL_VIEW_MATRIX != null) {
-            shader.MODEL_VIEW_MATRIX.set(Matrix4f.createTranslateMatrix(0.0F, 0.0F, -2000.0F));
-        }
-
-        if (shader.PROJECTION_MATRIX != null) {
-            shader.PROJECTION_MATRIX.set(matrix4f);
+            cropWidth = (int) ((long) framebuffer.height * width / height);
         }
+        int x = (framebuffer.width - cropWidth) / 2;
+        int y = (framebuffer.height - cropHeight) / 2;
 
-        shader.apply();
-        TextureAtlasSprite textureAtlasSprite = this.client.getBlockRenderer().getBlockModelShaper().getParticleIcon(Blocks.NETHER_PORTAL.defaultBlockState());
-        float f = textureAtlasSprite.getU0();
-        float g = textureAtlasSprite.getV0();
-        float h = textureAtlasSprite.getU1();
-        float i = textureAtlasSprite.getV1();
-        Tesselator tessellator = RenderSystem.renderThreadTesselator();//Tesselator.getInstance();
-        BufferBuilder bufferBuilder = tessellator.getBuilder();
-        bufferBuilder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX_COLOR);
-        bufferBuilder.vertex(0.0, height, -90.0).uv(f, i).color(1f, 1f, 1f, nauseaStrength).endVertex();
-        bufferBuilder.vertex(width, height, -90.0).uv(h, i).color(1f, 1f, 1f, nauseaStrength).endVertex();
-        bufferBuilder.vertex(width, 0.0, -90.0).uv(h, g).color(1f, 1f, 1f, nauseaStrength).endVertex();
-        bufferBuilder.vertex(0.0, 0.0, -90.0).uv(f, g).color(1f, 1f, 1f, nauseaStrength).endVertex();
-
-        BufferUploader.draw(bufferBuilder.end());
-        shader.clear();
-        GlStateManager._depthMask(true);
-        GlStateManager._colorMask(true, true, true, true);
-
-        matrixStack.popPose();
+        GlStateManager._glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, framebuffer.frameBufferId);
+        GlStateManager._glBindFramebuffer(GL30.GL_DRAW_FRAMEBUFFER, 0);
+        GlStateManager._glBlitFrameBuffer(x, y, x + cropWidth, y + cropHeight, 0, 0, width, height, GL11.GL_COLOR_BUFFER_BIT, GL11.GL_LINEAR);
+        GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
     }
 }
@@ -0,0 +1,277 @@
+package net.sorenon.mcxr.play.openxr;
+
+import net.minecraft.client.Minecraft;
+import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseMath;
+import net.sorenon.mcxr.play.MCXRPlayClient;
+import net.sorenon.mcxr.play.PlayOptions;
+import net.sorenon.mcxr.play.input.InputPlayback;
+import net.sorenon.mcxr.play.input.XrInput;
+import net.sorenon.mcxr.play.input.actionsets.HandsActionSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
+import org.lwjgl.opengl.GL21;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.openxr.XR10;
+import org.lwjgl.openxr.XrCompositionLayerProjection;
+import org.lwjgl.openxr.XrCompositionLayerProjectionView;
+import org.lwjgl.openxr.XrCompositionLayerQuad;
+import org.lwjgl.openxr.XrFrameState;
+import org.lwjgl.openxr.XrPosef;
+import org.lwjgl.openxr.XrView;
+import org.lwjgl.system.MemoryStack;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An in-process stand-in for an OpenXR runtime and headset
+ * <p>
+ * Frames are paced at a fixed refresh rate, the eyes are a fixed distance apart around a standing head and the swapchain
+ * images are ordinary array textures that nothing reads, so the whole XR frame loop can run on any machine with a GL
+ * context (including a software one) and no OpenXR loader.
+ * Poses and actions come from an {@link InputPlayback} when one is running, otherwise the head and hands stay still
+ * and no actions are pressed.
+ * <p>
+ * Enabled with {@code -Dmcxr.mockRuntime=true}, see the other {@code mcxr.mock*} properties below.
+ * <p>
+ * With {@code -Dmcxr.mockFrames=N} it doubles as a headless regression check: once N frames of the game have been
+ * rendered (join a world with the usual {@code --server} argument, {@code -Dmcxr.playbackInput} drives the player) the
+ * client exits, or crashes if a frame was waited on but never submitted or a frame in XR mode didn't submit the game.
+ */
+public class MockXrRuntime implements XrRuntime {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    public static final boolean ENABLED = Boolean.getBoolean("mcxr.mockRuntime");
+
+    public static final int REFRESH_RATE = Integer.getInteger("mcxr.mockRefreshRate", 90);
+    public static final int WIDTH = Integer.getInteger("mcxr.mockWidth", 1440);
+    public static final int HEIGHT = Integer.getInteger("mcxr.mockHeight", 1584);
+    public static final int FRAME_LIMIT = Integer.getInteger("mcxr.mockFrames", 0);
+    /**
+     * Use an sRGB swapchain like most runtimes prefer, the eyes and GUI can then be copied without the linear conversion
+     */
+    public static final boolean SRGB = Boolean.getBoolean("mcxr.mockSrgb");
+    private static final int FORMAT = SRGB ? GL21.GL_SRGB8_ALPHA8 : GL11.GL_RGB10_A2;
+
+    private static final int IMAGE_COUNT = 3;
+    private static final float IPD = 0.064f;
+    private static final float EYE_HEIGHT = 1.62f;
+    private static final float FOV_HORIZONTAL = (float) Math.toRadians(45);
+    private static final float FOV_VERTICAL = (float) Math.toRadians(48);
+
+    private final long period = 1_000_000_000L / REFRESH_RATE;
+    private long nextWake;
+
+    private final XrView.Buffer views;
+    private final OpenXRSwapchain swapchain;
+
+    private final Pose head = new Pose();
+    private final Pose[] grip = {new Pose(), new Pose()};
+
+    private long waits = 0;
+    private long frames = 0;
+    private long xrFrames = 0;
+    private long gameFrames = 0;
+    private boolean stopping = false;
+
+    public MockXrRuntime() {
+        views = new XrView.Buffer(OpenXRState.bufferHeap(2, XrView.SIZEOF, XR10.XR_TYPE_VIEW));
+        for (int i = 0; i < 2; i++) {
+            views.get(i).fov().set(-FOV_HORIZONTAL, FOV_HORIZONTAL, FOV_VERTICAL, -FOV_VERTICAL);
+        }
+
+        int[] images = new int[IMAGE_COUNT];
+        GL11.glGenTextures(images);
+        for (int image : images) {
+            GL11.glBindTexture(GL30.GL_TEXTURE_2D_ARRAY, image);
+            GL12.glTexImage3D(GL30.GL_TEXTURE_2D_ARRAY, 0, FORMAT, WIDTH, HEIGHT, 2, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+            GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+            GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        }
+        GL11.glBindTexture(GL30.GL_TEXTURE_2D_ARRAY, 0);
+        swapchain = new OpenXRSwapchain(images, FORMAT, WIDTH, HEIGHT, 2);
+
+        head.pos.set(0, EYE_HEIGHT, 0);
+        for (int i = 0; i < 2; i++) {
+            grip[i].pos.set(i == 0 ? -0.2f : 0.2f, 1.1f, -0.3f);
+            //Point the hands forward once the hand pitch adjustment is applied
+            grip[i].orientation.rotationX((float) Math.toRadians(90 - PlayOptions.handPitchAdjust));
+        }
+
+        nextWake = System.nanoTime();
+        LOGGER.info("Using mock XR runtime: {}x{} per eye at {}Hz{}", WIDTH, HEIGHT, REFRESH_RATE, SRGB ? " with an sRGB swapchain" : "");
+    }
+
+    private static boolean isPlayingBack() {
+        InputPlayback playback = MCXRPlayClient.INPUT_PLAYBACK;
+        return playback != null && !playback.isFinished();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return true;
+    }
+
+    @Override
+    public boolean isFocused() {
+        return true;
+    }
+
+    @Override
+    public boolean pollEvents() {
+        return false;
+    }
+
+    @Override
+    public void pollActions(boolean xrDisabled) {
+        InputPlayback playback = MCXRPlayClient.INPUT_PLAYBACK;
+        if (playback == null || !playback.nextFrame()) {
+            HandsActionSet hands = XrInput.handsActionSet;
+            for (int i = 0; i < 2; i++) {
+                hands.grip.isActive[i] = true;
+                hands.aim.isActive[i] = true;
+            }
+        }
+        XrInput.pollActions();
+    }
+
+    @Override
+    public void waitFrame(XrFrameState frameState) {
+        long now = System.nanoTime();
+        while (now < nextWake) {
+            LockSupport.parkNanos(nextWake - now);
+            now = System.nanoTime();
+        }
+        if (now - nextWake > period) {
+            //Missed at least one whole frame, skip ahead like a compositor would
+            nextWake = now;
+        }
+        nextWake += period;
+        waits++;
+
+        frameState.predictedDisplayTime(nextWake + period);
+        frameState.predictedDisplayPeriod(period);
+        frameState.shouldRender(true);
+    }
+
+    @Override
+    public void beginFrame() {
+    }
+
+    @Override
+    public int endFrame(long displayTime, PointerBuffer layers) {
+        frames++;
+        if (MCXRPlayClient.MCXR_GAME_RENDERER.isXrMode()) {
+            xrFrames++;
+            if (layers.remaining() > 0) {
+                gameFrames++;
+            }
+        }
+        return XR10.XR_SUCCESS;
+    }
+
+    @Override
+    public boolean locateViews(long displayTime) {
+        Pose head = isPlayingBack() ? MCXRPlayClient.viewSpacePoses.getStagePose() : this.head;
+        for (int i = 0; i < 2; i++) {
+            float offset = i == 0 ? -IPD / 2 : IPD / 2;
+            var pose = views.get(i).pose();
+            pose.orientation().set(head.orientation.x, head.orientation.y, head.orientation.z, head.orientation.w);
+            pose.position$().set(
+                    head.pos.x + PoseMath.transformX(head.orientation, offset, 0, 0),
+                    head.pos.y + PoseMath.transformY(head.orientation, offset, 0, 0),
+                    head.pos.z + PoseMath.transformZ(head.orientation, offset, 0, 0)
+            );
+        }
+        return true;
+    }
+
+    @Override
+    public XrView.Buffer getViews() {
+        return views;
+    }
+
+    @Override
+    public void locatePoses(long displayTime, float scale) {
+        HandsActionSet hands = XrInput.handsActionSet;
+        for (int i = 0; i < 2; i++) {
+            hands.gripPoses[i].updatePhysicalPose(grip[i], MCXRPlayClient.stageTurn, scale);
+            hands.aimPoses[i].updatePhysicalPose(grip[i], MCXRPlayClient.stageTurn, scale);
+        }
+        MCXRPlayClient.viewSpacePoses.updatePhysicalPose(head, MCXRPlayClient.stageTurn, scale);
+    }
+
+    @Override
+    public OpenXRSwapchain getSwapchain() {
+        return swapchain;
+    }
+
+    @Override
+    public XrCompositionLayerProjection createProjectionLayer(XrCompositionLayerProjectionView.Buffer views, MemoryStack stack) {
+        return XrCompositionLayerProjection.calloc(stack)
+                .type(XR10.XR_TYPE_COMPOSITION_LAYER_PROJECTION)
+                .views(views);
+    }
+
+    @Override
+    public OpenXRSwapchain createQuadSwapchain(int width, int height) {
+        int[] images = new int[IMAGE_COUNT];
+        GL11.glGenTextures(images);
+        for (int image : images) {
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, image);
+            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, FORMAT, width, height, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        }
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        return new OpenXRSwapchain(images, FORMAT, width, height, 1);
+    }
+
+    /**
+     * Nothing composites the layers, endFrame ignores them
+     */
+    @Override
+    public XrCompositionLayerQuad createQuadLayer(OpenXRSwapchain swapchain, XrPosef pose, float width, float height, MemoryStack stack) {
+        var layer = XrCompositionLayerQuad.calloc(stack)
+                .type(XR10.XR_TYPE_COMPOSITION_LAYER_QUAD)
+                .eyeVisibility(XR10.XR_EYE_VISIBILITY_BOTH)
+                .pose(pose);
+        layer.size().set(width, height);
+        return layer;
+    }
+
+    @Override
+    public void checkPanic(int result, String method) {
+        if (result < 0) {
+            throw new XrRuntimeException(result, method + " returned " + result);
+        }
+    }
+
+    /**
+     * Called after every frame, ends a {@code mcxr.mockFrames} run once enough frames of the game have been rendered
+     */
+    public void checkFrameLimit() {
+        if (FRAME_LIMIT <= 0 || stopping || gameFrames < FRAME_LIMIT) {
+            return;
+        }
+        stopping = true;
+        InputPlayback playback = MCXRPlayClient.INPUT_PLAYBACK;
+        LOGGER.info("Mock runtime rendered {} of {} frames in XR mode ({} submitted, {} waited on, {} frames of input played back)",
+                gameFrames, xrFrames, frames, waits, playback == null ? 0 : playback.getFrame());
+        if (waits != frames || gameFrames != xrFrames) {
+            throw new IllegalStateException("Mock runtime frame count mismatch: waited on " + waits + " submitted " + frames
+                    + ", rendered the game for " + gameFrames + " of " + xrFrames + " frames in XR mode");
+        }
+        Minecraft.getInstance().stop();
+    }
+
+    @Override
+    public void close() {
+        swapchain.close();
+        views.close();
+    }
+}
@@ -2,6 +2,7 @@ package net.sorenon.mcxr.play.openxr;
 
 import net.sorenon.mcxr.play.MCXRPlayClient;
 import net.sorenon.mcxr.play.input.ControllerPoses;
+import net.sorenon.mcxr.play.input.InputPlayback;
 import net.sorenon.mcxr.play.input.actionsets.ActionSet;
 import net.sorenon.mcxr.play.input.actionsets.GuiActionSet;
 import net.sorenon.mcxr.play.input.actionsets.HandsActionSet;
@@ -24,7 +25,7 @@ import java.util.List;
 import static org.lwjgl.system.MemoryStack.stackPush;
 import static org.lwjgl.system.MemoryUtil.NULL;
 
-public class OpenXRSession implements AutoCloseable {
+public class OpenXRSession implements XrRuntime {
     private static final Logger LOGGER = LogManager.getLogger();
 
     public final XrSession handle;
@@ -195,11 +196,18 @@ public class OpenXRSession implements AutoCloseable {
         }
     }
 
+    @Override
     public void pollActions(boolean xrDisabled) {
         if (state != XR10.XR_SESSION_STATE_FOCUSED) {
             return;
         }
 
+        InputPlayback playback = MCXRPlayClient.INPUT_PLAYBACK;
+        if (playback != null && playback.nextFrame()) {
+            XrInput.pollActions();
+            return;
+        }
+
         try (var stack = stackPush()) {
             VanillaGameplayActionSet vcActionSet = XrInput.vanillaGameplayActionSet;
             GuiActionSet guiActionSet = XrInput.guiActionSet;
@@ -233,6 +241,150 @@ public class OpenXRSession implements AutoCloseable {
         XrInput.pollActions();
     }
 
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isFocused() {
+        return state == XR10.XR_SESSION_STATE_FOCUSED;
+    }
+
+    @Override
+    public boolean pollEvents() {
+        return instance.pollEvents();
+    }
+
+    @Override
+    public void waitFrame(XrFrameState frameState) {
+        try (var stack = stackPush()) {
+            instance.checkPanic(XR10.xrWaitFrame(
+                    handle,
+                    XrFrameWaitInfo.calloc(stack).type(XR10.XR_TYPE_FRAME_WAIT_INFO),
+                    frameState
+            ), "xrWaitFrame");
+        }
+    }
+
+    @Override
+    public void beginFrame() {
+        try (var stack = stackPush()) {
+            instance.checkPanic(XR10.xrBeginFrame(
+                    handle,
+                    XrFrameBeginInfo.calloc(stack).type(XR10.XR_TYPE_FRAME_BEGIN_INFO)
+            ), "xrBeginFrame");
+        }
+    }
+
+    @Override
+    public int endFrame(long displayTime, PointerBuffer layers) {
+        try (var stack = stackPush()) {
+            return XR10.xrEndFrame(
+                    handle,
+                    XrFrameEndInfo.calloc(stack)
+                            .type(XR10.XR_TYPE_FRAME_END_INFO)
+                            .displayTime(displayTime)
+                            .environmentBlendMode(XR10.XR_ENVIRONMENT_BLEND_MODE_OPAQUE)
+                            .layers(layers)
+            );
+        }
+    }
+
+    @Override
+    public boolean locateViews(long displayTime) {
+        try (var stack = stackPush()) {
+            XrViewState viewState = XrViewState.calloc(stack).type(XR10.XR_TYPE_VIEW_STATE);
+            XrViewLocateInfo viewLocateInfo = XrViewLocateInfo.calloc(stack).set(
+                    XR10.XR_TYPE_VIEW_LOCATE_INFO,
+                    0,
+                    viewConfigurationType,
+                    displayTime,
+                    xrAppSpace
+            );
+            instance.checkPanic(XR10.xrLocateViews(handle, viewLocateInfo, viewState, stack.callocInt(1), viewBuffer), "xrLocateViews");
+
+            return (viewState.viewStateFlags() & XR10.XR_VIEW_STATE_POSITION_VALID_BIT) != 0 &&
+                    (viewState.viewStateFlags() & XR10.XR_VIEW_STATE_ORIENTATION_VALID_BIT) != 0;
+        }
+    }
+
+    @Override
+    public XrView.Buffer getViews() {
+        return viewBuffer;
+    }
+
+    @Override
+    public void locatePoses(long displayTime, float scale) {
+        if (!isFocused()) {
+            return;
+        }
+        HandsActionSet hands = XrInput.handsActionSet;
+        for (int i = 0; i < 2; i++) {
+            if (!hands.grip.isActive[i]) {
+                continue;
+            }
+            setPosesFromSpace(hands.grip.spaces[i], displayTime, hands.gripPoses[i], scale);
+            setPosesFromSpace(hands.aim.spaces[i], displayTime, hands.aimPoses[i], scale);
+        }
+        setPosesFromSpace(xrViewSpace, displayTime, MCXRPlayClient.viewSpacePoses, scale);
+    }
+
+    @Override
+    public OpenXRSwapchain getSwapchain() {
+        return swapchain;
+    }
+
+    @Override
+    public XrCompositionLayerProjection createProjectionLayer(XrCompositionLayerProjectionView.Buffer views, MemoryStack stack) {
+        return XrCompositionLayerProjection.calloc(stack)
+                .type(XR10.XR_TYPE_COMPOSITION_LAYER_PROJECTION)
+                .space(xrAppSpace)
+                .views(views);
+    }
+
+    @Override
+    public OpenXRSwapchain createQuadSwapchain(int width, int height) {
+        try (MemoryStack stack = stackPush()) {
+            XrSwapchainCreateInfo swapchainCreateInfo = XrSwapchainCreateInfo.calloc(stack).set(
+                    XR10.XR_TYPE_SWAPCHAIN_CREATE_INFO,
+                    NULL,
+                    0,
+                    XR10.XR_SWAPCHAIN_USAGE_COLOR_ATTACHMENT_BIT,
+                    swapchain.format,
+                    1,
+                    width,
+                    height,
+                    1,
+                    1,
+                    1
+            );
+            PointerBuffer handlePointer = stack.callocPointer(1);
+            instance.checkPanic(XR10.xrCreateSwapchain(handle, swapchainCreateInfo, handlePointer), "xrCreateSwapchain");
+            return new OpenXRSwapchain(new XrSwapchain(handlePointer.get(0), handle), this, swapchain.format, width, height, 1);
+        }
+    }
+
+    @Override
+    public XrCompositionLayerQuad createQuadLayer(OpenXRSwapchain swapchain, XrPosef pose, float width, float height, MemoryStack stack) {
+        var layer = XrCompositionLayerQuad.calloc(stack)
+                .type(XR10.XR_TYPE_COMPOSITION_LAYER_QUAD)
+                .layerFlags(XR10.XR_COMPOSITION_LAYER_BLEND_TEXTURE_SOURCE_ALPHA_BIT | XR10.XR_COMPOSITION_LAYER_UNPREMULTIPLIED_ALPHA_BIT)
+                .space(xrAppSpace)
+                .eyeVisibility(XR10.XR_EYE_VISIBILITY_BOTH)
+                .pose(pose);
+        layer.subImage().swapchain(swapchain.handle).imageArrayIndex(0);
+        layer.subImage().imageRect().offset().set(0, 0);
+        layer.subImage().imageRect().extent().set(swapchain.width, swapchain.height);
+        layer.size().set(width, height);
+        return layer;
+    }
+
+    @Override
+    public void checkPanic(int result, String method) {
+        instance.checkPanic(result, method);
+    }
+
     public void setPosesFromSpace(XrSpace handSpace, long time, ControllerPoses result, float scale) {
         try (var stack = stackPush()) {
             XrSpaceLocation space_location = XrSpaceLocation.calloc(stack).type(XR10.XR_TYPE_SPACE_LOCATION);
@@ -21,6 +21,7 @@ import static org.lwjgl.system.MemoryUtil.*;
 public class OpenXRState {
     public OpenXRInstance instance;
     public OpenXRSession session;
+    public MockXrRuntime mockRuntime;
 
     public XrException createException;
 
@@ -61,15 +62,22 @@ public class OpenXRState {
         if (PlayOptions.xrUninitialized) {
             return;
         }
+        if (MockXrRuntime.ENABLED) {
+            if (mockRuntime == null) {
+                mockRuntime = new MockXrRuntime();
+            }
+            MCXRPlayClient.MCXR_GAME_RENDERER.setRuntime(mockRuntime);
+            return;
+        }
         try {
             XR.getFunctionProvider();
         } catch(IllegalStateException exception) {
             XR.create("openxr_loader");
         }
 
+        MCXRPlayClient.MCXR_GAME_RENDERER.setRuntime(null);
         if (session != null) session.close();
         session = null;
-        MCXRPlayClient.MCXR_GAME_RENDERER.setSession(null);
         if (instance != null) instance.close();
         instance = null;
 
@@ -79,7 +87,7 @@ public class OpenXRState {
             session.createXRReferenceSpaces();
             session.createSwapchain();
             XrInput.reinitialize(session);
-            MCXRPlayClient.MCXR_GAME_RENDERER.setSession(session);
+            MCXRPlayClient.MCXR_GAME_RENDERER.setRuntime(session);
         } catch (Exception e) {
             LOGGER.error("Exception caught while initializing OpenXR", e);
             if (e instanceof XrException xrException) {
@@ -157,26 +165,36 @@ public class OpenXRState {
      * @return true if the game should just render normally
      */
     public boolean loop() {
-        if (instance != null && PlayOptions.xrUninitialized) {
+        if ((instance != null || mockRuntime != null) && PlayOptions.xrUninitialized) {
+            MCXRPlayClient.MCXR_GAME_RENDERER.setRuntime(null);
             if (session != null) session.close();
             session = null;
-            MCXRPlayClient.MCXR_GAME_RENDERER.setSession(null);
+            if (mockRuntime != null) mockRuntime.close();
+            mockRuntime = null;
             if (instance != null) instance.close();
             instance = null;
         }
 
-        if (session == null) {
+        XrRuntime runtime = session != null ? session : mockRuntime;
+        if (runtime == null) {
+            if (MCXRPlayClient.INPUT_PLAYBACK != null) {
+                MCXRPlayClient.INPUT_PLAYBACK.stepHeadless();
+            }
             return true;
         }
 
-        if (instance.pollEvents()) {
+        if (runtime.pollEvents()) {
             throw new XrRuntimeException(XR10.XR_ERROR_INSTANCE_LOST, "Instance loss pending");
         }
 
-        if (session.running) {
+        if (runtime.isRunning()) {
             boolean disabled = PlayOptions.xrPaused;
-            session.pollActions(disabled);
+            MCXRPlayClient.MCXR_GAME_RENDERER.requestFrame();
+            runtime.pollActions(disabled);
             MCXRPlayClient.MCXR_GAME_RENDERER.renderFrame(disabled);
+            if (mockRuntime != null) {
+                mockRuntime.checkFrameLimit();
+            }
             return !MCXRPlayClient.MCXR_GAME_RENDERER.isXrMode();
         }
         return true;
@@ -1,21 +1,31 @@
 package net.sorenon.mcxr.play.openxr;
 
 import net.sorenon.mcxr.play.PlayOptions;
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.platform.TextureUtil;
 import net.sorenon.mcxr.play.rendering.XrRenderTarget;
+import org.jetbrains.annotations.Nullable;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL21;
+import org.lwjgl.opengl.GL30;
 import org.lwjgl.opengl.GL31;
 import org.lwjgl.openxr.*;
 import org.lwjgl.system.MemoryStack;
 
 import java.nio.IntBuffer;
 
-import static org.lwjgl.opengl.GL11.glGenTextures;
+import static org.lwjgl.opengl.GL11.glDeleteTextures;
 import static org.lwjgl.system.MemoryStack.*;
 
 public class OpenXRSwapchain implements AutoCloseable {
+    /**
+     * Null when the images are plain GL textures owned by a {@link MockXrRuntime}
+     */
+    @Nullable
     public final XrSwapchain handle;
+    @Nullable
     public final OpenXRInstance instance;
+    @Nullable
     public final OpenXRSession session;
 
     public final int width;
@@ -24,12 +34,23 @@ public class OpenXRSwapchain implements AutoCloseable {
 
     public final int[] arrayImages;
     public final XrRenderTarget[] leftFramebuffers;
+    /**
+     * Null for single layer swapchains, which only have {@link #leftFramebuffers}
+     */
+    @Nullable
     public final XrRenderTarget[] rightFramebuffers;
 
     public final boolean sRGB;
     public final boolean hdr;
 
+    private int nextImage = 0;
+    private int depthTextureId = 0;
+
     public OpenXRSwapchain(XrSwapchain handle, OpenXRSession session, int format, int width, int height) {
+        this(handle, session, format, width, height, 2);
+    }
+
+    public OpenXRSwapchain(XrSwapchain handle, OpenXRSession session, int format, int width, int height, int arraySize) {
         this.handle = handle;
         this.session = session;
         this.instance = session.instance;
@@ -54,27 +75,92 @@ public class OpenXRSwapchain implements AutoCloseable {
             instance.checkPanic(XR10.xrEnumerateSwapchainImages(handle, intBuf, XrSwapchainImageBaseHeader.create(swapchainImageBuffer.address(), swapchainImageBuffer.capacity())), "xrEnumerateSwapchainImages");
 
             this.arrayImages = new int[imageCount];
-            this.leftFramebuffers = new XrRenderTarget[imageCount];
-            this.rightFramebuffers = new XrRenderTarget[imageCount];
-
             for (int i = 0; i < imageCount; i++) {
-                var openxrImage = swapchainImageBuffer.get(i);
-                arrayImages[i] = openxrImage.image();
+                arrayImages[i] = swapchainImageBuffer.get(i).image();
+            }
+        }
+        this.leftFramebuffers = new XrRenderTarget[arrayImages.length];
+        this.rightFramebuffers = arraySize == 2 ? new XrRenderTarget[arrayImages.length] : null;
+        createFramebuffers();
+    }
+
+    /**
+     * A swapchain over textures that never leave the process, 2 layer array textures or plain 2D textures for a single layer
+     */
+    OpenXRSwapchain(int[] arrayImages, int format, int width, int height, int arraySize) {
+        this.handle = null;
+        this.session = null;
+        this.instance = null;
+        this.format = format;
+        this.width = width;
+        this.height = height;
+
+        this.sRGB = format == GL21.GL_SRGB8_ALPHA8 || format == GL21.GL_SRGB8;
+        this.hdr = !sRGB && format != GL11.GL_RGBA8 && format != GL31.GL_RGBA8_SNORM;
+
+        this.arrayImages = arrayImages;
+        this.leftFramebuffers = new XrRenderTarget[arrayImages.length];
+        this.rightFramebuffers = arraySize == 1 ? null : new XrRenderTarget[arrayImages.length];
+        createFramebuffers();
+    }
+
+    private void createFramebuffers() {
+        for (int i = 0; i < arrayImages.length; i++) {
+            if (rightFramebuffers == null) {
+                //Single layer swapchain images are plain 2D textures
+                leftFramebuffers[i] = new XrRenderTarget(width, height, arrayImages[i], -1);
+            } else {
                 leftFramebuffers[i] = new XrRenderTarget(width, height, arrayImages[i], 0);
                 rightFramebuffers[i] = new XrRenderTarget(width, height, arrayImages[i], 1);
             }
         }
     }
 
+    /**
+     * A depth texture shared by every framebuffer of this swapchain, created and attached the first time it is needed
+     * Only one eye is ever being rendered at a time so they can all share it.
+     */
+    public int getDepthTextureId() {
+        if (depthTextureId == 0) {
+            depthTextureId = TextureUtil.generateTextureId();
+            GlStateManager._bindTexture(depthTextureId);
+            GlStateManager._texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
+            GlStateManager._texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+            GlStateManager._texImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_DEPTH_COMPONENT, width, height, 0, GL11.GL_DEPTH_COMPONENT, GL11.GL_FLOAT, (IntBuffer) null);
+            for (int i = 0; i < arrayImages.length; i++) {
+                GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, leftFramebuffers[i].frameBufferId);
+                GlStateManager._glFramebufferTexture2D(GL30.GL_FRAMEBUFFER, GL30.GL_DEPTH_ATTACHMENT, GL11.GL_TEXTURE_2D, depthTextureId, 0);
+                if (rightFramebuffers != null) {
+                    GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, rightFramebuffers[i].frameBufferId);
+                    GlStateManager._glFramebufferTexture2D(GL30.GL_FRAMEBUFFER, GL30.GL_DEPTH_ATTACHMENT, GL11.GL_TEXTURE_2D, depthTextureId, 0);
+                }
+            }
+            GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+        }
+        return depthTextureId;
+    }
+
+    /**
+     * The size the main render target is allocated at, dynamic resolution only ever renders into part of it
+     */
     public int getRenderWidth() {
-        return (int) (width * PlayOptions.SSAA);
+        return (int) (width * getRenderScale());
     }
 
     public int getRenderHeight() {
-        return (int) (height * PlayOptions.SSAA);
+        return (int) (height * getRenderScale());
+    }
+
+    private static float getRenderScale() {
+        return PlayOptions.dynamicResolution ? PlayOptions.SSAA * PlayOptions.dynamicResolutionMax : PlayOptions.SSAA;
     }
 
     int acquireImage() {
+        if (handle == null) {
+            int image = nextImage;
+            nextImage = (nextImage + 1) % arrayImages.length;
+            return image;
+        }
         try (MemoryStack stack = stackPush()) {
             IntBuffer intBuf = stackCallocInt(1);
             instance.checkPanic(XR10.xrAcquireSwapchainImage(
@@ -91,8 +177,28 @@ public class OpenXRSwapchain implements AutoCloseable {
         }
     }
 
+    void releaseImage() {
+        if (handle == null) {
+            return;
+        }
+        try (MemoryStack stack = stackPush()) {
+            instance.checkPanic(XR10.xrReleaseSwapchainImage(
+                    handle,
+                    XrSwapchainImageReleaseInfo.calloc(stack).type(XR10.XR_TYPE_SWAPCHAIN_IMAGE_RELEASE_INFO)
+            ), "xrReleaseSwapchainImage");
+        }
+    }
+
     @Override
     public void close() {
-        XR10.xrDestroySwapchain(handle);
+        if (depthTextureId != 0) {
+            TextureUtil.releaseTextureId(depthTextureId);
+            depthTextureId = 0;
+        }
+        if (handle != null) {
+            XR10.xrDestroySwapchain(handle);
+        } else {
+            glDeleteTextures(arrayImages);
+        }
     }
 }
@@ -0,0 +1,85 @@
+package net.sorenon.mcxr.play.openxr;
+
+import org.jetbrains.annotations.Nullable;
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.openxr.XrCompositionLayerProjection;
+import org.lwjgl.openxr.XrCompositionLayerProjectionView;
+import org.lwjgl.openxr.XrCompositionLayerQuad;
+import org.lwjgl.openxr.XrFrameState;
+import org.lwjgl.openxr.XrPosef;
+import org.lwjgl.openxr.XrView;
+import org.lwjgl.system.MemoryStack;
+
+/**
+ * The XR calls made by the frame loop, so it can be driven by something other than a real OpenXR session
+ * <p>
+ * {@link OpenXRSession} forwards these to the runtime, {@link MockXrRuntime} answers them locally so the whole frame loop
+ * can run without a headset or an OpenXR loader.
+ * All methods are called from the render thread except {@link #waitFrame}, which runs on the "MCXR Frame Wait" thread
+ * when {@link net.sorenon.mcxr.play.PlayOptions#pipelinedFrames} is on. Nothing else calls it then, but it can overlap
+ * {@link #pollActions} and {@link #isRunning} on the render thread, so state shared with those must be thread safe.
+ */
+public interface XrRuntime extends AutoCloseable {
+
+    boolean isRunning();
+
+    boolean isFocused();
+
+    /**
+     * @return true if the instance has been lost and needs to be torn down
+     */
+    boolean pollEvents();
+
+    /**
+     * Syncs the action sets and then runs {@link net.sorenon.mcxr.play.input.XrInput#pollActions}
+     */
+    void pollActions(boolean xrDisabled);
+
+    /**
+     * May be called from the frame wait thread, see above
+     */
+    void waitFrame(XrFrameState frameState);
+
+    void beginFrame();
+
+    /**
+     * @return the result of xrEndFrame, {@link org.lwjgl.openxr.XR10#XR_ERROR_TIME_INVALID} is left to the caller
+     */
+    int endFrame(long displayTime, PointerBuffer layers);
+
+    /**
+     * Locates the eyes into {@link #getViews()}
+     *
+     * @return false if the headset isn't being tracked
+     */
+    boolean locateViews(long displayTime);
+
+    XrView.Buffer getViews();
+
+    /**
+     * Updates the physical poses of the head and every active hand
+     */
+    void locatePoses(long displayTime, float scale);
+
+    OpenXRSwapchain getSwapchain();
+
+    XrCompositionLayerProjection createProjectionLayer(XrCompositionLayerProjectionView.Buffer views, MemoryStack stack);
+
+    /**
+     * Creates a single layer swapchain in the same format as {@link #getSwapchain()} for a quad layer
+     *
+     * @return null if this runtime can't composite quad layers
+     */
+    @Nullable
+    OpenXRSwapchain createQuadSwapchain(int width, int height);
+
+    /**
+     * @param pose the centre of the quad in stage space, the image faces +Z
+     */
+    XrCompositionLayerQuad createQuadLayer(OpenXRSwapchain swapchain, XrPosef pose, float width, float height, MemoryStack stack);
+
+    void checkPanic(int result, String method);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,45 @@
+package net.sorenon.mcxr.play.rendering;
+
+import net.sorenon.mcxr.core.MCXRMetrics;
+
+import java.util.Locale;
+
+/**
+ * The anti-aliasing applied to the eyes, on top of any supersampling from {@link net.sorenon.mcxr.play.PlayOptions#SSAA}
+ */
+public enum AntiAliasing {
+    OFF(0, 0),
+    FXAA_LOW(1, 0),
+    FXAA_MEDIUM(2, 0),
+    FXAA_HIGH(3, 0),
+    MSAA_2X(0, 2),
+    MSAA_4X(0, 4),
+    TAA(0, 0);
+
+    /**
+     * The FXAA tier passed to the eye blit shader, 0 for none
+     */
+    public final int fxaaQuality;
+    public final int msaaSamples;
+    /**
+     * GPU time of each eye's output stage (resolves and the eye blit) while this mode is in use
+     */
+    public final MCXRMetrics.Histogram gpuNanos;
+
+    AntiAliasing(int fxaaQuality, int msaaSamples) {
+        this.fxaaQuality = fxaaQuality;
+        this.msaaSamples = msaaSamples;
+        this.gpuNanos = MCXRMetrics.histogram("client.aa." + name().toLowerCase(Locale.ROOT) + ".eye_gpu_nanos");
+    }
+
+    public boolean isTemporal() {
+        return this == TAA;
+    }
+
+    /**
+     * MSAA and TAA work on a 2D main target per eye, single pass stereo is skipped while they are in use
+     */
+    public boolean needsSeparateEyes() {
+        return msaaSamples > 0 || isTemporal();
+    }
+}
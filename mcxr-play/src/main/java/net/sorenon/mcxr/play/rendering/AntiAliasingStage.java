@@ -0,0 +1,284 @@
+package net.sorenon.mcxr.play.rendering;
+
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import com.mojang.blaze3d.platform.GlConst;
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.shaders.Uniform;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.play.MCXRPlayClient;
+import net.sorenon.mcxr.play.PlayOptions;
+import net.sorenon.mcxr.play.openxr.MCXRGameRenderer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.openxr.XrFovf;
+
+/**
+ * Applies {@link PlayOptions#antiAliasing} to each eye between its world pass and the eye blit
+ * <p>
+ * FXAA runs inside the eye blit shader. MSAA points the main target at a multisampled framebuffer while an eye renders,
+ * then resolves it into whatever the main target pointed at before.
+ * TAA offsets the projection by a different sub-pixel every frame and blends each eye with its own history. The history is
+ * reprojected through the depth buffer using the pose the eye had last frame, so head movement doesn't smear it.
+ * The GPU time of each eye's output (resolves and the eye blit) is recorded per mode in {@link AntiAliasing#gpuNanos}.
+ */
+public class AntiAliasingStage implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final float HISTORY_WEIGHT = 0.9f;
+    private static final int JITTER_PHASES = 8;
+
+    private final GpuTimer timer = new GpuTimer();
+
+    private int maxSamples = -1;
+    private int msaaFrameBufferId = -1;
+    private int msaaColorBufferId = -1;
+    private int msaaDepthBufferId = -1;
+    private int msaaWidth;
+    private int msaaHeight;
+    private int msaaSamples;
+    /**
+     * The framebuffer the main target pointed at before the eye was redirected to the multisampled one
+     */
+    private int resolveFrameBufferId = -1;
+
+    private final TextureTarget[][] history = new TextureTarget[2][2];
+    private final int[] historyIndex = new int[2];
+    private final boolean[] historyValid = new boolean[2];
+    private final float[][] lastProjection = new float[2][16];
+    private final Vector3f[] lastPosition = {new Vector3f(), new Vector3f()};
+    private final Quaternionf[] lastOrientation = {new Quaternionf(), new Quaternionf()};
+    private final float[] projection = new float[16];
+    private final float[] reprojection = new float[16];
+    private int frame = 0;
+
+    /**
+     * @return the mode to use this frame, MSAA falls back to FXAA when it can't be used
+     */
+    public static AntiAliasing getMode() {
+        AntiAliasing mode = PlayOptions.antiAliasing;
+        if (mode.msaaSamples > 0) {
+            Minecraft client = Minecraft.getInstance();
+            //Post chains sample the main target's own textures, which nothing draws into while it points at the multisampled framebuffer
+            if (Minecraft.useShaderTransparency() || client.levelRenderer.shouldShowEntityOutlines() || client.gameRenderer.currentEffect() != null) {
+                return AntiAliasing.FXAA_HIGH;
+            }
+        }
+        return mode;
+    }
+
+    public void beginFrame() {
+        if (!getMode().isTemporal()) {
+            historyValid[0] = false;
+            historyValid[1] = false;
+        }
+        frame = (frame + 1) % JITTER_PHASES;
+    }
+
+    /**
+     * Called right before an eye's world pass
+     */
+    public void beginEye(RenderTarget mainTarget, RenderPass.XrWorld renderPass) {
+        AntiAliasing mode = getMode();
+        if (mode.isTemporal()) {
+            //One pixel is 2 / size wide in clip space
+            renderPass.jitterX = (halton(frame + 1, 2) - 0.5f) * 2f / mainTarget.viewWidth;
+            renderPass.jitterY = (halton(frame + 1, 3) - 0.5f) * 2f / mainTarget.viewHeight;
+        }
+
+        int samples = Math.min(mode.msaaSamples, getMaxSamples());
+        if (samples > 1 && ensureMsaa(mainTarget.width, mainTarget.height, samples)) {
+            resolveFrameBufferId = mainTarget.frameBufferId;
+            mainTarget.frameBufferId = msaaFrameBufferId;
+        }
+    }
+
+    /**
+     * Called right after an eye's world pass, even if it threw
+     */
+    public void endEye(RenderTarget mainTarget) {
+        if (resolveFrameBufferId != -1 && mainTarget.frameBufferId == msaaFrameBufferId) {
+            mainTarget.frameBufferId = resolveFrameBufferId;
+        }
+    }
+
+    /**
+     * Starts timing the eye's output and resolves the multisampled framebuffer if the eye used one
+     */
+    public void beginOutput(RenderTarget mainTarget) {
+        timer.begin(getMode().gpuNanos);
+        if (resolveFrameBufferId != -1) {
+            GlStateManager._glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, msaaFrameBufferId);
+            GlStateManager._glBindFramebuffer(GL30.GL_DRAW_FRAMEBUFFER, resolveFrameBufferId);
+            GlStateManager._glBlitFrameBuffer(0, 0, mainTarget.viewWidth, mainTarget.viewHeight, 0, 0, mainTarget.viewWidth, mainTarget.viewHeight, GL11.GL_COLOR_BUFFER_BIT, GL11.GL_NEAREST);
+            GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+            resolveFrameBufferId = -1;
+        }
+    }
+
+    public void endOutput() {
+        timer.end();
+    }
+
+    /**
+     * Blends the eye with its reprojected history
+     *
+     * @return the target holding the anti-aliased eye, it covers its whole texture unlike the main target's viewport
+     */
+    public RenderTarget resolveTemporal(MCXRGameRenderer renderer, ShaderInstance shader, RenderTarget mainTarget, RenderPass.XrWorld renderPass, float uScale, float vScale) {
+        int eye = renderPass.viewIndex;
+        TextureTarget[] targets = history[eye];
+        if (targets[0] == null || targets[0].width != mainTarget.width || targets[0].height != mainTarget.height) {
+            for (int i = 0; i < 2; i++) {
+                if (targets[i] != null) {
+                    targets[i].destroyBuffers();
+                }
+                targets[i] = new TextureTarget(mainTarget.width, mainTarget.height, false, Minecraft.ON_OSX);
+                targets[i].setFilterMode(GlConst.GL_LINEAR);
+            }
+            historyValid[eye] = false;
+        }
+        TextureTarget previous = targets[historyIndex[eye]];
+        TextureTarget output = targets[1 - historyIndex[eye]];
+
+        //Reprojected without the jitter, it only moves the samples within a pixel
+        Minecraft client = Minecraft.getInstance();
+        XrFovf fov = renderPass.fov;
+        float nearZ = MCXRPlayClient.modifyProjectionMatrixDepth(0.05F, client.getCameraEntity(), client.getFrameTime());
+        XrProjection.compute(fov.angleLeft(), fov.angleRight(), fov.angleDown(), fov.angleUp(), nearZ, client.gameRenderer.getRenderDistance() * 4, projection);
+        Pose pose = renderPass.eyePoses.getMinecraftPose();
+        Vector3f position = pose.getPos();
+        Quaternionf orientation = pose.getOrientation();
+        if (historyValid[eye]) {
+            new Matrix4f().set(lastProjection[eye])
+                    .rotate(lastOrientation[eye].conjugate(new Quaternionf()))
+                    .translate(position.x - lastPosition[eye].x, position.y - lastPosition[eye].y, position.z - lastPosition[eye].z)
+                    .rotate(orientation)
+                    .mul(new Matrix4f().set(projection).invert())
+                    .get(reprojection);
+            set(shader, "Reprojection", reprojection);
+        }
+
+        shader.setSampler("DiffuseSampler", mainTarget.getColorTextureId());
+        shader.setSampler("DepthSampler", mainTarget.getDepthTextureId());
+        shader.setSampler("HistorySampler", previous.getColorTextureId());
+        Uniform inverseScreenSize = shader.getUniform("InverseScreenSize");
+        if (inverseScreenSize != null) {
+            inverseScreenSize.set(1f / mainTarget.width, 1f / mainTarget.height);
+        }
+        Uniform viewportScale = shader.getUniform("ViewportScale");
+        if (viewportScale != null) {
+            viewportScale.set(uScale, vScale);
+        }
+        Uniform historyWeight = shader.getUniform("HistoryWeight");
+        if (historyWeight != null) {
+            historyWeight.set(historyValid[eye] ? HISTORY_WEIGHT : 0f);
+        }
+        output.bindWrite(true);
+        renderer.blit(output, shader, uScale, vScale);
+        output.unbindWrite();
+
+        historyIndex[eye] = 1 - historyIndex[eye];
+        historyValid[eye] = true;
+        System.arraycopy(projection, 0, lastProjection[eye], 0, 16);
+        lastPosition[eye].set(position);
+        lastOrientation[eye].set(orientation);
+        return output;
+    }
+
+    private static void set(ShaderInstance shader, String name, float[] values) {
+        Uniform uniform = shader.getUniform(name);
+        if (uniform != null) {
+            uniform.set(values);
+        }
+    }
+
+    private static float halton(int index, int base) {
+        float result = 0;
+        float fraction = 1;
+        while (index > 0) {
+            fraction /= base;
+            result += fraction * (index % base);
+            index /= base;
+        }
+        return result;
+    }
+
+    private int getMaxSamples() {
+        if (maxSamples == -1) {
+            maxSamples = GL11.glGetInteger(GL30.GL_MAX_SAMPLES);
+        }
+        return maxSamples;
+    }
+
+    private boolean ensureMsaa(int width, int height, int samples) {
+        if (msaaFrameBufferId != -1 && msaaWidth == width && msaaHeight == height && msaaSamples == samples) {
+            return true;
+        }
+        destroyMsaa();
+        msaaWidth = width;
+        msaaHeight = height;
+        msaaSamples = samples;
+
+        var swapchain = MCXRPlayClient.MCXR_GAME_RENDERER.getSwapchain();
+        boolean hdr = swapchain != null && swapchain.hdr;
+        msaaColorBufferId = GL30.glGenRenderbuffers();
+        GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, msaaColorBufferId);
+        GL30.glRenderbufferStorageMultisample(GL30.GL_RENDERBUFFER, samples, hdr ? GL11.GL_RGBA16 : GL11.GL_RGBA8, width, height);
+        msaaDepthBufferId = GL30.glGenRenderbuffers();
+        GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, msaaDepthBufferId);
+        GL30.glRenderbufferStorageMultisample(GL30.GL_RENDERBUFFER, samples, GL30.GL_DEPTH_COMPONENT32F, width, height);
+        GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, 0);
+
+        msaaFrameBufferId = GlStateManager.glGenFramebuffers();
+        GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, msaaFrameBufferId);
+        GL30.glFramebufferRenderbuffer(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT0, GL30.GL_RENDERBUFFER, msaaColorBufferId);
+        GL30.glFramebufferRenderbuffer(GL30.GL_FRAMEBUFFER, GL30.GL_DEPTH_ATTACHMENT, GL30.GL_RENDERBUFFER, msaaDepthBufferId);
+        int status = GlStateManager.glCheckFramebufferStatus(GL30.GL_FRAMEBUFFER);
+        GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+        if (status != GL30.GL_FRAMEBUFFER_COMPLETE) {
+            LOGGER.warn("Multisampled framebuffer is incomplete ({}), rendering without MSAA", status);
+            destroyMsaa();
+            //Don't try again every frame
+            maxSamples = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private void destroyMsaa() {
+        if (msaaFrameBufferId != -1) {
+            GlStateManager._glDeleteFramebuffers(msaaFrameBufferId);
+            msaaFrameBufferId = -1;
+        }
+        if (msaaColorBufferId != -1) {
+            GL30.glDeleteRenderbuffers(msaaColorBufferId);
+            msaaColorBufferId = -1;
+        }
+        if (msaaDepthBufferId != -1) {
+            GL30.glDeleteRenderbuffers(msaaDepthBufferId);
+            msaaDepthBufferId = -1;
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.close();
+        destroyMsaa();
+        for (TextureTarget[] targets : history) {
+            for (int i = 0; i < targets.length; i++) {
+                if (targets[i] != null) {
+                    targets[i].destroyBuffers();
+                    targets[i] = null;
+                }
+            }
+        }
+    }
+}
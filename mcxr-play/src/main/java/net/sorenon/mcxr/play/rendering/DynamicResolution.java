@@ -0,0 +1,156 @@
+package net.sorenon.mcxr.play.rendering;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.Mth;
+import net.sorenon.mcxr.core.MCXRMetrics;
+import net.sorenon.mcxr.play.PlayOptions;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL33;
+
+import java.util.Arrays;
+
+/**
+ * Picks how much of the main render target each eye is drawn into so frames keep fitting in the display period
+ * <p>
+ * GPU time is measured with timer queries that are read back a few frames later, so the driver is never stalled waiting on them.
+ * The scale only changes once every {@link #WINDOW} frames and only when the average frame leaves a band around the target budget,
+ * which keeps it from oscillating.
+ * The main target is allocated once at {@link PlayOptions#dynamicResolutionMax}, scaling just shrinks the viewport and the blit UVs.
+ */
+public class DynamicResolution implements AutoCloseable {
+
+    private static final int QUERY_COUNT = 4;
+    private static final int WINDOW = 10;
+
+    /**
+     * Fractions of the display period, the scale is left alone while the frame time stays between the lower and upper budget
+     */
+    private static final float LOWER_BUDGET = 0.7f;
+    private static final float TARGET_BUDGET = 0.78f;
+    private static final float UPPER_BUDGET = 0.85f;
+    private static final float MAX_STEP = 0.1f;
+
+    private final int[] queries = new int[QUERY_COUNT];
+    private final boolean[] pending = new boolean[QUERY_COUNT];
+    private int queryIndex = 0;
+    private boolean querying = false;
+
+    private long gpuNanos = 0;
+    private int gpuSamples = 0;
+    private long cpuNanos = 0;
+    private int frames = 0;
+
+    private float scale = 1;
+
+    private static boolean hasTimerQueries() {
+        var caps = GL.getCapabilities();
+        return caps.OpenGL33 || caps.GL_ARB_timer_query;
+    }
+
+    /**
+     * Post chains always process their whole target, so the scale is held at the maximum while one is in use
+     */
+    public static boolean isActive() {
+        if (!PlayOptions.dynamicResolution) {
+            return false;
+        }
+        Minecraft client = Minecraft.getInstance();
+        return !Minecraft.useShaderTransparency() && !client.levelRenderer.shouldShowEntityOutlines();
+    }
+
+    /**
+     * @return the fraction of the main target's width and height to render into
+     */
+    public float getViewportScale() {
+        if (!isActive()) {
+            return 1;
+        }
+        return Mth.clamp(scale, PlayOptions.dynamicResolutionMin, PlayOptions.dynamicResolutionMax) / PlayOptions.dynamicResolutionMax;
+    }
+
+    public void beginFrame() {
+        if (!PlayOptions.dynamicResolution || !hasTimerQueries()) {
+            return;
+        }
+        if (queries[0] == 0) {
+            GL15.glGenQueries(queries);
+        }
+        readQueries();
+        //Every query is still in flight, skip timing this frame rather than wait on one
+        if (pending[queryIndex]) {
+            return;
+        }
+        GL15.glBeginQuery(GL33.GL_TIME_ELAPSED, queries[queryIndex]);
+        querying = true;
+    }
+
+    /**
+     * @param cpuNanos      how long the render thread spent on the frame
+     * @param displayPeriod the predicted display period of the frame from xrWaitFrame
+     */
+    public void endFrame(long cpuNanos, long displayPeriod) {
+        if (querying) {
+            GL15.glEndQuery(GL33.GL_TIME_ELAPSED);
+            pending[queryIndex] = true;
+            queryIndex = (queryIndex + 1) % QUERY_COUNT;
+            querying = false;
+        }
+        if (!isActive() || displayPeriod <= 0) {
+            return;
+        }
+        this.cpuNanos += cpuNanos;
+        if (++frames >= WINDOW) {
+            adjust(displayPeriod);
+        }
+    }
+
+    private void readQueries() {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            if (pending[i] && GL15.glGetQueryObjecti(queries[i], GL15.GL_QUERY_RESULT_AVAILABLE) != 0) {
+                long nanos = GL33.glGetQueryObjecti64(queries[i], GL15.GL_QUERY_RESULT);
+                pending[i] = false;
+                gpuNanos += nanos;
+                gpuSamples++;
+                MCXRMetrics.CLIENT_FRAME_GPU_NANOS.record(nanos);
+            }
+        }
+    }
+
+    private void adjust(long displayPeriod) {
+        float cpu = (float) cpuNanos / frames / displayPeriod;
+        //Without timer queries the CPU time, which includes driver stalls, is the best estimate there is
+        float gpu = gpuSamples > 0 ? (float) gpuNanos / gpuSamples / displayPeriod : cpu;
+        cpuNanos = 0;
+        frames = 0;
+        gpuNanos = 0;
+        gpuSamples = 0;
+
+        float target = scale;
+        if (gpu > UPPER_BUDGET) {
+            //GPU time follows the pixel count, which is the square of the scale
+            target = scale * (float) Math.sqrt(TARGET_BUDGET / gpu);
+        } else if (gpu < LOWER_BUDGET && cpu < UPPER_BUDGET) {
+            //Headroom is only spent when the CPU isn't what's holding the frame back
+            target = scale * (float) Math.sqrt(TARGET_BUDGET / Math.max(gpu, 0.01f));
+        }
+        scale = Mth.clamp(
+                Mth.clamp(target, scale - MAX_STEP, scale + MAX_STEP),
+                PlayOptions.dynamicResolutionMin,
+                PlayOptions.dynamicResolutionMax
+        );
+    }
+
+    @Override
+    public void close() {
+        if (querying) {
+            GL15.glEndQuery(GL33.GL_TIME_ELAPSED);
+            querying = false;
+        }
+        if (queries[0] != 0) {
+            GL15.glDeleteQueries(queries);
+            Arrays.fill(queries, 0);
+            Arrays.fill(pending, false);
+        }
+    }
+}
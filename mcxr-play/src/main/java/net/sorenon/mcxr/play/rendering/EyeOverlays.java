@@ -0,0 +1,156 @@
+package net.sorenon.mcxr.play.rendering;
+
+import com.mojang.blaze3d.shaders.Uniform;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.renderer.texture.TextureManager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraft.world.effect.MobEffects;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.inventory.InventoryMenu;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.border.WorldBorder;
+import net.sorenon.mcxr.play.MCXRPlayClient;
+
+import java.util.Arrays;
+
+/**
+ * The screen effects drawn over each eye (vignette, portal, hurt, drowning, fire, freezing and low health)
+ * <p>
+ * They are collected once a frame and handed to the eye blit shader as uniforms, which composites them in the same pass
+ * that copies the eye out instead of drawing a blended full screen quad per effect.
+ * When there is no eye blit {@code overlay_mcxr} draws them all in a single blended pass.
+ */
+public class EyeOverlays {
+
+    private static final ResourceLocation VIGNETTE = MCXRPlayClient.id("textures/misc/vignette_vr.png");
+    private static final ResourceLocation HURT = MCXRPlayClient.id("textures/misc/hurt_vr.png");
+    private static final float[] NONE = new float[4];
+    private static final float[] NO_TINTS = new float[16];
+
+    private final float[] vignetteColor = new float[4];
+    private final float[] portalColor = new float[4];
+    private final float[] portalRect = new float[4];
+    private final float[] hurtColor = new float[4];
+    /**
+     * Drowning, fire, freezing and low health as the columns of a matrix
+     */
+    private final float[] tints = new float[16];
+
+    public void update(Minecraft client, Entity cameraEntity) {
+        Arrays.fill(vignetteColor, 0);
+        Arrays.fill(portalColor, 0);
+        Arrays.fill(hurtColor, 0);
+        Arrays.fill(tints, 0);
+
+        LocalPlayer player = client.player;
+        if (player == null || client.level == null) {
+            return;
+        }
+        vignetteColor[3] = vignetteStrength(client, cameraEntity);
+
+        float portal = Mth.lerp(client.getDeltaFrameTime(), player.oPortalTime, player.portalTime);
+        if (portal > 0.0F && !player.hasEffect(MobEffects.CONFUSION)) {
+            if (portal < 1.0F) {
+                portal *= portal;
+                portal *= portal;
+                portal = portal * 0.8F;
+            }
+            TextureAtlasSprite sprite = client.getBlockRenderer().getBlockModelShaper().getParticleIcon(Blocks.NETHER_PORTAL.defaultBlockState());
+            setColor(portalColor, 1f, 1f, 1f, portal);
+            portalRect[0] = sprite.getU0();
+            portalRect[1] = sprite.getV1();
+            portalRect[2] = sprite.getU1();
+            portalRect[3] = sprite.getV0();
+        }
+
+        if (player.hurtTime > 0) {
+            setColor(hurtColor, 0.4f, 0f, 0f, player.hurtTime * 0.06f);
+        }
+
+        float drownPoint = Mth.clamp(2.5f * (0.7f - (float) player.getAirSupply() / (float) player.getMaxAirSupply()), 0f, 1f);
+        if (drownPoint > 0f) {
+            setTint(0, 0.0f, 0.0f, 0.25f, drownPoint * 0.9f);
+        }
+        if (player.isOnFire()) {
+            setTint(1, 1f, 0.7f, 0.2f, 0.9f);
+        }
+        if (player.getTicksFrozen() > 0) {
+            setTint(2, 0.85f, 0.85f, 1f, player.getPercentFrozen() * 0.9f);
+        }
+        float deathPoint = Mth.clamp(2.5f * (0.7f - player.getHealth() / player.getMaxHealth()), 0f, 1f);
+        if (!player.isCreative() && deathPoint > 0f) {
+            setTint(3, 0.4f, 0f, 0f, deathPoint * 0.9f);
+        }
+    }
+
+    /**
+     * The world border warning when near the border, otherwise darkening in dim places
+     */
+    private static float vignetteStrength(Minecraft client, Entity entity) {
+        WorldBorder worldBorder = client.level.getWorldBorder();
+        float f = (float) worldBorder.getDistanceToBorder(entity);
+        double d = Math.min(
+                worldBorder.getLerpSpeed() * (double) worldBorder.getWarningTime() * 1000.0, Math.abs(worldBorder.getLerpTarget() - worldBorder.getSize())
+        );
+        double e = Math.max(worldBorder.getWarningBlocks(), d);
+        if ((double) f < e) {
+            f = 1.0F - (float) ((double) f / e);
+        } else {
+            f = 0.0F;
+        }
+        if (f > 0.0F) {
+            return Mth.clamp(f, 0.0F, 1.0F);
+        }
+        float l = LightTexture.getBrightness(entity.level.dimensionType(), entity.level.getMaxLocalRawBrightness(new BlockPos(entity.getX(), entity.getEyeY(), entity.getZ())));
+        return Mth.clamp(1.0F - l, 0.0F, 1.0F);
+    }
+
+    private static void setColor(float[] color, float red, float green, float blue, float alpha) {
+        color[0] = red;
+        color[1] = green;
+        color[2] = blue;
+        color[3] = alpha;
+    }
+
+    private void setTint(int layer, float red, float green, float blue, float alpha) {
+        tints[layer * 4] = red;
+        tints[layer * 4 + 1] = green;
+        tints[layer * 4 + 2] = blue;
+        tints[layer * 4 + 3] = alpha;
+    }
+
+    public void apply(ShaderInstance shader) {
+        TextureManager textureManager = Minecraft.getInstance().getTextureManager();
+        shader.setSampler("VignetteSampler", textureManager.getTexture(VIGNETTE).getId());
+        shader.setSampler("HurtSampler", textureManager.getTexture(HURT).getId());
+        shader.setSampler("PortalSampler", textureManager.getTexture(InventoryMenu.BLOCK_ATLAS).getId());
+        set(shader, "VignetteColor", vignetteColor);
+        set(shader, "PortalColor", portalColor);
+        set(shader, "PortalRect", portalRect);
+        set(shader, "HurtColor", hurtColor);
+        set(shader, "OverlayTints", tints);
+    }
+
+    /**
+     * Turns every overlay off again, the eye blit shaders are also used for plain copies
+     */
+    public static void clear(ShaderInstance shader) {
+        set(shader, "VignetteColor", NONE);
+        set(shader, "PortalColor", NONE);
+        set(shader, "HurtColor", NONE);
+        set(shader, "OverlayTints", NO_TINTS);
+    }
+
+    private static void set(ShaderInstance shader, String name, float[] values) {
+        Uniform uniform = shader.getUniform(name);
+        if (uniform != null) {
+            uniform.set(values);
+        }
+    }
+}
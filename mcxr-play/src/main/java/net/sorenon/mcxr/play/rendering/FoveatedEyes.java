@@ -0,0 +1,163 @@
+package net.sorenon.mcxr.play.rendering;
+
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import net.minecraft.client.Minecraft;
+import net.sorenon.mcxr.play.PlayOptions;
+import net.sorenon.mcxr.play.mixin.accessor.RenderTargetAcc;
+import org.jetbrains.annotations.Nullable;
+import org.lwjgl.openxr.XrFovf;
+
+/**
+ * Fixed foveation for the two pass path, the counterpart of the foveated layers of {@link MultiviewStereo}
+ * <p>
+ * Each eye is rendered twice: over its whole field of view into a fraction of the main target's viewport, then over a
+ * crop around the lens centre into {@link #getInsetTarget()} at full density.
+ * The eye blit stretches the periphery over the eye and lays the inset on top, like it does for single pass stereo.
+ */
+public class FoveatedEyes implements AutoCloseable {
+
+    private float insetFraction = 1;
+    private final float[][] insetRects = new float[2][4];
+    private final XrFovf insetFov = XrFovf.calloc();
+    @Nullable
+    private TextureTarget insetTarget;
+
+    private int eyeViewWidth;
+    private int eyeViewHeight;
+    private int peripheryViewWidth;
+    private int peripheryViewHeight;
+
+    private int mainFrameBufferId;
+    private int mainColorTextureId;
+    private int mainDepthBufferId;
+    private int mainWidth;
+    private int mainHeight;
+    private int mainViewWidth;
+    private int mainViewHeight;
+
+    /**
+     * @return true if this frame's eyes should be foveated, the eyes must not be rendered straight into the swapchain
+     */
+    public static boolean canRender() {
+        if (PlayOptions.foveationLevel <= 0) {
+            return false;
+        }
+        //The multisampled framebuffer and the TAA history are sized for a single full resolution pass per eye
+        AntiAliasing mode = AntiAliasingStage.getMode();
+        if (mode.msaaSamples > 0 || mode.isTemporal()) {
+            return false;
+        }
+        //Post chains are sized for the main target and can't follow it into the inset
+        Minecraft client = Minecraft.getInstance();
+        return !Minecraft.useShaderTransparency() && !client.levelRenderer.shouldShowEntityOutlines() && client.gameRenderer.currentEffect() == null;
+    }
+
+    /**
+     * Shrinks the main target's viewport for the periphery, the inset is placed from the eye's field of view
+     */
+    public void beginPeriphery(RenderTarget mainTarget, int eye, XrFovf eyeFov) {
+        insetFraction = MultiviewStereo.getInsetFraction(PlayOptions.foveationLevel);
+        MultiviewStereo.getInsetRect(eyeFov, insetFraction, insetRects[eye]);
+
+        eyeViewWidth = mainTarget.viewWidth;
+        eyeViewHeight = mainTarget.viewHeight;
+        peripheryViewWidth = Math.max(1, (int) (eyeViewWidth * insetFraction));
+        peripheryViewHeight = Math.max(1, (int) (eyeViewHeight * insetFraction));
+        mainTarget.viewWidth = peripheryViewWidth;
+        mainTarget.viewHeight = peripheryViewHeight;
+    }
+
+    public void endPeriphery(RenderTarget mainTarget) {
+        mainTarget.viewWidth = eyeViewWidth;
+        mainTarget.viewHeight = eyeViewHeight;
+    }
+
+    /**
+     * @return the eye's field of view cropped to its inset, linear in the tangents like the projection itself
+     */
+    public XrFovf getInsetFov(int eye, XrFovf eyeFov) {
+        float[] rect = insetRects[eye];
+        float tanLeft = (float) Math.tan(eyeFov.angleLeft());
+        float tanRight = (float) Math.tan(eyeFov.angleRight());
+        float tanDown = (float) Math.tan(eyeFov.angleDown());
+        float tanUp = (float) Math.tan(eyeFov.angleUp());
+        insetFov.angleLeft((float) Math.atan(tanLeft + rect[0] * (tanRight - tanLeft)));
+        insetFov.angleRight((float) Math.atan(tanLeft + (rect[0] + rect[2]) * (tanRight - tanLeft)));
+        insetFov.angleDown((float) Math.atan(tanDown + rect[1] * (tanUp - tanDown)));
+        insetFov.angleUp((float) Math.atan(tanDown + (rect[1] + rect[3]) * (tanUp - tanDown)));
+        return insetFov;
+    }
+
+    /**
+     * Points the main target at the inset target so vanilla renders the inset pass into it
+     * The inset ignores dynamic resolution, it is always the eye's full density over its crop.
+     */
+    public void beginInset(RenderTarget mainTarget) {
+        int width = Math.max(1, (int) (mainTarget.width * insetFraction));
+        int height = Math.max(1, (int) (mainTarget.height * insetFraction));
+        if (insetTarget == null) {
+            insetTarget = new TextureTarget(width, height, true, Minecraft.ON_OSX);
+        } else if (insetTarget.width != width || insetTarget.height != height) {
+            insetTarget.resize(width, height, Minecraft.ON_OSX);
+        }
+
+        mainFrameBufferId = mainTarget.frameBufferId;
+        mainColorTextureId = mainTarget.getColorTextureId();
+        mainDepthBufferId = mainTarget.getDepthTextureId();
+        mainWidth = mainTarget.width;
+        mainHeight = mainTarget.height;
+        mainViewWidth = mainTarget.viewWidth;
+        mainViewHeight = mainTarget.viewHeight;
+
+        mainTarget.width = width;
+        mainTarget.height = height;
+        mainTarget.viewWidth = width;
+        mainTarget.viewHeight = height;
+        mainTarget.frameBufferId = insetTarget.frameBufferId;
+        ((RenderTargetAcc) mainTarget).setColorTextureId(insetTarget.getColorTextureId());
+        ((RenderTargetAcc) mainTarget).setDepthBufferId(insetTarget.getDepthTextureId());
+    }
+
+    public void endInset(RenderTarget mainTarget) {
+        mainTarget.frameBufferId = mainFrameBufferId;
+        mainTarget.width = mainWidth;
+        mainTarget.height = mainHeight;
+        mainTarget.viewWidth = mainViewWidth;
+        mainTarget.viewHeight = mainViewHeight;
+        ((RenderTargetAcc) mainTarget).setColorTextureId(mainColorTextureId);
+        ((RenderTargetAcc) mainTarget).setDepthBufferId(mainDepthBufferId);
+    }
+
+    /**
+     * @return where the inset of an eye sits in that eye's texture coordinates, as x, y, width, height
+     */
+    public float[] getInsetRect(int eye) {
+        return insetRects[eye];
+    }
+
+    /**
+     * @return the fraction of the main target's width the periphery was rendered into
+     */
+    public float getPeripheryUScale(RenderTarget mainTarget) {
+        return (float) peripheryViewWidth / mainTarget.width;
+    }
+
+    public float getPeripheryVScale(RenderTarget mainTarget) {
+        return (float) peripheryViewHeight / mainTarget.height;
+    }
+
+    @Nullable
+    public RenderTarget getInsetTarget() {
+        return insetTarget;
+    }
+
+    @Override
+    public void close() {
+        if (insetTarget != null) {
+            insetTarget.destroyBuffers();
+            insetTarget = null;
+        }
+        insetFov.free();
+    }
+}
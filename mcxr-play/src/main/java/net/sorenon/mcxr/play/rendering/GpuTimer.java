@@ -0,0 +1,83 @@
+package net.sorenon.mcxr.play.rendering;
+
+import net.sorenon.mcxr.core.MCXRMetrics;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL33;
+
+import java.util.Arrays;
+
+/**
+ * Times sections of GPU work with timestamp queries and records them into a histogram once the results are available
+ * <p>
+ * Timestamps rather than {@code GL_TIME_ELAPSED} so the sections can sit inside the frame wide query of {@link DynamicResolution}.
+ * Results are only read once the GPU has them, so nothing ever waits on a query.
+ */
+public class GpuTimer implements AutoCloseable {
+
+    private static final int QUERY_COUNT = 8;
+
+    private final int[] starts = new int[QUERY_COUNT];
+    private final int[] ends = new int[QUERY_COUNT];
+    private final MCXRMetrics.Histogram[] histograms = new MCXRMetrics.Histogram[QUERY_COUNT];
+    private final boolean[] pending = new boolean[QUERY_COUNT];
+    private int index = 0;
+    private boolean running = false;
+
+    private static boolean isSupported() {
+        var caps = GL.getCapabilities();
+        return caps.OpenGL33 || caps.GL_ARB_timer_query;
+    }
+
+    public void begin(MCXRMetrics.Histogram histogram) {
+        if (running || !isSupported()) {
+            return;
+        }
+        if (starts[0] == 0) {
+            GL15.glGenQueries(starts);
+            GL15.glGenQueries(ends);
+        }
+        poll();
+        //Every query is still in flight, skip this section rather than wait on one
+        if (pending[index]) {
+            return;
+        }
+        GL33.glQueryCounter(starts[index], GL33.GL_TIMESTAMP);
+        histograms[index] = histogram;
+        running = true;
+    }
+
+    public void end() {
+        if (!running) {
+            return;
+        }
+        GL33.glQueryCounter(ends[index], GL33.GL_TIMESTAMP);
+        pending[index] = true;
+        index = (index + 1) % QUERY_COUNT;
+        running = false;
+    }
+
+    private void poll() {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            if (pending[i] && GL15.glGetQueryObjecti(ends[i], GL15.GL_QUERY_RESULT_AVAILABLE) != 0) {
+                long nanos = GL33.glGetQueryObjecti64(ends[i], GL15.GL_QUERY_RESULT) - GL33.glGetQueryObjecti64(starts[i], GL15.GL_QUERY_RESULT);
+                pending[i] = false;
+                histograms[i].record(nanos);
+                histograms[i] = null;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (starts[0] != 0) {
+            GL15.glDeleteQueries(starts);
+            GL15.glDeleteQueries(ends);
+            Arrays.fill(starts, 0);
+            Arrays.fill(ends, 0);
+            Arrays.fill(pending, false);
+            Arrays.fill(histograms, null);
+        }
+    }
+}
@@ -7,8 +7,10 @@ import net.minecraft.world.entity.Entity;
 import net.minecraft.world.level.BlockGetter;
 import net.sorenon.mcxr.core.JOMLUtil;
 import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseMath;
 import net.sorenon.mcxr.play.MCXRPlayClient;
 import net.sorenon.mcxr.play.mixin.accessor.CameraAcc;
+import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
 /**
@@ -19,6 +21,8 @@ import org.joml.Vector3f;
  */
 public class MCXRCamera extends Camera {
 
+    private final Vector3f scratch = new Vector3f();
+
     /**
      * Called just before each render tick, sets the camera to the center of the headset for updating the sound engine and updates the pitch yaw of the player
      */
@@ -34,8 +38,9 @@ public class MCXRCamera extends Camera {
         if (focusedEntity != null && Minecraft.getInstance().player == focusedEntity) {
             Entity player = Minecraft.getInstance().player;
 
-            float yaw = MCXRPlayClient.viewSpacePoses.getPhysicalPose().getMCYaw();
-            float pitch = MCXRPlayClient.viewSpacePoses.getPhysicalPose().getMCPitch();
+            Quaternionf orientation = MCXRPlayClient.viewSpacePoses.getPhysicalPose().getOrientation();
+            float yaw = PoseMath.headYaw(orientation);
+            float pitch = PoseMath.headPitch(orientation);
             float dYaw = yaw - player.getYRot();
             float dPitch = pitch - player.getXRot();
             player.setYRot(yaw);
@@ -50,19 +55,26 @@ public class MCXRCamera extends Camera {
 
     public void setPose(Pose pose) {
         CameraAcc thiz = ((CameraAcc) this);
+        Quaternionf orientation = pose.getOrientation();
+
+        float pitch = PoseMath.headPitch(orientation);
+        float yaw = PoseMath.headYaw(orientation);
+        thiz.pitch(pitch);
+        thiz.yaw(yaw);
 
-        thiz.pitch(pose.getMCPitch());
-        thiz.yaw(pose.getMCYaw());
-        this.rotation().set(0.0F, 0.0F, 0.0F, 1.0F);
-        this.rotation().mul(com.mojang.math.Vector3f.YP.rotationDegrees(-pose.getMCYaw()));
-        this.rotation().mul(com.mojang.math.Vector3f.XP.rotationDegrees(pose.getMCPitch()));
+        //Same as rotation().mul(YP.rotationDegrees(-yaw)).mul(XP.rotationDegrees(pitch)) without the two intermediate quaternions
+        float halfYaw = (float) Math.toRadians(-yaw) / 2;
+        float halfPitch = (float) Math.toRadians(pitch) / 2;
+        float sy = (float) Math.sin(halfYaw), cy = (float) Math.cos(halfYaw);
+        float sp = (float) Math.sin(halfPitch), cp = (float) Math.cos(halfPitch);
+        this.rotation().set(cy * sp, sy * cp, -sy * sp, cy * cp);
 
-        Vector3f look = pose.getOrientation().transform(new Vector3f(0, 0, -1));
-        Vector3f up = pose.getOrientation().transform(new Vector3f(0, 1, 0));
-        Vector3f right = pose.getOrientation().transform(new Vector3f(1, 0, 0));
-        this.getLookVector().set(look.x, look.y, look.z);
-        this.getUpVector().set(up.x, up.y, up.z);
-        thiz.diagonalPlane().set(right.x, right.y, right.z);
+        PoseMath.forward(orientation, scratch);
+        this.getLookVector().set(scratch.x, scratch.y, scratch.z);
+        PoseMath.up(orientation, scratch);
+        this.getUpVector().set(scratch.x, scratch.y, scratch.z);
+        PoseMath.right(orientation, scratch);
+        thiz.diagonalPlane().set(scratch.x, scratch.y, scratch.z);
 
         this.setPosition(JOMLUtil.convert(pose.getPos()));
     }
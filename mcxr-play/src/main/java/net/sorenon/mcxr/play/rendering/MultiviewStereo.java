@@ -0,0 +1,349 @@
+package net.sorenon.mcxr.play.rendering;
+
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.platform.TextureUtil;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.Mth;
+import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.play.MCXRPlayClient;
+import net.sorenon.mcxr.play.PlayOptions;
+import net.sorenon.mcxr.play.accessor.Matrix4fExt;
+import net.sorenon.mcxr.play.input.ControllerPoses;
+import net.sorenon.mcxr.play.mixin.accessor.RenderTargetAcc;
+import org.joml.Math;
+import org.joml.Matrix4f;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.OVRMultiview;
+import org.lwjgl.openxr.XrFovf;
+import org.lwjgl.openxr.XrView;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Renders the world once per frame into both eyes with GL_OVR_multiview2
+ * <p>
+ * The world pass is set up from the {@link StereoFrustum} centre eye, so culling, chunk and entity submission all happen
+ * once. {@link StereoShaders} then reprojects every vertex from the
+ * centre eye's clip space into each real eye's clip space, {@code P_eye * V_eye * inverse(V_centre) * inverse(P_centre)},
+ * which is exact because every step is linear in homogeneous coordinates.
+ * The result lands in a two layer array target which is copied out one layer at a time for the per eye blit.
+ * <p>
+ * With foveation on there are four layers at a fraction of the eye resolution, the first two cover each whole eye and
+ * the last two a crop around each lens centre, so the periphery is rendered at lower density and the inset at full density.
+ */
+public class MultiviewStereo implements AutoCloseable {
+
+    /**
+     * Eyes rotated further apart than this (canted displays) can't share a centre eye
+     */
+    private static final float MAX_EYE_ANGLE = Math.toRadians(1f);
+
+    private static final int MAX_VIEWS = 4;
+
+    private int frameBufferId = -1;
+    private int colorTextureId;
+    private int depthTextureId;
+    private final int[] layerFrameBufferIds = new int[MAX_VIEWS];
+    private int width = -1;
+    private int height = -1;
+    private int viewWidth;
+    private int viewHeight;
+    private int viewCount = 2;
+    private boolean hdr;
+
+    /**
+     * Fraction of each eye's width and height covered by the full density inset, 1 when not foveated
+     */
+    private float insetFraction = 1;
+    private final float[][] insetRects = new float[2][4];
+    @Nullable
+    private TextureTarget insetTarget;
+
+    private int mainFrameBufferId;
+    private int mainColorTextureId;
+    private int mainDepthBufferId;
+    private int mainWidth;
+    private int mainHeight;
+    private int mainViewWidth;
+    private int mainViewHeight;
+
+    public final RenderPass.XrWorld worldPass = RenderPass.XrWorld.create();
+    private final ControllerPoses[] eyePoses = {new ControllerPoses(), new ControllerPoses()};
+    private XrView.Buffer views;
+
+    final FloatBuffer stereoMatrices = MemoryUtil.memAllocFloat(16 * MAX_VIEWS);
+    final FloatBuffer identityMatrices = MemoryUtil.memAllocFloat(16 * MAX_VIEWS);
+    private final FloatBuffer scratch = MemoryUtil.memAllocFloat(16);
+    private final float[] worldProjection = new float[16];
+    private final Matrix4f inverseProjection = new Matrix4f();
+    private final Matrix4f eyeFromCentre = new Matrix4f();
+    private final Matrix4f stereo = new Matrix4f();
+    private final Matrix4f crop = new Matrix4f();
+    private final Quaternionf orientation = new Quaternionf();
+
+    public MultiviewStereo() {
+        Matrix4f identity = new Matrix4f();
+        for (int i = 0; i < MAX_VIEWS; i++) {
+            identity.get(i * 16, identityMatrices);
+        }
+        worldPass.stereo = this;
+    }
+
+    /**
+     * @return true if this frame can be rendered in a single pass, otherwise each eye gets its own pass as usual
+     */
+    public boolean canRender(XrView.Buffer views) {
+        if (!PlayOptions.singlePassStereo || !StereoShaders.isSupported() || AntiAliasingStage.getMode().needsSeparateEyes()) {
+            return false;
+        }
+        StereoShaders.setViewCount(PlayOptions.foveationLevel > 0 ? 4 : 2);
+        if (!StereoShaders.isSupported()) {
+            return false;
+        }
+        Minecraft client = Minecraft.getInstance();
+        //Post chains render into their own 2D targets which the multiview programs can't draw to
+        if (Minecraft.useShaderTransparency() || client.levelRenderer.shouldShowEntityOutlines()) {
+            return false;
+        }
+        var left = views.get(0).pose().orientation();
+        var right = views.get(1).pose().orientation();
+        float dot = Math.abs(left.x() * right.x() + left.y() * right.y() + left.z() * right.z() + left.w() * right.w());
+        return 2 * Math.acos(Math.min(dot, 1)) <= MAX_EYE_ANGLE;
+    }
+
+    /**
+     * Sets up {@link #worldPass} from the centre eye of the frame's {@link StereoFrustum} and updates the eye poses
+     */
+    public RenderPass.XrWorld setup(XrView.Buffer views, StereoFrustum frustum, float scale) {
+        this.views = views;
+        worldPass.fov = frustum.fov;
+        worldPass.viewIndex = 0;
+        worldPass.eyePoses.updatePhysicalPose(frustum.pose, MCXRPlayClient.stageTurn, scale);
+        worldPass.eyePoses.updateGamePose(MCXRPlayClient.xrOrigin);
+        for (int i = 0; i < 2; i++) {
+            eyePoses[i].updatePhysicalPose(views.get(i).pose(), MCXRPlayClient.stageTurn, scale);
+            eyePoses[i].updateGamePose(MCXRPlayClient.xrOrigin);
+        }
+        return worldPass;
+    }
+
+    /**
+     * Called with the projection vanilla sets up for the world, builds the per eye reprojection matrices from it
+     */
+    public void setWorldProjection(com.mojang.math.Matrix4f projection, float nearZ, float farZ) {
+        projection.store(scratch);
+        scratch.get(0, worldProjection);
+        inverseProjection.set(scratch).invert();
+
+        Pose centre = worldPass.eyePoses.getMinecraftPose();
+        com.mojang.math.Matrix4f eyeProjection = new com.mojang.math.Matrix4f();
+        for (int i = 0; i < 2; i++) {
+            Pose eye = eyePoses[i].getMinecraftPose();
+            eyeFromCentre.rotation(eye.getOrientation().conjugate(orientation))
+                    .translate(centre.pos.x - eye.pos.x, centre.pos.y - eye.pos.y, centre.pos.z - eye.pos.z)
+                    .rotate(centre.getOrientation());
+
+            ((Matrix4fExt) (Object) eyeProjection).setXrProjection(views.get(i).fov(), nearZ, farZ);
+            eyeProjection.store(scratch);
+            stereo.set(scratch).mul(eyeFromCentre).mul(inverseProjection);
+            stereo.get(i * 16, stereoMatrices);
+
+            if (viewCount == 4) {
+                //The inset is a crop of the eye's clip space centred on the lens
+                float f = insetFraction;
+                float[] rect = insetRects[i];
+                getInsetRect(views.get(i).fov(), f, rect);
+                float cx = rect[0] * 2 + f - 1;
+                float cy = rect[1] * 2 + f - 1;
+                crop.identity().m00(1 / f).m11(1 / f).m30(-cx / f).m31(-cy / f);
+                crop.mul(stereo, stereo).get((2 + i) * 16, stereoMatrices);
+            }
+        }
+    }
+
+    /**
+     * Places an inset covering the given fraction of an eye's width and height as close to the lens centre as fits
+     *
+     * @param rect receives the inset in the eye's texture coordinates, as x, y, width, height
+     */
+    public static void getInsetRect(XrFovf fov, float insetFraction, float[] rect) {
+        float f = insetFraction;
+        float tanLeft = Math.tan(fov.angleLeft());
+        float tanRight = Math.tan(fov.angleRight());
+        float tanDown = Math.tan(fov.angleDown());
+        float tanUp = Math.tan(fov.angleUp());
+        float cx = Mth.clamp(-(tanRight + tanLeft) / (tanRight - tanLeft), f - 1, 1 - f);
+        float cy = Mth.clamp(-(tanUp + tanDown) / (tanUp - tanDown), f - 1, 1 - f);
+        rect[0] = (cx - f + 1) / 2;
+        rect[1] = (cy - f + 1) / 2;
+        rect[2] = f;
+        rect[3] = f;
+    }
+
+    public static float getInsetFraction(int foveationLevel) {
+        return switch (foveationLevel) {
+            case 1 -> 0.6f;
+            case 2 -> 0.5f;
+            case 3 -> 0.4f;
+            default -> 1;
+        };
+    }
+
+    public boolean isFoveated() {
+        return viewCount == 4;
+    }
+
+    /**
+     * @return where the inset of an eye sits in that eye's texture coordinates, as x, y, width, height
+     */
+    public float[] getInsetRect(int eye) {
+        return insetRects[eye];
+    }
+
+    @Nullable
+    public RenderTarget getInsetTarget() {
+        return insetTarget;
+    }
+
+    boolean isWorldProjection(FloatBuffer projection) {
+        for (int i = 0; i < 16; i++) {
+            if (projection.get(i) != worldProjection[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Swaps the main render target over to the array target so vanilla renders into both layers
+     */
+    public void begin(RenderTarget mainTarget, boolean hdr) {
+        int count = StereoShaders.getViewCount();
+        insetFraction = count == 4 ? getInsetFraction(PlayOptions.foveationLevel) : 1;
+        int layerWidth = Math.max(1, (int) (mainTarget.width * insetFraction));
+        int layerHeight = Math.max(1, (int) (mainTarget.height * insetFraction));
+        if (layerWidth != width || layerHeight != height || count != viewCount || this.hdr != hdr) {
+            resize(layerWidth, layerHeight, count, hdr);
+        }
+        if (count == 4) {
+            if (insetTarget == null) {
+                insetTarget = new TextureTarget(layerWidth, layerHeight, false, Minecraft.ON_OSX);
+            } else if (insetTarget.width != layerWidth || insetTarget.height != layerHeight) {
+                insetTarget.resize(layerWidth, layerHeight, Minecraft.ON_OSX);
+            }
+        }
+
+        mainFrameBufferId = mainTarget.frameBufferId;
+        mainColorTextureId = mainTarget.getColorTextureId();
+        mainDepthBufferId = mainTarget.getDepthTextureId();
+        mainWidth = mainTarget.width;
+        mainHeight = mainTarget.height;
+        mainViewWidth = mainTarget.viewWidth;
+        mainViewHeight = mainTarget.viewHeight;
+
+        //Foveated layers are smaller than the eye and dynamic resolution may only use part of them, bindWrite sets the viewport from these
+        viewWidth = Math.max(1, (int) (mainTarget.viewWidth * insetFraction));
+        viewHeight = Math.max(1, (int) (mainTarget.viewHeight * insetFraction));
+        mainTarget.width = width;
+        mainTarget.height = height;
+        mainTarget.viewWidth = viewWidth;
+        mainTarget.viewHeight = viewHeight;
+        mainTarget.frameBufferId = frameBufferId;
+        ((RenderTargetAcc) mainTarget).setColorTextureId(colorTextureId);
+        ((RenderTargetAcc) mainTarget).setDepthBufferId(depthTextureId);
+        StereoShaders.setActive(true);
+    }
+
+    public void end(RenderTarget mainTarget) {
+        StereoShaders.setActive(false);
+        mainTarget.frameBufferId = mainFrameBufferId;
+        mainTarget.width = mainWidth;
+        mainTarget.height = mainHeight;
+        mainTarget.viewWidth = mainViewWidth;
+        mainTarget.viewHeight = mainViewHeight;
+        ((RenderTargetAcc) mainTarget).setColorTextureId(mainColorTextureId);
+        ((RenderTargetAcc) mainTarget).setDepthBufferId(mainDepthBufferId);
+    }
+
+    /**
+     * Copies one eye out of the array target into the main render target, or straight into a swapchain framebuffer
+     * When foveated the periphery is stretched over the target's viewport and the inset over the whole of {@link #getInsetTarget()}
+     */
+    public void copyLayer(int viewIndex, RenderTarget mainTarget) {
+        GlStateManager._glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, layerFrameBufferIds[viewIndex]);
+        GlStateManager._glBindFramebuffer(GL30.GL_DRAW_FRAMEBUFFER, mainTarget.frameBufferId);
+        GlStateManager._glBlitFrameBuffer(0, 0, viewWidth, viewHeight, 0, 0, mainTarget.viewWidth, mainTarget.viewHeight, GL11.GL_COLOR_BUFFER_BIT, isFoveated() ? GL11.GL_LINEAR : GL11.GL_NEAREST);
+        if (isFoveated() && insetTarget != null) {
+            GlStateManager._glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, layerFrameBufferIds[2 + viewIndex]);
+            GlStateManager._glBindFramebuffer(GL30.GL_DRAW_FRAMEBUFFER, insetTarget.frameBufferId);
+            GlStateManager._glBlitFrameBuffer(0, 0, viewWidth, viewHeight, 0, 0, width, height, GL11.GL_COLOR_BUFFER_BIT, viewWidth == width && viewHeight == height ? GL11.GL_NEAREST : GL11.GL_LINEAR);
+        }
+        GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+    }
+
+    private void resize(int width, int height, int viewCount, boolean hdr) {
+        destroyBuffers();
+        this.width = width;
+        this.height = height;
+        this.viewCount = viewCount;
+        this.hdr = hdr;
+
+        colorTextureId = TextureUtil.generateTextureId();
+        GL11.glBindTexture(GL30.GL_TEXTURE_2D_ARRAY, colorTextureId);
+        GL12.glTexImage3D(GL30.GL_TEXTURE_2D_ARRAY, 0, hdr ? GL11.GL_RGBA16 : GL11.GL_RGBA8, width, height, viewCount, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+
+        depthTextureId = TextureUtil.generateTextureId();
+        GL11.glBindTexture(GL30.GL_TEXTURE_2D_ARRAY, depthTextureId);
+        GL12.glTexImage3D(GL30.GL_TEXTURE_2D_ARRAY, 0, GL30.GL_DEPTH_COMPONENT32F, width, height, viewCount, 0, GL11.GL_DEPTH_COMPONENT, GL11.GL_FLOAT, (ByteBuffer) null);
+        GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
+        GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+        GL11.glBindTexture(GL30.GL_TEXTURE_2D_ARRAY, 0);
+
+        frameBufferId = GlStateManager.glGenFramebuffers();
+        GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, frameBufferId);
+        OVRMultiview.glFramebufferTextureMultiviewOVR(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT0, colorTextureId, 0, 0, viewCount);
+        OVRMultiview.glFramebufferTextureMultiviewOVR(GL30.GL_FRAMEBUFFER, GL30.GL_DEPTH_ATTACHMENT, depthTextureId, 0, 0, viewCount);
+
+        for (int i = 0; i < viewCount; i++) {
+            layerFrameBufferIds[i] = GlStateManager.glGenFramebuffers();
+            GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, layerFrameBufferIds[i]);
+            GL30.glFramebufferTextureLayer(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT0, colorTextureId, 0, i);
+        }
+        GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+    }
+
+    private void destroyBuffers() {
+        if (frameBufferId == -1) {
+            return;
+        }
+        GlStateManager._glDeleteFramebuffers(frameBufferId);
+        for (int id : layerFrameBufferIds) {
+            GlStateManager._glDeleteFramebuffers(id);
+        }
+        TextureUtil.releaseTextureId(colorTextureId);
+        TextureUtil.releaseTextureId(depthTextureId);
+        frameBufferId = -1;
+    }
+
+    @Override
+    public void close() {
+        destroyBuffers();
+        if (insetTarget != null) {
+            insetTarget.destroyBuffers();
+            insetTarget = null;
+        }
+        MemoryUtil.memFree(stereoMatrices);
+        MemoryUtil.memFree(identityMatrices);
+        MemoryUtil.memFree(scratch);
+    }
+}
@@ -1,6 +1,7 @@
 package net.sorenon.mcxr.play.rendering;
 
 import net.sorenon.mcxr.play.input.ControllerPoses;
+import org.jetbrains.annotations.Nullable;
 import org.lwjgl.openxr.XrFovf;
 
 public class RenderPass {
@@ -15,6 +16,25 @@ public class RenderPass {
         public XrFovf fov = null;
         public int viewIndex = 0;
         public final ControllerPoses eyePoses = new ControllerPoses();
+        /**
+         * Set if this pass renders both eyes at once from a centre eye
+         */
+        @Nullable
+        public MultiviewStereo stereo = null;
+        /**
+         * Set if both eyes share one culling pass, the second eye then reuses the first eye's visible sections and entities
+         */
+        @Nullable
+        public StereoFrustum cullFrustum = null;
+        /**
+         * Set for the full density inset of a {@link FoveatedEyes} eye, which reuses the culling of that eye's periphery
+         */
+        public boolean inset = false;
+        /**
+         * Sub-pixel offset of the projection in clip space, used by temporal anti-aliasing
+         */
+        public float jitterX = 0;
+        public float jitterY = 0;
 
         private XrWorld() {
 
@@ -0,0 +1,55 @@
+package net.sorenon.mcxr.play.rendering;
+
+import net.sorenon.mcxr.play.MCXRPlayClient;
+import net.sorenon.mcxr.play.input.ControllerPoses;
+import org.joml.Math;
+import org.joml.Quaternionf;
+import org.lwjgl.openxr.XrFovf;
+import org.lwjgl.openxr.XrPosef;
+import org.lwjgl.openxr.XrView;
+
+/**
+ * A centre eye halfway between both eyes with a field of view covering both, rebuilt once per frame
+ * <p>
+ * Anything visible to either eye is inside this frustum, so it is used to cull once per frame for both eyes.
+ */
+public class StereoFrustum {
+
+    /**
+     * Extra field of view so geometry only one eye can see survives culling from the centre
+     */
+    private static final float FOV_MARGIN = Math.toRadians(2f);
+
+    public final XrFovf fov = XrFovf.calloc();
+    public final XrPosef pose = XrPosef.calloc();
+    public final ControllerPoses poses = new ControllerPoses();
+
+    private final Quaternionf left = new Quaternionf();
+    private final Quaternionf right = new Quaternionf();
+
+    public void update(XrView.Buffer views, float scale) {
+        var leftView = views.get(0);
+        var rightView = views.get(1);
+
+        var lp = leftView.pose().position$();
+        var rp = rightView.pose().position$();
+        pose.position$().set((lp.x() + rp.x()) / 2, (lp.y() + rp.y()) / 2, (lp.z() + rp.z()) / 2);
+        var lo = leftView.pose().orientation();
+        var ro = rightView.pose().orientation();
+        left.set(lo.x(), lo.y(), lo.z(), lo.w()).slerp(right.set(ro.x(), ro.y(), ro.z(), ro.w()), 0.5f);
+        pose.orientation().set(left.x, left.y, left.z, left.w);
+
+        //Canted displays point each eye away from the centre, widen by the angle from the centre to an eye
+        float dot = Math.abs(left.x * right.x + left.y * right.y + left.z * right.z + left.w * right.w);
+        float margin = FOV_MARGIN + 2 * Math.acos(Math.min(dot, 1));
+        fov.set(
+                Math.min(leftView.fov().angleLeft(), rightView.fov().angleLeft()) - margin,
+                Math.max(leftView.fov().angleRight(), rightView.fov().angleRight()) + margin,
+                Math.max(leftView.fov().angleUp(), rightView.fov().angleUp()) + margin,
+                Math.min(leftView.fov().angleDown(), rightView.fov().angleDown()) - margin
+        );
+
+        poses.updatePhysicalPose(pose, MCXRPlayClient.stageTurn, scale);
+        poses.updateGamePose(MCXRPlayClient.xrOrigin);
+    }
+}
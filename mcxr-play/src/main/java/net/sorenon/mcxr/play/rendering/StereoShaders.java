@@ -0,0 +1,256 @@
+package net.sorenon.mcxr.play.rendering;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.shaders.Uniform;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.sorenon.mcxr.play.mixin.accessor.ShaderInstanceAcc;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL20;
+
+import java.nio.FloatBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multiview twins of every {@link ShaderInstance}, used by {@link MultiviewStereo} to draw the world into both eyes at once
+ * <p>
+ * The vertex source of each shader is captured when it is compiled and patched to declare {@code num_views = 2} and to
+ * reproject its final {@code gl_Position} into the current view with {@code McxrStereoMat[gl_ViewID_OVR]}, two views
+ * for the eyes or four when foveated (eye peripheries then eye insets).
+ * The twin program is linked against the original fragment shader, so nothing else about the shader changes.
+ * While a stereo pass is running every shader is switched over to its twin (program and uniform locations),
+ * which keeps vanilla code that uploads uniforms between draws, like chunk offsets, working untouched.
+ */
+public class StereoShaders {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final String STEREO_HEADER = """
+            #extension GL_OVR_multiview2 : require
+            layout(num_views = %1$d) in;
+            uniform mat4 McxrStereoMat[%1$d];
+            """;
+
+    /**
+     * Sources and multiview twins of compiled shaders, keyed by the GL id of the original shader
+     */
+    private static final Map<Integer, String> SOURCES = new HashMap<>();
+    private static final Map<Integer, Integer> VERTEX_SHADERS = new HashMap<>();
+    private static final Map<ShaderInstance, Twin> TWINS = new HashMap<>();
+    private static final Set<ShaderInstance> SHADERS = new HashSet<>();
+
+    /**
+     * Set once a twin fails to compile, single pass stereo can't be used if any shader would be left behind
+     */
+    private static boolean failed = false;
+    private static boolean active = false;
+    private static int viewCount = 2;
+
+    public static boolean isSupported() {
+        return !failed && GL.getCapabilities().GL_OVR_multiview2;
+    }
+
+    public static void captureSource(int shader, List<String> source) {
+        SOURCES.put(shader, String.join("", source));
+    }
+
+    public static void releaseSource(int shader) {
+        SOURCES.remove(shader);
+        Integer twin = VERTEX_SHADERS.remove(shader);
+        if (twin != null) {
+            GlStateManager.glDeleteShader(twin);
+        }
+    }
+
+    /**
+     * Inserts the multiview declarations after the version directive and the reprojection at the end of main
+     */
+    static String patchVertexSource(String source, int viewCount) {
+        int version = source.indexOf("#version");
+        int versionEnd = source.indexOf('\n', version);
+        int mainEnd = source.lastIndexOf('}');
+        if (version < 0 || versionEnd < 0 || mainEnd < versionEnd) {
+            return null;
+        }
+        return source.substring(0, versionEnd + 1)
+                + STEREO_HEADER.formatted(viewCount)
+                + source.substring(versionEnd + 1, mainEnd)
+                + "    gl_Position = McxrStereoMat[gl_ViewID_OVR] * gl_Position;\n"
+                + source.substring(mainEnd);
+    }
+
+    public static void createTwin(ShaderInstance shader) {
+        SHADERS.add(shader);
+        if (!isSupported()) {
+            return;
+        }
+        var vertexProgram = shader.getVertexProgram();
+        int vertex = getOrCompileVertex(vertexProgram.getId(), vertexProgram.getName());
+        if (vertex == 0) {
+            fail(shader, "could not compile the multiview vertex shader " + vertexProgram.getName());
+            return;
+        }
+
+        int program = GlStateManager.glCreateProgram();
+        int attribute = 0;
+        for (String name : shader.getVertexFormat().getElementAttributeNames()) {
+            Uniform.glBindAttribLocation(program, attribute++, name);
+        }
+        GlStateManager.glAttachShader(program, vertex);
+        GlStateManager.glAttachShader(program, shader.getFragmentProgram().getId());
+        GlStateManager.glLinkProgram(program);
+        if (GlStateManager.glGetProgrami(program, GL20.GL_LINK_STATUS) == 0) {
+            String log = GlStateManager.glGetProgramInfoLog(program, 32768);
+            GlStateManager.glDeleteProgram(program);
+            fail(shader, log);
+            return;
+        }
+
+        var acc = (ShaderInstanceAcc) shader;
+        Twin twin = new Twin(shader.getId(), program, acc.getUniforms().size(), acc.getSamplerNames().size());
+        for (int i = 0; i < twin.uniformLocations.length; i++) {
+            twin.uniformLocations[i] = Uniform.glGetUniformLocation(program, acc.getUniforms().get(i).getName());
+        }
+        for (int i = 0; i < twin.samplerLocations.length; i++) {
+            twin.samplerLocations[i] = Uniform.glGetUniformLocation(program, acc.getSamplerNames().get(i));
+        }
+        twin.stereoLocation = Uniform.glGetUniformLocation(program, "McxrStereoMat");
+        TWINS.put(shader, twin);
+    }
+
+    private static int getOrCompileVertex(int original, String name) {
+        Integer cached = VERTEX_SHADERS.get(original);
+        if (cached != null) {
+            return cached;
+        }
+        String source = SOURCES.get(original);
+        String patched = source == null ? null : patchVertexSource(source, viewCount);
+        if (patched == null) {
+            return 0;
+        }
+
+        int shader = GlStateManager.glCreateShader(GL20.GL_VERTEX_SHADER);
+        GlStateManager.glShaderSource(shader, List.of(patched));
+        GlStateManager.glCompileShader(shader);
+        if (GlStateManager.glGetShaderi(shader, GL20.GL_COMPILE_STATUS) == 0) {
+            LOGGER.warn("Multiview vertex shader {} failed to compile: {}", name, GlStateManager.glGetShaderInfoLog(shader, 32768).trim());
+            GlStateManager.glDeleteShader(shader);
+            return 0;
+        }
+        VERTEX_SHADERS.put(original, shader);
+        return shader;
+    }
+
+    private static void fail(ShaderInstance shader, String reason) {
+        LOGGER.warn("Disabling single pass stereo, shader {} has no multiview twin: {}", shader.getName(), reason.trim());
+        failed = true;
+    }
+
+    public static void deleteTwin(ShaderInstance shader) {
+        SHADERS.remove(shader);
+        Twin twin = TWINS.remove(shader);
+        if (twin != null) {
+            GlStateManager.glDeleteProgram(twin.program);
+        }
+    }
+
+    public static int getViewCount() {
+        return viewCount;
+    }
+
+    /**
+     * Rebuilds every twin to draw into a different number of views
+     */
+    static void setViewCount(int viewCount) {
+        if (StereoShaders.viewCount == viewCount) {
+            return;
+        }
+        StereoShaders.viewCount = viewCount;
+        for (Twin twin : TWINS.values()) {
+            GlStateManager.glDeleteProgram(twin.program);
+        }
+        TWINS.clear();
+        for (int shader : VERTEX_SHADERS.values()) {
+            GlStateManager.glDeleteShader(shader);
+        }
+        VERTEX_SHADERS.clear();
+        for (ShaderInstance shader : List.copyOf(SHADERS)) {
+            createTwin(shader);
+        }
+    }
+
+    /**
+     * Points every shader at its twin program and uniform locations, or back at the originals
+     */
+    static void setActive(boolean active) {
+        if (StereoShaders.active == active) {
+            return;
+        }
+        StereoShaders.active = active;
+        for (var entry : TWINS.entrySet()) {
+            var acc = (ShaderInstanceAcc) entry.getKey();
+            Twin twin = entry.getValue();
+            acc.setProgramId(active ? twin.program : twin.originalProgram);
+
+            List<Uniform> uniforms = acc.getUniforms();
+            for (int i = 0; i < twin.uniformLocations.length; i++) {
+                Uniform uniform = uniforms.get(i);
+                if (active) {
+                    twin.originalUniformLocations[i] = uniform.getLocation();
+                    uniform.setLocation(twin.uniformLocations[i]);
+                } else {
+                    uniform.setLocation(twin.originalUniformLocations[i]);
+                }
+            }
+            List<Integer> samplers = acc.getSamplerLocations();
+            for (int i = 0; i < twin.samplerLocations.length; i++) {
+                if (active) {
+                    twin.originalSamplerLocations[i] = samplers.get(i);
+                    samplers.set(i, twin.samplerLocations[i]);
+                } else {
+                    samplers.set(i, twin.originalSamplerLocations[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called after a shader is applied during a stereo pass
+     * Only geometry drawn with the world projection is reprojected, screen space passes land the same in both views
+     */
+    public static void onApply(ShaderInstance shader, MultiviewStereo stereo) {
+        if (!active) {
+            return;
+        }
+        Twin twin = TWINS.get(shader);
+        if (twin == null || twin.stereoLocation == -1) {
+            return;
+        }
+        Uniform projection = shader.PROJECTION_MATRIX;
+        FloatBuffer matrices = projection != null && stereo.isWorldProjection(projection.getFloatBuffer()) ? stereo.stereoMatrices : stereo.identityMatrices;
+        GL20.glUniformMatrix4fv(twin.stereoLocation, false, matrices);
+    }
+
+    private static class Twin {
+        final int originalProgram;
+        final int program;
+        final int[] uniformLocations;
+        final int[] originalUniformLocations;
+        final int[] samplerLocations;
+        final int[] originalSamplerLocations;
+        int stereoLocation;
+
+        Twin(int originalProgram, int program, int uniforms, int samplers) {
+            this.originalProgram = originalProgram;
+            this.program = program;
+            this.uniformLocations = new int[uniforms];
+            this.originalUniformLocations = new int[uniforms];
+            this.samplerLocations = new int[samplers];
+            this.originalSamplerLocations = new int[samplers];
+        }
+    }
+}
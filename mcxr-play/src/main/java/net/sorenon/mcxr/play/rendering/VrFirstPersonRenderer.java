@@ -46,6 +46,7 @@ import net.sorenon.fart.RenderTypeBuilder;
 import net.sorenon.mcxr.core.JOMLUtil;
 import net.sorenon.mcxr.core.MCXRCore;
 import net.sorenon.mcxr.core.Pose;
+import net.sorenon.mcxr.core.PoseMath;
 import net.sorenon.mcxr.core.Teleport;
 import net.sorenon.mcxr.play.MCXRGuiManager;
 import net.sorenon.mcxr.play.MCXRPlayClient;
@@ -126,8 +127,8 @@ public class VrFirstPersonRenderer {
         ClientLevel world = context.world();
         assert consumers != null;
 
-        //Render gui
-        if (FGM.position != null) {
+        //Render gui, unless it is submitted as its own composition layer
+        if (FGM.position != null && !XR_RENDERER.isGuiLayerActive()) {
             matrices.pushPose();
             Vec3 pos = FGM.position.subtract(convert(((RenderPass.XrWorld) XR_RENDERER.renderPass).eyePoses.getUnscaledPhysicalPose().getPos()));
             matrices.translate(pos.x, pos.y, pos.z);
@@ -235,7 +236,7 @@ public class VrFirstPersonRenderer {
 
                 Player player = Minecraft.getInstance().player;
 
-                Vector3f dir = pose.getOrientation().rotateX((float) java.lang.Math.toRadians(PlayOptions.handPitchAdjust), new Quaternionf()).transform(new Vector3f(0, -1, 0));
+                Vector3f dir = PoseMath.handDirection(pose.getOrientation(), (float) java.lang.Math.toRadians(PlayOptions.handPitchAdjust), new Vector3f());
 
                 var stage1 = Teleport.fireRayFromHand(player, JOMLUtil.convert(pose.getPos()), JOMLUtil.convert(dir));
                 Vec3 hitPos1 = stage1.getA();
@@ -0,0 +1,34 @@
+package net.sorenon.mcxr.play.rendering;
+
+import org.joml.Math;
+
+public class XrProjection {
+
+    /**
+     * Writes an asymmetric OpenGL projection matrix for the given OpenXR field of view into dest in column major order
+     */
+    public static void compute(float angleLeft, float angleRight, float angleDown, float angleUp, float nearZ, float farZ, float[] dest) {
+        float tanLeft = Math.tan(angleLeft);
+        float tanRight = Math.tan(angleRight);
+        float tanDown = Math.tan(angleDown);
+        float tanUp = Math.tan(angleUp);
+        float tanAngleWidth = tanRight - tanLeft;
+        float tanAngleHeight = tanUp - tanDown;
+        dest[0] = 2.0f / tanAngleWidth;
+        dest[1] = 0.0f;
+        dest[2] = 0.0f;
+        dest[3] = 0.0f;
+        dest[4] = 0.0f;
+        dest[5] = 2.0f / tanAngleHeight;
+        dest[6] = 0.0f;
+        dest[7] = 0.0f;
+        dest[8] = (tanRight + tanLeft) / tanAngleWidth;
+        dest[9] = (tanUp + tanDown) / tanAngleHeight;
+        dest[10] = -(farZ + nearZ) / (farZ - nearZ);
+        dest[11] = -1.0f;
+        dest[12] = 0.0f;
+        dest[13] = 0.0f;
+        dest[14] = -(farZ * (nearZ + nearZ)) / (farZ - nearZ);
+        dest[15] = 0.0f;
+    }
+}
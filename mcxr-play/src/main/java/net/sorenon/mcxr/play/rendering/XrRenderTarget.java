@@ -6,6 +6,7 @@ import com.mojang.blaze3d.platform.TextureUtil;
 import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.client.Minecraft;
 import net.sorenon.mcxr.play.mixin.accessor.RenderTargetAcc;
+import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL30;
 
 import java.nio.IntBuffer;
@@ -13,14 +14,27 @@ import java.nio.IntBuffer;
 import static org.lwjgl.opengl.GL30.GL_COLOR_ATTACHMENT0;
 import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
 
+/**
+ * One layer of a swapchain image
+ * <p>
+ * These don't get a depth buffer of their own, {@link net.sorenon.mcxr.play.openxr.OpenXRSwapchain#getDepthTextureId()}
+ * attaches one shared depth texture to all of them when the world is rendered straight into the swapchain.
+ */
 public class XrRenderTarget extends TextureTarget {
 
+    /**
+     * @param index the layer of the array texture to render to, or -1 if color is a plain 2D texture
+     */
     public XrRenderTarget(int width, int height, int color, int index) {
-        super(width, height, true, Minecraft.ON_OSX);
+        super(width, height, false, Minecraft.ON_OSX);
 
         ((RenderTargetAcc) this).setColorTextureId(color);
         GlStateManager._glBindFramebuffer(GL30.GL_FRAMEBUFFER, frameBufferId);
-        GL30.glFramebufferTextureLayer(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, color, 0, index);
+        if (index < 0) {
+            GlStateManager._glFramebufferTexture2D(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL11.GL_TEXTURE_2D, color, 0);
+        } else {
+            GL30.glFramebufferTextureLayer(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, color, 0, index);
+        }
 
         this.setClearColor(sRGBToLinear(239 / 255f), sRGBToLinear(50 / 255f), sRGBToLinear(61 / 255f), 255 / 255f);
     }
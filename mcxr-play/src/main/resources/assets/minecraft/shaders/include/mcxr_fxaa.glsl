@@ -1,19 +1,28 @@
 #version 150
 //fxaa implementation from http://blog.simonrodriguez.fr/articles/2016/07/implementing_fxaa.html
 
-const int ITERATIONS = 12;
 const float EDGE_THRESHOLD_MIN = 0.0312;
-const float EDGE_THRESHOLD_MAX = 0.125;
 const float QUALITY[12] = float[12] (1.0, 1.0, 1.0, 1.0, 1.0, 1.5, 2.0, 2.0, 2.0, 2.0, 4.0, 8.0);
-const float SUBPIXEL_QUALITY = 0.75;
+// the low and medium tiers explore the edge in fewer, longer steps
+const float QUALITY_FAST[8] = float[8] (1.0, 1.0, 1.5, 2.0, 2.0, 4.0, 8.0, 8.0);
+
+// settings for the low, medium and high tiers
+const int ITERATIONS[3] = int[3] (5, 8, 12);
+const float EDGE_THRESHOLD_MAX[3] = float[3] (0.25, 0.166, 0.125);
+const float SUBPIXEL_QUALITY[3] = float[3] (0.5, 0.75, 0.75);
 
 //rgb must be in the srgb space
 float rgb2luma(vec3 rgb){
     return dot(rgb, vec3(0.299, 0.587, 0.114));
 }
 
-vec3 sample_fxaa(sampler2D screenTexture, vec2 uv, vec2 inverseScreenSize) {
+//quality is 0 for no aa, then 1 to 3 for the low, medium and high tiers
+vec3 sample_fxaa(sampler2D screenTexture, vec2 uv, vec2 inverseScreenSize, int quality) {
     vec3 colorCenter = texture(screenTexture, uv).rgb;
+    if (quality <= 0) {
+        return colorCenter;
+    }
+    int tier = min(quality, 3) - 1;
 
     // Luma at the current fragment
     float lumaCenter = rgb2luma(colorCenter);
@@ -32,7 +41,7 @@ vec3 sample_fxaa(sampler2D screenTexture, vec2 uv, vec2 inverseScreenSize) {
     float lumaRange = lumaMax - lumaMin;
 
     // If the luma variation is lower that a threshold (or if we are in a really dark area), we are not on an edge, don't perform any AA.
-    if (lumaRange < max(EDGE_THRESHOLD_MIN, lumaMax*EDGE_THRESHOLD_MAX)){
+    if (lumaRange < max(EDGE_THRESHOLD_MIN, lumaMax*EDGE_THRESHOLD_MAX[tier])){
         return colorCenter;
     }
 
@@ -122,7 +131,7 @@ vec3 sample_fxaa(sampler2D screenTexture, vec2 uv, vec2 inverseScreenSize) {
     // If both sides have not been reached, continue to explore.
     if(!reachedBoth){
 
-        for(int i = 2; i < ITERATIONS; i++){
+        for(int i = 2; i < ITERATIONS[tier]; i++){
             // If needed, read luma in 1st direction, compute delta.
             if(!reached1){
                 lumaEnd1 = rgb2luma(texture(screenTexture, uv1).rgb);
@@ -139,11 +148,12 @@ vec3 sample_fxaa(sampler2D screenTexture, vec2 uv, vec2 inverseScreenSize) {
             reachedBoth = reached1 && reached2;
 
             // If the side is not reached, we continue to explore in this direction, with a variable quality.
+            float stepQuality = tier == 2 ? QUALITY[i] : QUALITY_FAST[i];
             if(!reached1){
-                uv1 -= offset * QUALITY[i];
+                uv1 -= offset * stepQuality;
             }
             if(!reached2){
-                uv2 += offset * QUALITY[i];
+                uv2 += offset * stepQuality;
             }
 
             // If both sides have been reached, stop the exploration.
@@ -182,7 +192,7 @@ vec3 sample_fxaa(sampler2D screenTexture, vec2 uv, vec2 inverseScreenSize) {
     float subPixelOffset1 = clamp(abs(lumaAverage - lumaCenter)/lumaRange,0.0,1.0);
     float subPixelOffset2 = (-2.0 * subPixelOffset1 + 3.0) * subPixelOffset1 * subPixelOffset1;
     // Compute a sub-pixel offset based on this delta.
-    float subPixelOffsetFinal = subPixelOffset2 * subPixelOffset2 * SUBPIXEL_QUALITY;
+    float subPixelOffsetFinal = subPixelOffset2 * subPixelOffset2 * SUBPIXEL_QUALITY[tier];
 
     // Pick the biggest of the two offsets.
     finalOffset = max(finalOffset,subPixelOffsetFinal);
@@ -0,0 +1,40 @@
+#version 150
+//screen effects drawn over each eye, composited back to front in the same order vanilla draws its overlays
+
+uniform sampler2D VignetteSampler;
+uniform sampler2D HurtSampler;
+uniform sampler2D PortalSampler;
+
+// tint in rgb and opacity in a for each layer, an opacity of 0 skips the layer
+uniform vec4 VignetteColor;
+uniform vec4 PortalColor;
+uniform vec4 HurtColor;
+// drowning, fire, freezing and low health, all tinted copies of the vignette
+uniform mat4 OverlayTints;
+// u0, v0, u1, v1 of the nether portal sprite in the block atlas
+uniform vec4 PortalRect;
+
+vec4 blend_overlay(vec4 below, vec4 color) {
+    return vec4(color.rgb * color.a, color.a) + below * (1.0 - color.a);
+}
+
+//returns the overlays premultiplied by their combined alpha
+vec4 sample_overlays(vec2 uv) {
+    vec4 result = vec4(0.0);
+    vec4 vignette = texture(VignetteSampler, uv);
+    if (VignetteColor.a > 0.0) {
+        result = blend_overlay(result, vignette * VignetteColor);
+    }
+    if (PortalColor.a > 0.0) {
+        result = blend_overlay(result, texture(PortalSampler, mix(PortalRect.xy, PortalRect.zw, uv)) * PortalColor);
+    }
+    if (HurtColor.a > 0.0) {
+        result = blend_overlay(result, texture(HurtSampler, uv) * HurtColor);
+    }
+    for (int i = 0; i < 4; i++) {
+        if (OverlayTints[i].a > 0.0) {
+            result = blend_overlay(result, vignette * OverlayTints[i]);
+        }
+    }
+    return result;
+}
@@ -20,4 +20,8 @@ pluginManagement {
 rootProject.name = "mcxr"
 
 include("mcxr-core")
-include("mcxr-play")
\ No newline at end of file
+include("mcxr-play")
+// Only part of the build when asked for, e.g. ./gradlew -Pmcxr.bench :mcxr-bench:jmh
+if (startParameter.projectProperties.containsKey("mcxr.bench")) {
+    include("mcxr-bench")
+}
\ No newline at end of file